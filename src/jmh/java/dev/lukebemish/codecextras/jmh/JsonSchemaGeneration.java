@@ -0,0 +1,69 @@
+package dev.lukebemish.codecextras.jmh;
+
+import com.google.gson.stream.JsonWriter;
+import dev.lukebemish.codecextras.structured.Annotation;
+import dev.lukebemish.codecextras.structured.Structure;
+import dev.lukebemish.codecextras.structured.schema.JsonSchemaInterpreter;
+import dev.lukebemish.codecextras.structured.schema.SchemaAnnotations;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@Measurement(time = 2, iterations = 5)
+@Warmup(time = 2, iterations = 2)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(value = Scope.Thread)
+public class JsonSchemaGeneration {
+    @Param({"16", "128"})
+    public int depth;
+
+    private Structure<Nested> structure;
+
+    private record Nested(int value, String name, List<Nested> children) {}
+
+    private static Structure<Nested> nested(int depth) {
+        if (depth == 0) {
+            return Structure.<Nested>record(i -> {
+                var value = i.add("value", Structure.INT, Nested::value);
+                return container -> new Nested(value.apply(container), "leaf", List.of());
+            });
+        }
+        var children = nested(depth - 1);
+        var structure = Structure.<Nested>record(i -> {
+            var value = i.add("value", Structure.INT.annotate(Annotation.DESCRIPTION, "Value at depth " + depth), Nested::value);
+            var name = i.addOptional("name", Structure.STRING, Nested::name, () -> "level" + depth);
+            var list = i.addOptional("children", children.listOf(), Nested::children, List::of);
+            return container -> new Nested(value.apply(container), name.apply(container), list.apply(container));
+        });
+        // Every fourth level is a definition, so the schema has both inline and referenced parts
+        return depth % 4 == 0 ? structure.annotate(SchemaAnnotations.REUSE_KEY, "level" + depth) : structure;
+    }
+
+    @Setup
+    public void setup() {
+        structure = nested(depth);
+    }
+
+    @Benchmark
+    public void tree(Blackhole blackhole) {
+        blackhole.consume(new JsonSchemaInterpreter().interpret(structure).getOrThrow().toString());
+    }
+
+    @Benchmark
+    public void written(Blackhole blackhole) throws IOException {
+        blackhole.consume(new JsonSchemaInterpreter().write(structure, new JsonWriter(Writer.nullWriter())).getOrThrow());
+    }
+}
@@ -38,6 +38,13 @@ public void keyedRecordCodecBuilder(Blackhole blackhole) {
             blackhole.consume(result.result().orElseThrow());
         }
 
+        @Benchmark
+        public void keyedRecordCodecBuilderReusing(Blackhole blackhole) {
+            JsonElement json = TestRecord.makeData(counter++);
+            var result = TestRecord.KRCB_REUSING.decode(JsonOps.INSTANCE, json);
+            blackhole.consume(result.result().orElseThrow());
+        }
+
         @Benchmark
         public void curriedRecordCodecBuilder(Blackhole blackhole) {
             JsonElement json = TestRecord.makeData(counter++);
@@ -45,12 +52,40 @@ public void curriedRecordCodecBuilder(Blackhole blackhole) {
             blackhole.consume(result.result().orElseThrow());
         }
 
+        @Benchmark
+        public void curriedRecordCodecBuilderCompiled(Blackhole blackhole) {
+            JsonElement json = TestRecord.makeData(counter++);
+            var result = TestRecord.CRCB_COMPILED.decode(JsonOps.INSTANCE, json);
+            blackhole.consume(result.result().orElseThrow());
+        }
+
         @Benchmark
         public void methodHandleRecordCodecBuilder(Blackhole blackhole) {
             JsonElement json = TestRecord.makeData(counter++);
             var result = TestRecord.MHRCB.decode(JsonOps.INSTANCE, json);
             blackhole.consume(result.result().orElseThrow());
         }
+
+        @Benchmark
+        public void methodHandleRecordCodecBuilderSinglePass(Blackhole blackhole) {
+            JsonElement json = TestRecord.makeData(counter++);
+            var result = TestRecord.MHRCB_SINGLE_PASS.decode(JsonOps.INSTANCE, json);
+            blackhole.consume(result.result().orElseThrow());
+        }
+
+        @Benchmark
+        public void methodHandleRecordCodecBuilderPrimitive(Blackhole blackhole) {
+            JsonElement json = TestRecord.makeData(counter++);
+            var result = TestRecord.MHRCB_PRIMITIVE.decode(JsonOps.INSTANCE, json);
+            blackhole.consume(result.result().orElseThrow());
+        }
+
+        @Benchmark
+        public void methodHandleRecordCodecBuilderRecord(Blackhole blackhole) {
+            JsonElement json = TestRecord.makeData(counter++);
+            var result = TestRecord.MHRCB_RECORD.decode(JsonOps.INSTANCE, json);
+            blackhole.consume(result.result().orElseThrow());
+        }
     }
 
     @OutputTimeUnit(TimeUnit.MICROSECONDS)
@@ -65,7 +100,9 @@ public void setup() {
             json = TestRecord.makeData(0);
             TestRecord.RCB.decode(JsonOps.INSTANCE, json);
             TestRecord.KRCB.decode(JsonOps.INSTANCE, json);
+            TestRecord.KRCB_REUSING.decode(JsonOps.INSTANCE, json);
             TestRecord.CRCB.decode(JsonOps.INSTANCE, json);
+            TestRecord.CRCB_COMPILED.decode(JsonOps.INSTANCE, json);
         }
 
         @Benchmark
@@ -80,16 +117,46 @@ public void keyedRecordCodecBuilder(Blackhole blackhole) {
             blackhole.consume(result.result().orElseThrow());
         }
 
+        @Benchmark
+        public void keyedRecordCodecBuilderReusing(Blackhole blackhole) {
+            var result = TestRecord.KRCB_REUSING.decode(JsonOps.INSTANCE, json);
+            blackhole.consume(result.result().orElseThrow());
+        }
+
         @Benchmark
         public void curriedRecordCodecBuilder(Blackhole blackhole) {
             var result = TestRecord.CRCB.decode(JsonOps.INSTANCE, json);
             blackhole.consume(result.result().orElseThrow());
         }
 
+        @Benchmark
+        public void curriedRecordCodecBuilderCompiled(Blackhole blackhole) {
+            var result = TestRecord.CRCB_COMPILED.decode(JsonOps.INSTANCE, json);
+            blackhole.consume(result.result().orElseThrow());
+        }
+
         @Benchmark
         public void methodHandleRecordCodecBuilder(Blackhole blackhole) {
             var result = TestRecord.MHRCB.decode(JsonOps.INSTANCE, json);
             blackhole.consume(result.result().orElseThrow());
         }
+
+        @Benchmark
+        public void methodHandleRecordCodecBuilderSinglePass(Blackhole blackhole) {
+            var result = TestRecord.MHRCB_SINGLE_PASS.decode(JsonOps.INSTANCE, json);
+            blackhole.consume(result.result().orElseThrow());
+        }
+
+        @Benchmark
+        public void methodHandleRecordCodecBuilderPrimitive(Blackhole blackhole) {
+            var result = TestRecord.MHRCB_PRIMITIVE.decode(JsonOps.INSTANCE, json);
+            blackhole.consume(result.result().orElseThrow());
+        }
+
+        @Benchmark
+        public void methodHandleRecordCodecBuilderRecord(Blackhole blackhole) {
+            var result = TestRecord.MHRCB_RECORD.decode(JsonOps.INSTANCE, json);
+            blackhole.consume(result.result().orElseThrow());
+        }
     }
 }
@@ -0,0 +1,77 @@
+package dev.lukebemish.codecextras.jmh;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DynamicOps;
+import com.mojang.serialization.JsonOps;
+import dev.lukebemish.codecextras.compat.jankson.JanksonOps;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@Measurement(time = 2, iterations = 5)
+@Warmup(time = 2, iterations = 2)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(value = Scope.Thread)
+public class LargeRecordsDecodeOps {
+    @Param({"json", "jankson"})
+    public String format;
+
+    private Object data;
+    private DynamicOps<Object> ops;
+
+    @SuppressWarnings("unchecked")
+    @Setup
+    public void setup() {
+        switch (format) {
+            case "json" -> {
+                data = TestRecord.makeData(0);
+                ops = (DynamicOps<Object>) (DynamicOps<?>) JsonOps.INSTANCE;
+            }
+            case "jankson" -> {
+                data = TestRecord.makeJanksonData(0);
+                ops = (DynamicOps<Object>) (DynamicOps<?>) JanksonOps.INSTANCE;
+            }
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        }
+    }
+
+    private void decode(Codec<TestRecord> codec, Blackhole blackhole) {
+        var result = codec.decode(ops, data);
+        blackhole.consume(result.result().orElseThrow());
+    }
+
+    @Benchmark
+    public void recordCodecBuilder(Blackhole blackhole) {
+        decode(TestRecord.RCB, blackhole);
+    }
+
+    @Benchmark
+    public void keyedRecordCodecBuilder(Blackhole blackhole) {
+        decode(TestRecord.KRCB, blackhole);
+    }
+
+    @Benchmark
+    public void curriedRecordCodecBuilder(Blackhole blackhole) {
+        decode(TestRecord.CRCB, blackhole);
+    }
+
+    @Benchmark
+    public void curriedRecordCodecBuilderCompiled(Blackhole blackhole) {
+        decode(TestRecord.CRCB_COMPILED, blackhole);
+    }
+
+    @Benchmark
+    public void methodHandleRecordCodecBuilder(Blackhole blackhole) {
+        decode(TestRecord.MHRCB, blackhole);
+    }
+}
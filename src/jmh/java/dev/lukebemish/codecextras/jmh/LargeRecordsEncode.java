@@ -44,12 +44,47 @@ public void curriedRecordCodecBuilder(Blackhole blackhole) {
             blackhole.consume(result.result().orElseThrow());
         }
 
+        @Benchmark
+        public void curriedRecordCodecBuilderCompiled(Blackhole blackhole) {
+            TestRecord record = TestRecord.makeRecord(counter++);
+            var result = TestRecord.CRCB_COMPILED.encodeStart(JsonOps.INSTANCE, record);
+            blackhole.consume(result.result().orElseThrow());
+        }
+
         @Benchmark
         public void methodHandleRecordCodecBuilder(Blackhole blackhole) {
             TestRecord record = TestRecord.makeRecord(counter++);
             var result = TestRecord.MHRCB.encodeStart(JsonOps.INSTANCE, record);
             blackhole.consume(result.result().orElseThrow());
         }
+
+        @Benchmark
+        public void methodHandleRecordCodecBuilderPrimitive(Blackhole blackhole) {
+            TestRecord record = TestRecord.makeRecord(counter++);
+            var result = TestRecord.MHRCB_PRIMITIVE.encodeStart(JsonOps.INSTANCE, record);
+            blackhole.consume(result.result().orElseThrow());
+        }
+
+        @Benchmark
+        public void methodHandleRecordCodecBuilderRecord(Blackhole blackhole) {
+            TestRecord record = TestRecord.makeRecord(counter++);
+            var result = TestRecord.MHRCB_RECORD.encodeStart(JsonOps.INSTANCE, record);
+            blackhole.consume(result.result().orElseThrow());
+        }
+
+        @Benchmark
+        public void structured(Blackhole blackhole) {
+            TestRecord record = TestRecord.makeRecord(counter++);
+            var result = TestRecord.STRUCTURED.encodeStart(JsonOps.INSTANCE, record);
+            blackhole.consume(result.result().orElseThrow());
+        }
+
+        @Benchmark
+        public void structuredEncoder(Blackhole blackhole) {
+            TestRecord record = TestRecord.makeRecord(counter++);
+            var result = TestRecord.ENCODER.encodeStart(JsonOps.INSTANCE, record);
+            blackhole.consume(result.result().orElseThrow());
+        }
     }
 
     @OutputTimeUnit(TimeUnit.MICROSECONDS)
@@ -65,6 +100,7 @@ public void setup() {
             TestRecord.RCB.encodeStart(JsonOps.INSTANCE, record);
             TestRecord.KRCB.encodeStart(JsonOps.INSTANCE, record);
             TestRecord.CRCB.encodeStart(JsonOps.INSTANCE, record);
+            TestRecord.CRCB_COMPILED.encodeStart(JsonOps.INSTANCE, record);
         }
 
         @Benchmark
@@ -85,10 +121,28 @@ public void curriedRecordCodecBuilder(Blackhole blackhole) {
             blackhole.consume(result.result().orElseThrow());
         }
 
+        @Benchmark
+        public void curriedRecordCodecBuilderCompiled(Blackhole blackhole) {
+            var result = TestRecord.CRCB_COMPILED.encodeStart(JsonOps.INSTANCE, record);
+            blackhole.consume(result.result().orElseThrow());
+        }
+
         @Benchmark
         public void methodHandleRecordCodecBuilder(Blackhole blackhole) {
             var result = TestRecord.MHRCB.encodeStart(JsonOps.INSTANCE, record);
             blackhole.consume(result.result().orElseThrow());
         }
+
+        @Benchmark
+        public void methodHandleRecordCodecBuilderPrimitive(Blackhole blackhole) {
+            var result = TestRecord.MHRCB_PRIMITIVE.encodeStart(JsonOps.INSTANCE, record);
+            blackhole.consume(result.result().orElseThrow());
+        }
+
+        @Benchmark
+        public void methodHandleRecordCodecBuilderRecord(Blackhole blackhole) {
+            var result = TestRecord.MHRCB_RECORD.encodeStart(JsonOps.INSTANCE, record);
+            blackhole.consume(result.result().orElseThrow());
+        }
     }
 }
@@ -0,0 +1,69 @@
+package dev.lukebemish.codecextras.jmh;
+
+import com.google.gson.JsonElement;
+import com.mojang.serialization.JsonOps;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@Measurement(time = 2, iterations = 5)
+@Warmup(time = 2, iterations = 2)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(value = Scope.Thread)
+public class PartialRecordsDecode {
+    @Param({"1", "5", "16"})
+    public int broken;
+
+    private JsonElement json;
+
+    @Setup
+    public void setup() {
+        json = TestRecord.makeBrokenData(0, broken);
+    }
+
+    @Benchmark
+    public void recordCodecBuilder(Blackhole blackhole) {
+        var result = TestRecord.RCB.decode(JsonOps.INSTANCE, json);
+        blackhole.consume(result.error().orElseThrow().message());
+    }
+
+    @Benchmark
+    public void keyedRecordCodecBuilder(Blackhole blackhole) {
+        var result = TestRecord.KRCB.decode(JsonOps.INSTANCE, json);
+        blackhole.consume(result.error().orElseThrow().message());
+    }
+
+    @Benchmark
+    public void methodHandleRecordCodecBuilder(Blackhole blackhole) {
+        var result = TestRecord.MHRCB.decode(JsonOps.INSTANCE, json);
+        blackhole.consume(result.error().orElseThrow().message());
+    }
+
+    @Benchmark
+    public void methodHandleRecordCodecBuilderAccumulating(Blackhole blackhole) {
+        var result = TestRecord.MHRCB_ACCUMULATING.decode(JsonOps.INSTANCE, json);
+        blackhole.consume(result.error().orElseThrow().message());
+    }
+
+    @Benchmark
+    public void structured(Blackhole blackhole) {
+        var result = TestRecord.STRUCTURED.decode(JsonOps.INSTANCE, json);
+        blackhole.consume(result.error().orElseThrow().message());
+    }
+
+    @Benchmark
+    public void structuredDiscardingMessage(Blackhole blackhole) {
+        var result = TestRecord.STRUCTURED.decode(JsonOps.INSTANCE, json);
+        blackhole.consume(result.isError());
+    }
+}
@@ -0,0 +1,43 @@
+package dev.lukebemish.codecextras.jmh;
+
+import com.google.gson.JsonElement;
+import com.mojang.serialization.JsonOps;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@Measurement(time = 2, iterations = 5)
+@Warmup(time = 2, iterations = 2)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(value = Scope.Thread)
+public class RecordsValidate {
+    @Param({"0", "5"})
+    public int broken;
+
+    private JsonElement json;
+
+    @Setup
+    public void setup() {
+        json = TestRecord.makeBrokenData(0, broken);
+    }
+
+    @Benchmark
+    public void decoding(Blackhole blackhole) {
+        blackhole.consume(TestRecord.STRUCTURED.decode(JsonOps.INSTANCE, json).isSuccess());
+    }
+
+    @Benchmark
+    public void validating(Blackhole blackhole) {
+        blackhole.consume(TestRecord.VALIDATOR.validate(JsonOps.INSTANCE, json).isSuccess());
+    }
+}
@@ -2,11 +2,19 @@
 
 import com.google.gson.JsonObject;
 import com.mojang.serialization.Codec;
+import com.mojang.serialization.Encoder;
+import com.mojang.serialization.JsonOps;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
+import dev.lukebemish.codecextras.compat.jankson.JanksonOps;
 import dev.lukebemish.codecextras.record.CurriedRecordCodecBuilder;
 import dev.lukebemish.codecextras.record.KeyedRecordCodecBuilder;
 import dev.lukebemish.codecextras.record.MethodHandleRecordCodecBuilder;
+import dev.lukebemish.codecextras.structured.CodecInterpreter;
+import dev.lukebemish.codecextras.structured.EncoderInterpreter;
+import dev.lukebemish.codecextras.structured.Structure;
+import dev.lukebemish.codecextras.structured.ValidatorInterpreter;
 import java.lang.invoke.MethodHandles;
+import java.util.Map;
 
 record TestRecord(
     int a, int b, int c, int d,
@@ -57,6 +65,30 @@ record TestRecord(
             m, n, o, p
         ));
 
+    public static final Codec<TestRecord> CRCB_COMPILED = CurriedRecordCodecBuilder
+        .start(Codec.INT.fieldOf("a"), TestRecord::a)
+        .field(Codec.INT.fieldOf("b"), TestRecord::b)
+        .field(Codec.INT.fieldOf("c"), TestRecord::c)
+        .field(Codec.INT.fieldOf("d"), TestRecord::d)
+        .field(Codec.INT.fieldOf("e"), TestRecord::e)
+        .field(Codec.INT.fieldOf("f"), TestRecord::f)
+        .field(Codec.INT.fieldOf("g"), TestRecord::g)
+        .field(Codec.INT.fieldOf("h"), TestRecord::h)
+        .field(Codec.INT.fieldOf("i"), TestRecord::i)
+        .field(Codec.INT.fieldOf("j"), TestRecord::j)
+        .field(Codec.INT.fieldOf("k"), TestRecord::k)
+        .field(Codec.INT.fieldOf("l"), TestRecord::l)
+        .field(Codec.INT.fieldOf("m"), TestRecord::m)
+        .field(Codec.INT.fieldOf("n"), TestRecord::n)
+        .field(Codec.INT.fieldOf("o"), TestRecord::o)
+        .field(Codec.INT.fieldOf("p"), TestRecord::p)
+        .compile(p -> o -> n -> m -> l -> k -> j -> i -> h -> g -> f -> e -> d -> c -> b -> a -> new TestRecord(
+            a, b, c, d,
+            e, f, g, h,
+            i, j, k, l,
+            m, n, o, p
+        )).codec();
+
     public static final Codec<TestRecord> MHRCB = MethodHandleRecordCodecBuilder.<TestRecord>start()
         .with(Codec.INT.fieldOf("a"), TestRecord::a)
         .with(Codec.INT.fieldOf("c"), TestRecord::c)
@@ -76,6 +108,67 @@ record TestRecord(
         .with(Codec.INT.fieldOf("p"), TestRecord::p)
         .buildWithConstructor(MethodHandles.lookup(), TestRecord.class);
 
+    public static final Codec<TestRecord> MHRCB_SINGLE_PASS = MethodHandleRecordCodecBuilder.<TestRecord>start()
+        .withField("a", Codec.INT, TestRecord::a)
+        .withField("b", Codec.INT, TestRecord::b)
+        .withField("c", Codec.INT, TestRecord::c)
+        .withField("d", Codec.INT, TestRecord::d)
+        .withField("e", Codec.INT, TestRecord::e)
+        .withField("f", Codec.INT, TestRecord::f)
+        .withField("g", Codec.INT, TestRecord::g)
+        .withField("h", Codec.INT, TestRecord::h)
+        .withField("i", Codec.INT, TestRecord::i)
+        .withField("j", Codec.INT, TestRecord::j)
+        .withField("k", Codec.INT, TestRecord::k)
+        .withField("l", Codec.INT, TestRecord::l)
+        .withField("m", Codec.INT, TestRecord::m)
+        .withField("n", Codec.INT, TestRecord::n)
+        .withField("o", Codec.INT, TestRecord::o)
+        .withField("p", Codec.INT, TestRecord::p)
+        .singlePass()
+        .buildWithConstructor(MethodHandles.lookup(), TestRecord.class);
+
+    public static final Codec<TestRecord> MHRCB_PRIMITIVE = MethodHandleRecordCodecBuilder.<TestRecord>start()
+        .withInt("a", TestRecord::a)
+        .withInt("b", TestRecord::b)
+        .withInt("c", TestRecord::c)
+        .withInt("d", TestRecord::d)
+        .withInt("e", TestRecord::e)
+        .withInt("f", TestRecord::f)
+        .withInt("g", TestRecord::g)
+        .withInt("h", TestRecord::h)
+        .withInt("i", TestRecord::i)
+        .withInt("j", TestRecord::j)
+        .withInt("k", TestRecord::k)
+        .withInt("l", TestRecord::l)
+        .withInt("m", TestRecord::m)
+        .withInt("n", TestRecord::n)
+        .withInt("o", TestRecord::o)
+        .withInt("p", TestRecord::p)
+        .buildWithConstructor(MethodHandles.lookup(), TestRecord.class);
+
+    public static final Codec<TestRecord> MHRCB_ACCUMULATING = MethodHandleRecordCodecBuilder.<TestRecord>start()
+        .withInt("a", TestRecord::a)
+        .withInt("b", TestRecord::b)
+        .withInt("c", TestRecord::c)
+        .withInt("d", TestRecord::d)
+        .withInt("e", TestRecord::e)
+        .withInt("f", TestRecord::f)
+        .withInt("g", TestRecord::g)
+        .withInt("h", TestRecord::h)
+        .withInt("i", TestRecord::i)
+        .withInt("j", TestRecord::j)
+        .withInt("k", TestRecord::k)
+        .withInt("l", TestRecord::l)
+        .withInt("m", TestRecord::m)
+        .withInt("n", TestRecord::n)
+        .withInt("o", TestRecord::o)
+        .withInt("p", TestRecord::p)
+        .accumulateErrors()
+        .buildWithConstructor(MethodHandles.lookup(), TestRecord.class);
+
+    public static final Codec<TestRecord> MHRCB_RECORD = MethodHandleRecordCodecBuilder.forRecord(MethodHandles.lookup(), TestRecord.class, Map.of()).codec();
+
     public static final Codec<TestRecord> KRCB = KeyedRecordCodecBuilder.codec(builder -> {
         var a = builder.add(Codec.INT.fieldOf("a"), TestRecord::a);
         var b = builder.add(Codec.INT.fieldOf("b"), TestRecord::b);
@@ -101,6 +194,62 @@ record TestRecord(
         );
     });
 
+    public static final Codec<TestRecord> KRCB_REUSING = KeyedRecordCodecBuilder.codec(builder -> {
+        var a = builder.add(Codec.INT.fieldOf("a"), TestRecord::a);
+        var b = builder.add(Codec.INT.fieldOf("b"), TestRecord::b);
+        var c = builder.add(Codec.INT.fieldOf("c"), TestRecord::c);
+        var d = builder.add(Codec.INT.fieldOf("d"), TestRecord::d);
+        var e = builder.add(Codec.INT.fieldOf("e"), TestRecord::e);
+        var f = builder.add(Codec.INT.fieldOf("f"), TestRecord::f);
+        var g = builder.add(Codec.INT.fieldOf("g"), TestRecord::g);
+        var h = builder.add(Codec.INT.fieldOf("h"), TestRecord::h);
+        var i = builder.add(Codec.INT.fieldOf("i"), TestRecord::i);
+        var j = builder.add(Codec.INT.fieldOf("j"), TestRecord::j);
+        var k = builder.add(Codec.INT.fieldOf("k"), TestRecord::k);
+        var l = builder.add(Codec.INT.fieldOf("l"), TestRecord::l);
+        var m = builder.add(Codec.INT.fieldOf("m"), TestRecord::m);
+        var n = builder.add(Codec.INT.fieldOf("n"), TestRecord::n);
+        var o = builder.add(Codec.INT.fieldOf("o"), TestRecord::o);
+        var p = builder.add(Codec.INT.fieldOf("p"), TestRecord::p);
+        return container -> new TestRecord(
+            container.get(a), container.get(b), container.get(c), container.get(d),
+            container.get(e), container.get(f), container.get(g), container.get(h),
+            container.get(i), container.get(j), container.get(k), container.get(l),
+            container.get(m), container.get(n), container.get(o), container.get(p)
+        );
+    }, true);
+
+    public static final Structure<TestRecord> STRUCTURE = Structure.<TestRecord>record(builder -> {
+        var a = builder.add("a", Structure.INT, TestRecord::a);
+        var b = builder.add("b", Structure.INT, TestRecord::b);
+        var c = builder.add("c", Structure.INT, TestRecord::c);
+        var d = builder.add("d", Structure.INT, TestRecord::d);
+        var e = builder.add("e", Structure.INT, TestRecord::e);
+        var f = builder.add("f", Structure.INT, TestRecord::f);
+        var g = builder.add("g", Structure.INT, TestRecord::g);
+        var h = builder.add("h", Structure.INT, TestRecord::h);
+        var i = builder.add("i", Structure.INT, TestRecord::i);
+        var j = builder.add("j", Structure.INT, TestRecord::j);
+        var k = builder.add("k", Structure.INT, TestRecord::k);
+        var l = builder.add("l", Structure.INT, TestRecord::l);
+        var m = builder.add("m", Structure.INT, TestRecord::m);
+        var n = builder.add("n", Structure.INT, TestRecord::n);
+        var o = builder.add("o", Structure.INT, TestRecord::o);
+        var p = builder.add("p", Structure.INT, TestRecord::p);
+        return container -> new TestRecord(
+            a.apply(container), b.apply(container), c.apply(container), d.apply(container),
+            e.apply(container), f.apply(container), g.apply(container), h.apply(container),
+            i.apply(container), j.apply(container), k.apply(container), l.apply(container),
+            m.apply(container), n.apply(container), o.apply(container), p.apply(container)
+        );
+    });
+
+    public static final Codec<TestRecord> STRUCTURED = CodecInterpreter.create().interpret(STRUCTURE).getOrThrow();
+
+    public static final Encoder<TestRecord> ENCODER = new EncoderInterpreter().interpret(STRUCTURE).getOrThrow();
+
+    public static final ValidatorInterpreter.Validator VALIDATOR = new ValidatorInterpreter().interpret(STRUCTURE).getOrThrow();
+
     public static TestRecord makeRecord(int i) {
         return new TestRecord(
             i, i + 1, i + 2, i + 3, i + 4, i + 5, i + 6, i + 7, i + 8, i + 9, i + 10, i + 11, i + 12, i + 13, i + 14, i + 15
@@ -114,4 +263,16 @@ public static JsonObject makeData(int i) {
         }
         return json;
     }
+
+    public static blue.endless.jankson.JsonElement makeJanksonData(int i) {
+        return JsonOps.INSTANCE.convertTo(JanksonOps.INSTANCE, makeData(i));
+    }
+
+    public static JsonObject makeBrokenData(int i, int broken) {
+        JsonObject json = makeData(i);
+        for (int j = 0; j < broken; j++) {
+            json.addProperty(Character.toString('a'+j), "broken");
+        }
+        return json;
+    }
 }
@@ -9,6 +9,7 @@
 import dev.lukebemish.codecextras.comments.CommentOps;
 import dev.lukebemish.codecextras.companion.AccompaniedOps;
 import dev.lukebemish.codecextras.companion.Companion;
+import dev.lukebemish.codecextras.record.IndexedMapLike;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -17,7 +18,7 @@
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
-public class JanksonOps implements DynamicOps<JsonElement>, AccompaniedOps<JsonElement> {
+public class JanksonOps implements DynamicOps<JsonElement>, AccompaniedOps<JsonElement>, IndexedMapLike.ScanningOps {
     public static final JanksonOps INSTANCE = new JanksonOps();
     public static final JanksonOps COMMENTED = new JanksonOps() {
         @SuppressWarnings("unchecked")
@@ -6,6 +6,7 @@
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.DynamicOps;
 import com.mojang.serialization.MapLike;
+import dev.lukebemish.codecextras.record.IndexedMapLike;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -13,7 +14,7 @@
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public abstract class NightConfigOps<T extends Config> implements DynamicOps<Object> {
+public abstract class NightConfigOps<T extends Config> implements DynamicOps<Object>, IndexedMapLike.ScanningOps {
 
     protected abstract T newConfig();
 
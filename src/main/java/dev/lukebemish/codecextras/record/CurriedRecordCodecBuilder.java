@@ -2,7 +2,11 @@
 
 import com.mojang.serialization.*;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 /**
@@ -54,6 +58,7 @@ public final Codec<A> build(B b) {
      * @return a map codec for the type {@code A}
      */
     public final MapCodec<A> buildMap(B b) {
+        int fieldCount = fieldCount();
         return new MapCodec<>() {
 
             @Override
@@ -63,7 +68,7 @@ public <T> RecordBuilder<T> encode(A input, DynamicOps<T> ops, RecordBuilder<T>
 
             @Override
             public <T> DataResult<A> decode(DynamicOps<T> ops, MapLike<T> input) {
-                return decodePartial(ops, input, b);
+                return decodePartial(ops, IndexedMapLike.forFields(ops, input, fieldCount), b);
             }
 
             @Override
@@ -78,6 +83,31 @@ public String toString() {
         };
     }
 
+    /**
+     * Builds a map codec with the provided builder function for the final step of decoding, flattening the chain of
+     * fields once up front. The resulting codec decodes every field into an array before applying the builder function
+     * in a loop, instead of recursing through every field; it otherwise behaves the same as {@link #buildMap(AppFunction)}.
+     * @param b the builder function to use in the final step of decoding; can be expressed as a nested lambda function
+     *          with fields in the opposite order that they were built in
+     * @return a map codec for the type {@code A}
+     */
+    public final MapCodec<A> compile(B b) {
+        List<CurriedRecordCodecBuilder<A, ?, ?>> chain = new ArrayList<>();
+        CurriedRecordCodecBuilder<A, ?, ?> current = this;
+        while (current instanceof Delegating<A, ?, ?, ?> delegating) {
+            chain.add(delegating);
+            current = delegating.delegate;
+        }
+        chain.add(current);
+        MapCodec<?>[] codecs = new MapCodec<?>[chain.size()];
+        @SuppressWarnings("unchecked") Function<A, ?>[] getters = new Function[chain.size()];
+        for (int i = 0; i < chain.size(); i++) {
+            codecs[i] = chain.get(i).codec;
+            getters[i] = chain.get(i).getter;
+        }
+        return new Compiled<>(codecs, getters, b, toString());
+    }
+
     public non-sealed interface FinalAppFunction<A, B> extends AppFunction {
         A create(B b);
     }
@@ -99,6 +129,87 @@ private CurriedRecordCodecBuilder(MapCodec<F> codec, Function<A, F> getter) {
     protected abstract <T> RecordBuilder<T> encodeChildren(A input, DynamicOps<T> ops, RecordBuilder<T> prefix);
     protected abstract <T> DataResult<A> decodePartial(DynamicOps<T> ops, MapLike<T> input, B b);
     protected abstract <T> Stream<T> keysPartial(DynamicOps<T> ops);
+    protected abstract int fieldCount();
+
+    private static final class Compiled<A> extends MapCodec<A> {
+        private final MapCodec<?>[] codecs;
+        private final Function<A, ?>[] getters;
+        private final AppFunction function;
+        private final String name;
+
+        private Compiled(MapCodec<?>[] codecs, Function<A, ?>[] getters, AppFunction function, String name) {
+            this.codecs = codecs;
+            this.getters = getters;
+            this.function = function;
+            this.name = name;
+        }
+
+        @Override
+        public <T> RecordBuilder<T> encode(A input, DynamicOps<T> ops, RecordBuilder<T> prefix) {
+            for (int i = 0; i < codecs.length; i++) {
+                prefix = encodeField(codecs[i], getters[i], input, ops, prefix);
+            }
+            return prefix;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <A, F, T> RecordBuilder<T> encodeField(MapCodec<F> codec, Function<A, ?> getter, A input, DynamicOps<T> ops, RecordBuilder<T> prefix) {
+            return codec.encode((F) getter.apply(input), ops, prefix);
+        }
+
+        @Override
+        public <T> DataResult<A> decode(DynamicOps<T> ops, MapLike<T> input) {
+            input = IndexedMapLike.forFields(ops, input, codecs.length);
+            Object[] values = new Object[codecs.length];
+            Lifecycle lifecycle = Lifecycle.stable();
+            Supplier<String> errorMessage = null;
+            for (int i = 0; i < codecs.length; i++) {
+                DataResult<?> result = codecs[i].decode(ops, input);
+                lifecycle = lifecycle.add(result.lifecycle());
+                if (result instanceof DataResult.Error<?> error) {
+                    // Matches the chained flatMap of the recursive form, which continues with partial values
+                    var message = error.messageSupplier();
+                    if (errorMessage == null) {
+                        errorMessage = message;
+                    } else {
+                        var oldMessage = errorMessage;
+                        errorMessage = () -> oldMessage.get() + "; " + message.get();
+                    }
+                    if (error.partialValue().isEmpty()) {
+                        return DataResult.error(errorMessage, lifecycle);
+                    }
+                    values[i] = error.partialValue().get();
+                } else {
+                    values[i] = result.getOrThrow();
+                }
+            }
+            A value = apply(values);
+            if (errorMessage != null) {
+                return DataResult.error(errorMessage, value, lifecycle);
+            }
+            return DataResult.success(value, lifecycle);
+        }
+
+        @SuppressWarnings("unchecked")
+        private A apply(Object[] values) {
+            AppFunction current = function;
+            int last = values.length - 1;
+            for (int i = 0; i < last; i++) {
+                current = ((FromAppFunction<Object, ?>) current).create(values[i]);
+            }
+            return ((FinalAppFunction<A, Object>) current).create(values[last]);
+        }
+
+        @Override
+        public <T> Stream<T> keys(DynamicOps<T> ops) {
+            return Arrays.stream(codecs).flatMap(codec -> codec.keys(ops));
+        }
+
+        @Override
+        public String toString() {
+            return "Compiled" + name;
+        }
+    }
 
     private static final class Endpoint<A, F, B extends CurriedRecordCodecBuilder.FinalAppFunction<A, F>> extends CurriedRecordCodecBuilder<A, F, B> {
         private Endpoint(MapCodec<F> codec, Function<A, F> getter) {
@@ -123,6 +234,11 @@ protected <T> Stream<T> keysPartial(DynamicOps<T> ops) {
             return codec.keys(ops);
         }
 
+        @Override
+        protected int fieldCount() {
+            return 1;
+        }
+
         @Override
         public String toString() {
             return "ExtendedRecordCodec[" + codec + "]";
@@ -158,6 +274,11 @@ protected <T> Stream<T> keysPartial(DynamicOps<T> ops) {
             return Stream.concat(keysPartial(ops), delegate.keysPartial(ops));
         }
 
+        @Override
+        protected int fieldCount() {
+            return 1 + delegate.fieldCount();
+        }
+
         @Override
         public String toString() {
             return "CurriedRecordCodec[" + codec + "] -> " + delegate.toString();
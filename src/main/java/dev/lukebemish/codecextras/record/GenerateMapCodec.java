@@ -0,0 +1,43 @@
+package dev.lukebemish.codecextras.record;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Marks a record for which a specialized {@link com.mojang.serialization.MapCodec} should be generated at compile time
+ * by {@code dev.lukebemish.codecextras.record.processor.MapCodecProcessor}, which is published separately as the
+ * {@code codecextras-processor} feature and must be added to the annotation processor path. The generated class is
+ * named after the record with a {@code MapCodec} suffix, lives in the same package, and exposes its codec as
+ * {@code INSTANCE}. It decodes and encodes the same way as the corresponding {@link MethodHandleRecordCodecBuilder}
+ * codec would, but needs no runtime class generation.
+ * <p>
+ * Components of primitive types and of type {@link String} need no further information; any other component must
+ * provide a codec through {@link Field#codec()}. A component of type {@link java.util.Optional} is treated as an
+ * optional field, with its codec being the codec of the contained type.
+ */
+@ApiStatus.Experimental
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateMapCodec {
+    /**
+     * Configures how a single record component is serialized.
+     */
+    @Retention(RetentionPolicy.SOURCE)
+    @Target(ElementType.RECORD_COMPONENT)
+    @interface Field {
+        /**
+         * {@return the key of the field, or an empty string to use the name of the component}
+         */
+        String name() default "";
+
+        /**
+         * {@return a Java expression evaluating to the codec for the component, or for the contained type if the
+         * component is an {@link java.util.Optional}}
+         * The expression is evaluated once, in the context of the generated class.
+         */
+        String codec() default "";
+    }
+}
@@ -0,0 +1,104 @@
+package dev.lukebemish.codecextras.record;
+
+import com.mojang.datafixers.util.Pair;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.DynamicOps;
+import com.mojang.serialization.JsonOps;
+import com.mojang.serialization.MapLike;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.jetbrains.annotations.ApiStatus;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A view of a {@link MapLike} with its string keys indexed in a hash map, so that looking up a field by name does not
+ * depend on how the underlying {@link DynamicOps} implements {@link MapLike#get(String)}. Some ops, such as
+ * {@link dev.lukebemish.codecextras.compat.jankson.JanksonOps}, only provide a list-backed {@link MapLike} where every
+ * lookup creates a key and scans every entry; record codecs index their input from such ops once and hand the index to
+ * every field. Ops opt in to this by implementing {@link ScanningOps}.
+ * @param <T> the type of the serialized data
+ */
+@ApiStatus.Experimental
+public final class IndexedMapLike<T> implements MapLike<T> {
+    /**
+     * The smallest number of fields for which {@link #forFields(DynamicOps, MapLike, int)} indexes its input.
+     */
+    public static final int INDEX_THRESHOLD = 4;
+
+    private final DynamicOps<T> ops;
+    private final MapLike<T> input;
+    private final Map<String, T> values;
+
+    private IndexedMapLike(DynamicOps<T> ops, MapLike<T> input) {
+        this.ops = ops;
+        this.input = input;
+        this.values = new HashMap<>();
+        input.entries().forEach(pair -> {
+            if (ops.getStringValue(pair.getFirst()) instanceof DataResult.Success<String> success) {
+                // The first matching entry wins, like the list-backed default MapLike
+                values.putIfAbsent(success.value(), pair.getSecond());
+            }
+        });
+    }
+
+    /**
+     * Indexes the provided map, unless it is already indexed.
+     * @param ops the ops the map was created by
+     * @param input the map to index
+     * @return an indexed view of the map
+     * @param <T> the type of the serialized data
+     */
+    public static <T> MapLike<T> of(DynamicOps<T> ops, MapLike<T> input) {
+        if (input instanceof IndexedMapLike<T> indexed) {
+            return indexed;
+        }
+        return new IndexedMapLike<>(ops, input);
+    }
+
+    /**
+     * Indexes the provided map if a record with the given number of fields would benefit from it. Only maps from ops
+     * implementing {@link ScanningOps} are indexed, and only for records at least {@link #INDEX_THRESHOLD} fields wide;
+     * any other ops, such as {@link JsonOps} or ops delegating to another, are assumed to look up keys efficiently.
+     * @param ops the ops the map was created by
+     * @param input the map to index
+     * @param fieldCount the number of fields that will be looked up in the map
+     * @return the map, possibly indexed
+     * @param <T> the type of the serialized data
+     */
+    public static <T> MapLike<T> forFields(DynamicOps<T> ops, MapLike<T> input, int fieldCount) {
+        if (fieldCount < INDEX_THRESHOLD || !(ops instanceof ScanningOps)) {
+            return input;
+        }
+        return of(ops, input);
+    }
+
+    /**
+     * Marks {@link DynamicOps} whose {@link MapLike}s scan every entry on each lookup, so that record codecs index maps
+     * from them before looking up their fields.
+     */
+    public interface ScanningOps {}
+
+    @Override
+    public @Nullable T get(T key) {
+        if (ops.getStringValue(key) instanceof DataResult.Success<String> success) {
+            return values.get(success.value());
+        }
+        return input.get(key);
+    }
+
+    @Override
+    public @Nullable T get(String key) {
+        return values.get(key);
+    }
+
+    @Override
+    public Stream<Pair<T, T>> entries() {
+        return input.entries();
+    }
+
+    @Override
+    public String toString() {
+        return input.toString();
+    }
+}
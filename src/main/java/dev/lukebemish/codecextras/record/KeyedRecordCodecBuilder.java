@@ -8,11 +8,13 @@
 import com.mojang.serialization.RecordBuilder;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.jetbrains.annotations.ApiStatus;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Similar to {@link CurriedRecordCodecBuilder}, an alternative to {@link RecordCodecBuilder} that allows for any
@@ -44,6 +46,7 @@ private Key(int i) {
     public static final class Container {
         private final Key<?>[] keys;
         private final Object[] array;
+        private boolean inUse;
 
         private Container(Key<?>[] keys, Object[] array) {
             this.array = array;
@@ -68,7 +71,23 @@ public <T> T get(Key<T> key) {
      * @param <A> the type of the object being encoded/decoded
      */
     public static <A> Codec<A> codec(Function<KeyedRecordCodecBuilder<A>, Function<Container, A>> function) {
-        return codecFlat(function.andThen(f -> f.andThen(DataResult::success)));
+        return codec(function, false);
+    }
+
+    /**
+     * An equivalent to {@link #codec(Function)} that may reuse a thread-confined {@link Container} across decodes
+     * instead of allocating a new one each time. This is only safe if the function assembling the object does not
+     * retain the {@link Container} or pass it elsewhere after it returns, as its contents are cleared and replaced by the
+     * next decode on the thread. Each thread that decodes with the codec keeps its own container, with room for every
+     * field, for as long as both the thread and the codec are alive; with long-lived pooled threads, this means one
+     * container per thread for every such codec.
+     * @param function should add all necessary fields and return the function to assemble the object on decode
+     * @param reuseContainers whether to reuse a container per thread
+     * @return a {@link Codec} for the type {@code A}
+     * @param <A> the type of the object being encoded/decoded
+     */
+    public static <A> Codec<A> codec(Function<KeyedRecordCodecBuilder<A>, Function<Container, A>> function, boolean reuseContainers) {
+        return codecFlat(function.andThen(f -> f.andThen(DataResult::success)), reuseContainers);
     }
 
     /**
@@ -78,7 +97,18 @@ public static <A> Codec<A> codec(Function<KeyedRecordCodecBuilder<A>, Function<C
      * @param <A> the type of the object being encoded/decoded
      */
     public static <A> MapCodec<A> mapCodec(Function<KeyedRecordCodecBuilder<A>, Function<Container, A>> function) {
-        return mapCodecFlat(function.andThen(f -> f.andThen(DataResult::success)));
+        return mapCodec(function, false);
+    }
+
+    /**
+     * An equivalent to {@link #codec(Function, boolean)} that returns a {@link MapCodec} instead of a {@link Codec}.
+     * @param function should add all necessary fields and return the function to assemble the object on decode
+     * @param reuseContainers whether to reuse a container per thread
+     * @return a {@link MapCodec} for the type {@code A}
+     * @param <A> the type of the object being encoded/decoded
+     */
+    public static <A> MapCodec<A> mapCodec(Function<KeyedRecordCodecBuilder<A>, Function<Container, A>> function, boolean reuseContainers) {
+        return mapCodecFlat(function.andThen(f -> f.andThen(DataResult::success)), reuseContainers);
     }
 
     /**
@@ -88,7 +118,18 @@ public static <A> MapCodec<A> mapCodec(Function<KeyedRecordCodecBuilder<A>, Func
      * @param <A> the type of the object being encoded/decoded
      */
     public static <A> Codec<A> codecFlat(Function<KeyedRecordCodecBuilder<A>, Function<Container, DataResult<A>>> function) {
-        return mapCodecFlat(function).codec();
+        return codecFlat(function, false);
+    }
+
+    /**
+     * An equivalent to {@link #codec(Function, boolean)} that allows for optionally-successful combining of fields.
+     * @param function should add all necessary fields and return the function to assemble the object on decode
+     * @param reuseContainers whether to reuse a container per thread
+     * @return a {@link Codec} for the type {@code A}
+     * @param <A> the type of the object being encoded/decoded
+     */
+    public static <A> Codec<A> codecFlat(Function<KeyedRecordCodecBuilder<A>, Function<Container, DataResult<A>>> function, boolean reuseContainers) {
+        return mapCodecFlat(function, reuseContainers).codec();
     }
 
     /**
@@ -98,9 +139,25 @@ public static <A> Codec<A> codecFlat(Function<KeyedRecordCodecBuilder<A>, Functi
      * @param <A> the type of the object being encoded/decoded
      */
     public static <A> MapCodec<A> mapCodecFlat(Function<KeyedRecordCodecBuilder<A>, Function<Container, DataResult<A>>> function) {
+        return mapCodecFlat(function, false);
+    }
+
+    /**
+     * An equivalent to {@link #mapCodec(Function, boolean)} that allows for optionally-successful combining of fields.
+     * @param function should add all necessary fields and return the function to assemble the object on decode
+     * @param reuseContainers whether to reuse a container per thread
+     * @return a {@link MapCodec} for the type {@code A}
+     * @param <A> the type of the object being encoded/decoded
+     */
+    public static <A> MapCodec<A> mapCodecFlat(Function<KeyedRecordCodecBuilder<A>, Function<Container, DataResult<A>>> function, boolean reuseContainers) {
         KeyedRecordCodecBuilder<A> builder = new KeyedRecordCodecBuilder<>();
         var combiner = function.apply(builder);
         List<Field<A, ?>> fields = List.copyOf(builder.fields);
+        Key<?>[] keys = new Key[fields.size()];
+        for (Field<A, ?> field : fields) {
+            keys[field.key.count] = field.key;
+        }
+        ThreadLocal<Container> containers = reuseContainers ? ThreadLocal.withInitial(() -> new Container(keys, new Object[keys.length])) : null;
         return new MapCodec<>() {
             @Override
             public <T> RecordBuilder<T> encode(A input, DynamicOps<T> ops, RecordBuilder<T> prefix) {
@@ -117,23 +174,49 @@ private <T, P> RecordBuilder<T> encodePartial(A input, DynamicOps<T> ops, Record
 
             @Override
             public <T> DataResult<A> decode(DynamicOps<T> ops, MapLike<T> input) {
-                Key<?>[] keys = new Key[fields.size()];
-                Container container = new Container(keys, new Object[fields.size()]);
-                List<DataResult.Error<?>> errors = new ArrayList<>();
+                input = IndexedMapLike.forFields(ops, input, keys.length);
+                if (containers == null) {
+                    return decode(ops, input, new Container(keys, new Object[keys.length]));
+                }
+                Container container = containers.get();
+                if (container.inUse) {
+                    // Re-entrant decoding on this thread, such as for recursive types, gets a fresh container
+                    return decode(ops, input, new Container(keys, new Object[keys.length]));
+                }
+                container.inUse = true;
+                try {
+                    return decode(ops, input, container);
+                } finally {
+                    Arrays.fill(container.array, null);
+                    container.inUse = false;
+                }
+            }
+
+            private <T> DataResult<A> decode(DynamicOps<T> ops, MapLike<T> input, Container container) {
+                List<DataResult.Error<?>> errors = null;
                 for (Field<A, ?> field : fields) {
-                    keys[field.key.count] = field.key;
-                    decodePartial(ops, input, container, field, errors);
+                    var error = decodePartial(ops, input, container, field);
+                    if (error != null) {
+                        if (errors == null) {
+                            errors = new ArrayList<>();
+                        }
+                        errors.add(error);
+                    }
                 }
-                if (!errors.isEmpty()) {
-                    return DataResult.error(() -> "Failed to decode object: " + errors.stream().map(DataResult.Error::message).collect(Collectors.joining("; ")));
+                if (errors != null) {
+                    var finalErrors = errors;
+                    return DataResult.error(() -> "Failed to decode object: " + finalErrors.stream().map(DataResult.Error::message).collect(Collectors.joining("; ")));
                 }
                 return combiner.apply(container);
             }
 
-            private <T, P> void decodePartial(DynamicOps<T> ops, MapLike<T> input, Container container, Field<A, P> field, List<DataResult.Error<?>> errors) {
+            private <T, P> DataResult.@Nullable Error<P> decodePartial(DynamicOps<T> ops, MapLike<T> input, Container container, Field<A, P> field) {
                 DataResult<P> result = field.partial.decode(ops, input);
-                result.result().ifPresent(value -> container.array[field.key.count] = value);
-                result.error().ifPresent(errors::add);
+                if (result instanceof DataResult.Error<P> error) {
+                    return error;
+                }
+                container.array[field.key.count] = result.getOrThrow();
+                return null;
             }
 
             @Override
@@ -1,45 +1,168 @@
 package dev.lukebemish.codecextras.record;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.mojang.datafixers.util.Pair;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.DynamicOps;
 import com.mojang.serialization.MapCodec;
 import com.mojang.serialization.MapLike;
 import com.mojang.serialization.RecordBuilder;
-import java.lang.invoke.CallSite;
-import java.lang.invoke.ConstantCallSite;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.jetbrains.annotations.ApiStatus;
+import org.jspecify.annotations.Nullable;
 import org.objectweb.asm.ClassWriter;
-import org.objectweb.asm.ConstantDynamic;
-import org.objectweb.asm.Handle;
 import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 
 @ApiStatus.Experimental
 public final class MethodHandleRecordCodecBuilder<A> {
     private final List<Field<A, ?>> fields;
+    private final boolean singlePass;
+    private final boolean accumulateErrors;
 
-    private MethodHandleRecordCodecBuilder(List<Field<A, ?>> fields) {
+    private MethodHandleRecordCodecBuilder(List<Field<A, ?>> fields, boolean singlePass, boolean accumulateErrors) {
         this.fields = fields;
+        this.singlePass = singlePass;
+        this.accumulateErrors = accumulateErrors;
     }
 
     public static <A> MethodHandleRecordCodecBuilder<A> start() {
-        return new MethodHandleRecordCodecBuilder<>(List.of());
+        return new MethodHandleRecordCodecBuilder<>(List.of(), false, false);
     }
 
     public <T> MethodHandleRecordCodecBuilder<A> with(MapCodec<T> codec, Function<A, T> getter) {
+        return with(new Field<>(codec, getter, FieldKind.MAP_CODEC, null, null, null, null));
+    }
+
+    /**
+     * Adds a field equivalent to {@code codec.fieldOf(name)}. Unlike {@link #with(MapCodec, Function)}, the name and
+     * element codec of the field are known to the builder, which allows {@link #singlePass()} decoding to read it.
+     * @param name the name of the field
+     * @param codec the codec for the field's value
+     * @param getter the getter for the field
+     * @return a new builder with the field added
+     * @param <T> the type of the field
+     */
+    public <T> MethodHandleRecordCodecBuilder<A> withField(String name, Codec<T> codec, Function<A, T> getter) {
+        return with(new Field<>(codec.fieldOf(name), getter, FieldKind.FIELD, name, codec, null, null));
+    }
+
+    /**
+     * Adds a field equivalent to {@code codec.optionalFieldOf(name)}. Unlike {@link #with(MapCodec, Function)}, the name
+     * and element codec of the field are known to the builder, which allows {@link #singlePass()} decoding to read it.
+     * @param name the name of the field
+     * @param codec the codec for the field's value, if present
+     * @param getter the getter for the field
+     * @return a new builder with the field added
+     * @param <T> the type of the field's value, if present
+     */
+    public <T> MethodHandleRecordCodecBuilder<A> withOptionalField(String name, Codec<T> codec, Function<A, Optional<T>> getter) {
+        return with(new Field<>(codec.optionalFieldOf(name), getter, FieldKind.OPTIONAL_FIELD, name, codec, null, null));
+    }
+
+    /**
+     * Adds an {@code int} field equivalent to {@code Codec.INT.fieldOf(name)}. The generated codec reads and writes the
+     * value as a primitive, and passes it to the constructor without boxing.
+     * @param name the name of the field
+     * @param getter the getter for the field
+     * @return a new builder with the field added
+     */
+    public MethodHandleRecordCodecBuilder<A> withInt(String name, ToIntFunction<A> getter) {
+        return with(new Field<>(Codec.INT.fieldOf(name), getter::applyAsInt, FieldKind.INT, name, Codec.INT, getter, null));
+    }
+
+    /**
+     * Adds a {@code long} field equivalent to {@code Codec.LONG.fieldOf(name)}. The generated codec reads and writes the
+     * value as a primitive, and passes it to the constructor without boxing.
+     * @param name the name of the field
+     * @param getter the getter for the field
+     * @return a new builder with the field added
+     */
+    public MethodHandleRecordCodecBuilder<A> withLong(String name, ToLongFunction<A> getter) {
+        return with(new Field<>(Codec.LONG.fieldOf(name), getter::applyAsLong, FieldKind.LONG, name, Codec.LONG, getter, null));
+    }
+
+    /**
+     * Adds a {@code float} field equivalent to {@code Codec.FLOAT.fieldOf(name)}. The generated codec reads and writes the
+     * value as a primitive, and passes it to the constructor without boxing.
+     * @param name the name of the field
+     * @param getter the getter for the field
+     * @return a new builder with the field added
+     */
+    public MethodHandleRecordCodecBuilder<A> withFloat(String name, ToFloatFunction<A> getter) {
+        return with(new Field<>(Codec.FLOAT.fieldOf(name), getter::applyAsFloat, FieldKind.FLOAT, name, Codec.FLOAT, getter, null));
+    }
+
+    /**
+     * Adds a {@code double} field equivalent to {@code Codec.DOUBLE.fieldOf(name)}. The generated codec reads and writes
+     * the value as a primitive, and passes it to the constructor without boxing.
+     * @param name the name of the field
+     * @param getter the getter for the field
+     * @return a new builder with the field added
+     */
+    public MethodHandleRecordCodecBuilder<A> withDouble(String name, ToDoubleFunction<A> getter) {
+        return with(new Field<>(Codec.DOUBLE.fieldOf(name), getter::applyAsDouble, FieldKind.DOUBLE, name, Codec.DOUBLE, getter, null));
+    }
+
+    /**
+     * Adds a {@code boolean} field equivalent to {@code Codec.BOOL.fieldOf(name)}. The generated codec reads and writes
+     * the value as a primitive, and passes it to the constructor without boxing.
+     * @param name the name of the field
+     * @param getter the getter for the field
+     * @return a new builder with the field added
+     */
+    public MethodHandleRecordCodecBuilder<A> withBoolean(String name, ToBooleanFunction<A> getter) {
+        return with(new Field<>(Codec.BOOL.fieldOf(name), getter::applyAsBoolean, FieldKind.BOOLEAN, name, Codec.BOOL, getter, null));
+    }
+
+    /**
+     * Makes the generated codec decode all fields added with a name, such as with {@link #withField(String, Codec, Function)}
+     * or {@link #withInt(String, ToIntFunction)}, in a single pass over the entries of the input, switching on the key of
+     * each entry, instead of looking each field up separately. Other fields are decoded as usual.
+     * @return a new builder that generates single-pass decoding
+     */
+    public MethodHandleRecordCodecBuilder<A> singlePass() {
+        return new MethodHandleRecordCodecBuilder<>(fields, true, accumulateErrors);
+    }
+
+    /**
+     * Makes the generated codec continue decoding after a field fails, collecting the errors of every field. If every
+     * field produced a value or partial value, the resulting error carries the object assembled from those as a partial
+     * result, much like {@link KeyedRecordCodecBuilder} or a record {@link dev.lukebemish.codecextras.structured.Structure}.
+     * If any field is missing, or fails without a partial value, the error carries no partial result.
+     * @return a new builder that generates error-accumulating decoding
+     */
+    public MethodHandleRecordCodecBuilder<A> accumulateErrors() {
+        return new MethodHandleRecordCodecBuilder<>(fields, singlePass, true);
+    }
+
+    private MethodHandleRecordCodecBuilder<A> with(Field<A, ?> field) {
         var newFields = new ArrayList<>(this.fields);
-        newFields.add(new Field<>(codec, getter));
-        return new MethodHandleRecordCodecBuilder<>(newFields);
+        newFields.add(field);
+        return new MethodHandleRecordCodecBuilder<>(newFields, singlePass, accumulateErrors);
     }
 
     public Codec<A> buildWithConstructor(MethodHandles.Lookup lookup, Class<?> clazz) {
@@ -47,15 +170,73 @@ public Codec<A> buildWithConstructor(MethodHandles.Lookup lookup, Class<?> clazz
     }
 
     public MapCodec<A> buildMapWithConstructor(MethodHandles.Lookup lookup, Class<?> clazz) {
-        return buildMap(() -> {
-            var ctors =Arrays.stream(clazz.getDeclaredConstructors()).filter(c -> c.getParameterCount() == fields.size()).toList();
-            if (ctors.isEmpty()) {
-                throw new IllegalArgumentException("No constructor with " + fields.size() + " parameters found");
-            } else if (ctors.size() > 1) {
-                throw new IllegalArgumentException("Multiple constructors with " + fields.size() + " parameters found");
+        return buildMap(() -> RecordCodecs.findConstructor(lookup, clazz, fields.size()));
+    }
+
+    /**
+     * Creates a map codec for a record, with a field for each of its components named after that component. Components
+     * of type {@code int}, {@code long}, {@code float}, {@code double} or {@code boolean} with no codec provided are
+     * read and written as primitives; any other component must have a codec provided, and a component of type
+     * {@link Optional} is an optional field whose provided codec is that of the contained value. The generated codec
+     * calls the accessors and canonical constructor of the record directly, without getter functions.
+     * @param lookup a lookup with access to the accessors and canonical constructor of the record
+     * @param clazz the record class
+     * @param codecs codecs for the record components, by component name
+     * @return a map codec for the record
+     * @param <R> the type of the record
+     * @throws IllegalArgumentException if a codec is provided for a name that is not a component of the record
+     */
+    public static <R extends Record> MapCodec<R> forRecord(MethodHandles.Lookup lookup, Class<R> clazz, Map<String, Codec<?>> codecs) {
+        var components = clazz.getRecordComponents();
+        if (components == null) {
+            throw new IllegalArgumentException(clazz.getName() + " is not a record");
+        }
+        var names = Arrays.stream(components).map(RecordComponent::getName).collect(Collectors.toSet());
+        for (var name : codecs.keySet()) {
+            if (!names.contains(name)) {
+                throw new IllegalArgumentException("Codec provided for " + name + ", which is not a component of record " + clazz.getName());
             }
-            return lookup.unreflectConstructor(ctors.get(0));
-        });
+        }
+        List<Field<R, ?>> fields = new ArrayList<>();
+        Class<?>[] types = new Class<?>[components.length];
+        MethodHandle constructor;
+        try {
+            for (int i = 0; i < components.length; i++) {
+                var component = components[i];
+                types[i] = component.getType();
+                fields.add(recordField(component, lookup.unreflect(component.getAccessor()), codecs.get(component.getName())));
+            }
+            constructor = lookup.unreflectConstructor(clazz.getDeclaredConstructor(types));
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+        return new MethodHandleRecordCodecBuilder<>(fields, false, false).buildMap(() -> constructor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R, T> Field<R, ?> recordField(RecordComponent component, MethodHandle accessor, @Nullable Codec<T> codec) {
+        String name = component.getName();
+        Class<?> type = component.getType();
+        if (codec == null) {
+            for (var kind : FieldKind.values()) {
+                if (kind.isPrimitive() && kind.type == type) {
+                    Codec<?> primitiveCodec = switch (kind) {
+                        case INT -> Codec.INT;
+                        case LONG -> Codec.LONG;
+                        case FLOAT -> Codec.FLOAT;
+                        case DOUBLE -> Codec.DOUBLE;
+                        default -> Codec.BOOL;
+                    };
+                    return new Field<>((MapCodec<Object>) primitiveCodec.fieldOf(name), null, kind, name, primitiveCodec, null, accessor.asType(MethodType.methodType(kind.type, Object.class)));
+                }
+            }
+            throw new IllegalArgumentException("No codec provided for record component " + name + " of type " + type.getName());
+        }
+        var objectAccessor = accessor.asType(MethodType.methodType(Object.class, Object.class));
+        if (type == Optional.class) {
+            return new Field<>(codec.optionalFieldOf(name), null, FieldKind.OPTIONAL_FIELD, name, codec, null, objectAccessor);
+        }
+        return new Field<>(codec.fieldOf(name), null, FieldKind.FIELD, name, codec, null, objectAccessor);
     }
 
     public Codec<A> build(HandleSupplier constructor) {
@@ -64,17 +245,6 @@ public Codec<A> build(HandleSupplier constructor) {
 
     @SuppressWarnings("unchecked")
     public MapCodec<A> buildMap(HandleSupplier constructor) {
-        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
-        var className = Type.getInternalName(MethodHandleRecordCodecBuilder.class) + "$Generated";
-        cw.visit(
-            Opcodes.V17,
-            Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL,
-            className,
-            null,
-            Type.getInternalName(MapCodec.class),
-            new String[0]
-        );
-
         MethodHandle handle;
         try {
             MethodHandle originalHandle = constructor.makeHandle();
@@ -82,8 +252,8 @@ public MapCodec<A> buildMap(HandleSupplier constructor) {
                 throw new IllegalArgumentException("Handle must have the same number of parameters as fields");
             }
             List<Class<?>> params = new ArrayList<>();
-            for (var ignored : fields) {
-                params.add(Object.class);
+            for (var field : fields) {
+                params.add(field.kind().isPrimitive() ? field.kind().type : Object.class);
             }
             handle = originalHandle.asType(
                 MethodType.methodType(Object.class, params)
@@ -91,20 +261,95 @@ public MapCodec<A> buildMap(HandleSupplier constructor) {
         } catch (ReflectiveOperationException e) {
             throw new RuntimeException(e);
         }
-        List<Object> dataPartial = new ArrayList<>();
-        dataPartial.add(handle);
-        dataPartial.addAll(fields);
+
+        // Field names are only baked into the generated class when they are switched on in a single pass, so shapes of
+        // single-pass codecs are rarely shared; the cache is bounded, and evicted classes may be unloaded with their codecs
+        var shape = new Shape(fields.stream().map(Field::kind).toList(), singlePass ? fields.stream().map(f -> f.kind() == FieldKind.MAP_CODEC ? "" : f.name()).toList() : List.of(), singlePass, accumulateErrors, directAccessors());
+        var handleType = handle.type();
+        BUILT_COUNT.incrementAndGet();
+        var generated = GENERATED_CLASSES.asMap().computeIfAbsent(shape, ignored -> {
+            GENERATED_CLASS_COUNT.incrementAndGet();
+            return generateClass(handleType);
+        });
+        try {
+            return (MapCodec<A>) generated.invoke(handle, fields.toArray(Field<?, ?>[]::new));
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * {@return how many classes have been generated by this builder so far}
+     * Each distinct shape of codec -- the kinds of its fields, and their names if decoded in a single pass -- needs
+     * one generated class; codecs sharing a shape share that class. Since single-pass shapes include field names, nearly
+     * every single-pass codec gets its own class. Only the 512 most recently used classes are kept for reuse; a class
+     * evicted from the cache is generated again if its shape is needed later, and the old one can be unloaded once no
+     * codec uses it, so this count may keep growing for the life of the process.
+     */
+    public static int generatedClassCount() {
+        return GENERATED_CLASS_COUNT.get();
+    }
+
+    /**
+     * {@return how many codecs have been built so far by reusing a previously generated class}
+     * @see #generatedClassCount()
+     */
+    public static int reusedClassCount() {
+        return BUILT_COUNT.get() - GENERATED_CLASS_COUNT.get();
+    }
+
+    private static final int MAXIMUM_CACHED_CLASSES = 512;
+    private static final Cache<Shape, MethodHandle> GENERATED_CLASSES = CacheBuilder.newBuilder()
+        .maximumSize(MAXIMUM_CACHED_CLASSES)
+        .build();
+    private static final AtomicInteger GENERATED_CLASS_COUNT = new AtomicInteger();
+    private static final AtomicInteger BUILT_COUNT = new AtomicInteger();
+
+    private record Shape(List<FieldKind> kinds, List<String> names, boolean singlePass, boolean accumulateErrors, boolean directAccessors) {}
+
+    private boolean directAccessors() {
+        return !fields.isEmpty() && fields.stream().allMatch(field -> field.accessor() != null);
+    }
+
+    private MethodHandle generateClass(MethodType handleType) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        var className = Type.getInternalName(MethodHandleRecordCodecBuilder.class) + "$Generated";
+        cw.visit(
+            Opcodes.V17,
+            Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL,
+            className,
+            null,
+            Type.getInternalName(MapCodec.class),
+            new String[0]
+        );
+
+        // Per-codec data lives in final instance fields rather than class data, so that one class can serve every codec
+        // of the same shape; final fields of hidden classes are trusted, so these still fold when the codec is constant
+        cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "handle", Type.getDescriptor(MethodHandle.class), null, null).visitEnd();
+        for (int i = 0; i < fields.size(); i++) {
+            cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "field" + i, Type.getDescriptor(Field.class), null, null).visitEnd();
+        }
 
         var ctor = cw.visitMethod(
             0,
             "<init>",
-            MethodType.methodType(void.class).descriptorString(),
+            MethodType.methodType(void.class, MethodHandle.class, Field[].class).descriptorString(),
             null,
             null
         );
         ctor.visitCode();
         ctor.visitVarInsn(Opcodes.ALOAD, 0);
         ctor.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(MapCodec.class), "<init>", MethodType.methodType(void.class).descriptorString(), false);
+        ctor.visitVarInsn(Opcodes.ALOAD, 0);
+        ctor.visitVarInsn(Opcodes.ALOAD, 1);
+        ctor.visitFieldInsn(Opcodes.PUTFIELD, className, "handle", Type.getDescriptor(MethodHandle.class));
+        for (int i = 0; i < fields.size(); i++) {
+            ctor.visitVarInsn(Opcodes.ALOAD, 0);
+            ctor.visitVarInsn(Opcodes.ALOAD, 2);
+            ctor.visitLdcInsn(i);
+            ctor.visitInsn(Opcodes.AALOAD);
+            ctor.visitFieldInsn(Opcodes.PUTFIELD, className, "field" + i, Type.getDescriptor(Field.class));
+        }
         ctor.visitInsn(Opcodes.RETURN);
         ctor.visitMaxs(0, 0);
         ctor.visitEnd();
@@ -122,7 +367,7 @@ public MapCodec<A> buildMap(HandleSupplier constructor) {
         for (int i = 0; i < fields.size(); i++) {
             keys.visitInsn(Opcodes.DUP);
             keys.visitLdcInsn(i);
-            keys.visitLdcInsn(conDyn(Type.getDescriptor(Field.class), i + 1));
+            loadField(keys, className, i);
             keys.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(Field.class), "codec", MethodType.methodType(MapCodec.class).descriptorString(), false);
             keys.visitVarInsn(Opcodes.ALOAD, 1);
             keys.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(MapCodec.class), "keys", MethodType.methodType(Stream.class, DynamicOps.class).descriptorString(), false);
@@ -141,41 +386,106 @@ public MapCodec<A> buildMap(HandleSupplier constructor) {
             null
         );
         decode.visitCode();
+        if (accumulateErrors) {
+            decode.visitInsn(Opcodes.ACONST_NULL);
+            decode.visitVarInsn(Opcodes.ASTORE, errorsSlot());
+            decode.visitInsn(Opcodes.ICONST_1);
+            decode.visitVarInsn(Opcodes.ISTORE, completeSlot());
+        }
+        int[] slots = new int[fields.size()];
+        if (singlePass) {
+            collectEntries(decode, slots);
+        }
+        decode.visitVarInsn(Opcodes.ALOAD, 0);
+        decode.visitFieldInsn(Opcodes.GETFIELD, className, "handle", Type.getDescriptor(MethodHandle.class));
         for (int i = 0; i < fields.size(); i++) {
-            decode.visitLdcInsn(conDyn(Type.getDescriptor(Field.class), i + 1));
-            decode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(Field.class), "codec", MethodType.methodType(MapCodec.class).descriptorString(), false);
-            decode.visitVarInsn(Opcodes.ALOAD, 1);
-            decode.visitVarInsn(Opcodes.ALOAD, 2);
-            decode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(MapCodec.class), "decode", MethodType.methodType(DataResult.class, DynamicOps.class, MapLike.class).descriptorString(), false);
-            decode.visitInsn(Opcodes.DUP);
-            decode.visitVarInsn(Opcodes.ASTORE, 3);
-            decode.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(DataResult.class), "isError", MethodType.methodType(boolean.class).descriptorString(), true);
-            var postLabel = new Label();
-            decode.visitJumpInsn(Opcodes.IFEQ, postLabel);
+            var field = fields.get(i);
+            if (field.kind().isPrimitive()) {
+                int slot = slots[i];
+                if (slot == 0) {
+                    // Not collected by a single pass, so look the value up directly into a scratch slot
+                    slot = 4;
+                    decode.visitVarInsn(Opcodes.ALOAD, 2);
+                    loadName(decode, className, i);
+                    decode.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(MapLike.class), "get", MethodType.methodType(Object.class, String.class).descriptorString(), true);
+                    decode.visitVarInsn(Opcodes.ASTORE, slot);
+                }
+                decode.visitVarInsn(Opcodes.ALOAD, slot);
+                var presentLabel = new Label();
+                var unboxLabel = new Label();
+                decode.visitJumpInsn(Opcodes.IFNONNULL, presentLabel);
+                missingKey(decode, className, i, unboxLabel);
+                decode.visitLabel(presentLabel);
+                decode.visitVarInsn(Opcodes.ALOAD, 1);
+                decode.visitVarInsn(Opcodes.ALOAD, slot);
+                decode.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(DynamicOps.class), field.kind().readMethod, MethodType.methodType(DataResult.class, Object.class).descriptorString(), true);
+                unwrapResult(decode, field.kind());
+                decode.visitLabel(unboxLabel);
+                decode.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(field.kind().boxType));
+                decode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(field.kind().boxType), field.kind().unboxMethod, MethodType.methodType(field.kind().type).descriptorString(), false);
+            } else if (slots[i] != 0 && field.kind() == FieldKind.FIELD) {
+                decode.visitVarInsn(Opcodes.ALOAD, slots[i]);
+                var presentLabel = new Label();
+                var doneLabel = new Label();
+                decode.visitJumpInsn(Opcodes.IFNONNULL, presentLabel);
+                missingKey(decode, className, i, doneLabel);
+                decode.visitLabel(presentLabel);
+                parseSlot(decode, className, i, slots[i]);
+                decode.visitLabel(doneLabel);
+            } else if (slots[i] != 0 && field.kind() == FieldKind.OPTIONAL_FIELD) {
+                decode.visitVarInsn(Opcodes.ALOAD, slots[i]);
+                var presentLabel = new Label();
+                var doneLabel = new Label();
+                decode.visitJumpInsn(Opcodes.IFNONNULL, presentLabel);
+                decode.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(Optional.class), "empty", MethodType.methodType(Optional.class).descriptorString(), false);
+                decode.visitJumpInsn(Opcodes.GOTO, doneLabel);
+                decode.visitLabel(presentLabel);
+                parseSlot(decode, className, i, slots[i]);
+                // When accumulating errors, a failed value without a partial result is null
+                decode.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(Optional.class), "ofNullable", MethodType.methodType(Optional.class, Object.class).descriptorString(), false);
+                decode.visitLabel(doneLabel);
+            } else {
+                loadField(decode, className, i);
+                decode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(Field.class), "codec", MethodType.methodType(MapCodec.class).descriptorString(), false);
+                decode.visitVarInsn(Opcodes.ALOAD, 1);
+                decode.visitVarInsn(Opcodes.ALOAD, 2);
+                decode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(MapCodec.class), "decode", MethodType.methodType(DataResult.class, DynamicOps.class, MapLike.class).descriptorString(), false);
+                unwrapResult(decode, field.kind());
+            }
+        }
+        if (accumulateErrors) {
+            var failedLabel = new Label();
+            var incompleteLabel = new Label();
+            decode.visitVarInsn(Opcodes.ALOAD, errorsSlot());
+            decode.visitJumpInsn(Opcodes.IFNONNULL, failedLabel);
+            decode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(MethodHandle.class), "invokeExact", handleType.descriptorString(), false);
+            decode.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(DataResult.class), "success", MethodType.methodType(DataResult.class, Object.class).descriptorString(), true);
+            decode.visitInsn(Opcodes.ARETURN);
 
-            decode.visitVarInsn(Opcodes.ALOAD, 3);
-            decode.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(DataResult.Error.class));
-            decode.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(MethodHandleRecordCodecBuilder.class), "withError", MethodType.methodType(DataResult.class, DataResult.Error.class).descriptorString(), false);
+            // Every field has a value or partial value, so a partial result can be assembled
+            decode.visitLabel(failedLabel);
+            decode.visitVarInsn(Opcodes.ILOAD, completeSlot());
+            decode.visitJumpInsn(Opcodes.IFEQ, incompleteLabel);
+            decode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(MethodHandle.class), "invokeExact", handleType.descriptorString(), false);
+            decode.visitVarInsn(Opcodes.ALOAD, errorsSlot());
+            decode.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(MethodHandleRecordCodecBuilder.class), "withErrors", MethodType.methodType(DataResult.class, Object.class, List.class).descriptorString(), false);
             decode.visitInsn(Opcodes.ARETURN);
 
-            decode.visitLabel(postLabel);
-            decode.visitVarInsn(Opcodes.ALOAD, 3);
-            decode.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(DataResult.class), "getOrThrow", MethodType.methodType(Object.class).descriptorString(), true);
+            decode.visitLabel(incompleteLabel);
+            for (int i = fields.size() - 1; i >= 0; i--) {
+                var type = fields.get(i).kind().type;
+                decode.visitInsn(type == long.class || type == double.class ? Opcodes.POP2 : Opcodes.POP);
+            }
+            decode.visitInsn(Opcodes.POP);
+            decode.visitInsn(Opcodes.ACONST_NULL);
+            decode.visitVarInsn(Opcodes.ALOAD, errorsSlot());
+            decode.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(MethodHandleRecordCodecBuilder.class), "withErrors", MethodType.methodType(DataResult.class, Object.class, List.class).descriptorString(), false);
+            decode.visitInsn(Opcodes.ARETURN);
+        } else {
+            decode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(MethodHandle.class), "invokeExact", handleType.descriptorString(), false);
+            decode.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(DataResult.class), "success", MethodType.methodType(DataResult.class, Object.class).descriptorString(), true);
+            decode.visitInsn(Opcodes.ARETURN);
         }
-        decode.visitInvokeDynamicInsn(
-            "asCallSite",
-            handle.type().descriptorString(),
-            new Handle(
-                Opcodes.H_INVOKESTATIC,
-                Type.getInternalName(MethodHandleRecordCodecBuilder.class),
-                "asCallSite",
-                MethodType.methodType(CallSite.class, MethodHandles.Lookup.class, String.class, MethodType.class, MethodHandle.class).descriptorString(),
-                false
-            ),
-            conDyn(Type.getDescriptor(MethodHandle.class), 0)
-        );
-        decode.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(DataResult.class), "success", MethodType.methodType(DataResult.class, Object.class).descriptorString(), true);
-        decode.visitInsn(Opcodes.ARETURN);
         decode.visitMaxs(0, 0);
         decode.visitEnd();
 
@@ -187,8 +497,51 @@ public MapCodec<A> buildMap(HandleSupplier constructor) {
             null
         );
         encode.visitCode();
+        boolean directAccessors = directAccessors();
         for (int i = 0; i < fields.size(); i++) {
-            encode.visitLdcInsn(conDyn(Type.getDescriptor(Field.class), i + 1));
+            var field = fields.get(i);
+            if (directAccessors) {
+                // Invoke the accessor handle of each field directly, rather than through a getter function
+                Class<?> valueType = field.kind().isPrimitive() ? field.kind().type : Object.class;
+                if (field.kind().isPrimitive()) {
+                    encode.visitVarInsn(Opcodes.ALOAD, 3);
+                    loadName(encode, className, i);
+                    encode.visitVarInsn(Opcodes.ALOAD, 2);
+                } else {
+                    loadField(encode, className, i);
+                    encode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(Field.class), "codec", MethodType.methodType(MapCodec.class).descriptorString(), false);
+                }
+                loadField(encode, className, i);
+                encode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(Field.class), "accessor", MethodType.methodType(MethodHandle.class).descriptorString(), false);
+                encode.visitVarInsn(Opcodes.ALOAD, 1);
+                encode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(MethodHandle.class), "invokeExact", MethodType.methodType(valueType, Object.class).descriptorString(), false);
+                if (field.kind().isPrimitive()) {
+                    encode.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(DynamicOps.class), field.kind().createMethod, MethodType.methodType(Object.class, field.kind().type).descriptorString(), true);
+                    encode.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(RecordBuilder.class), "add", MethodType.methodType(RecordBuilder.class, String.class, Object.class).descriptorString(), true);
+                } else {
+                    encode.visitVarInsn(Opcodes.ALOAD, 2);
+                    encode.visitVarInsn(Opcodes.ALOAD, 3);
+                    encode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(MapCodec.class), "encode", MethodType.methodType(RecordBuilder.class, Object.class, DynamicOps.class, RecordBuilder.class).descriptorString(), false);
+                }
+                encode.visitVarInsn(Opcodes.ASTORE, 3);
+                continue;
+            }
+            if (field.kind().isPrimitive()) {
+                var getterType = field.kind().getterType;
+                encode.visitVarInsn(Opcodes.ALOAD, 3);
+                loadName(encode, className, i);
+                encode.visitVarInsn(Opcodes.ALOAD, 2);
+                loadField(encode, className, i);
+                encode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(Field.class), "primitiveGetter", MethodType.methodType(Object.class).descriptorString(), false);
+                encode.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(getterType));
+                encode.visitVarInsn(Opcodes.ALOAD, 1);
+                encode.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(getterType), field.kind().getterMethod, MethodType.methodType(field.kind().type, Object.class).descriptorString(), true);
+                encode.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(DynamicOps.class), field.kind().createMethod, MethodType.methodType(Object.class, field.kind().type).descriptorString(), true);
+                encode.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(RecordBuilder.class), "add", MethodType.methodType(RecordBuilder.class, String.class, Object.class).descriptorString(), true);
+                encode.visitVarInsn(Opcodes.ASTORE, 3);
+                continue;
+            }
+            loadField(encode, className, i);
             encode.visitInsn(Opcodes.DUP);
             encode.visitVarInsn(Opcodes.ASTORE, 4);
             encode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(Field.class), "codec", MethodType.methodType(MapCodec.class).descriptorString(), false);
@@ -209,31 +562,196 @@ public MapCodec<A> buildMap(HandleSupplier constructor) {
         cw.visitEnd();
 
         try {
-            var lookup = MethodHandles.lookup().defineHiddenClassWithClassData(cw.toByteArray(), List.copyOf(dataPartial), true, MethodHandles.Lookup.ClassOption.NESTMATE);
-            return (MapCodec<A>) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class)).invoke();
-        } catch (Throwable e) {
+            var lookup = MethodHandles.lookup().defineHiddenClass(cw.toByteArray(), true, MethodHandles.Lookup.ClassOption.NESTMATE);
+            return lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class, MethodHandle.class, Field[].class))
+                .asType(MethodType.methodType(MapCodec.class, MethodHandle.class, Field[].class));
+        } catch (ReflectiveOperationException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private static ConstantDynamic conDyn(String Descriptor, int i) {
-        return new ConstantDynamic(
-            "_",
-            Descriptor,
-            new Handle(
-                Opcodes.H_INVOKESTATIC,
-                Type.getInternalName(MethodHandles.class),
-                "classDataAt",
-                MethodType.methodType(Object.class, MethodHandles.Lookup.class, String.class, Class.class, int.class).descriptorString(),
-                false
-            ),
-            i
-        );
+    private void collectEntries(MethodVisitor decode, int[] slots) {
+        // Locals 0-3 are this, ops, input, and a scratch slot for results
+        int nextSlot = 4;
+        Map<String, List<Integer>> slotsByName = new LinkedHashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            var field = fields.get(i);
+            if (field.kind() != FieldKind.MAP_CODEC) {
+                slots[i] = nextSlot++;
+                slotsByName.computeIfAbsent(field.name(), k -> new ArrayList<>()).add(slots[i]);
+                decode.visitInsn(Opcodes.ACONST_NULL);
+                decode.visitVarInsn(Opcodes.ASTORE, slots[i]);
+            }
+        }
+        if (slotsByName.isEmpty()) {
+            return;
+        }
+        int iteratorSlot = nextSlot++;
+        int entrySlot = nextSlot++;
+        int keySlot = nextSlot;
+
+        decode.visitVarInsn(Opcodes.ALOAD, 2);
+        decode.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(MapLike.class), "entries", MethodType.methodType(Stream.class).descriptorString(), true);
+        decode.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(Stream.class), "iterator", MethodType.methodType(Iterator.class).descriptorString(), true);
+        decode.visitVarInsn(Opcodes.ASTORE, iteratorSlot);
+
+        var loopLabel = new Label();
+        var endLabel = new Label();
+        decode.visitLabel(loopLabel);
+        decode.visitVarInsn(Opcodes.ALOAD, iteratorSlot);
+        decode.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(Iterator.class), "hasNext", MethodType.methodType(boolean.class).descriptorString(), true);
+        decode.visitJumpInsn(Opcodes.IFEQ, endLabel);
+        decode.visitVarInsn(Opcodes.ALOAD, iteratorSlot);
+        decode.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(Iterator.class), "next", MethodType.methodType(Object.class).descriptorString(), true);
+        decode.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(Pair.class));
+        decode.visitVarInsn(Opcodes.ASTORE, entrySlot);
+        decode.visitVarInsn(Opcodes.ALOAD, 1);
+        decode.visitVarInsn(Opcodes.ALOAD, entrySlot);
+        decode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(Pair.class), "getFirst", MethodType.methodType(Object.class).descriptorString(), false);
+        decode.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(MethodHandleRecordCodecBuilder.class), "keyString", MethodType.methodType(String.class, DynamicOps.class, Object.class).descriptorString(), false);
+        decode.visitInsn(Opcodes.DUP);
+        decode.visitVarInsn(Opcodes.ASTORE, keySlot);
+        decode.visitJumpInsn(Opcodes.IFNULL, loopLabel);
+
+        // Switch on the hash of the key, then compare against each name sharing that hash
+        Map<Integer, List<String>> namesByHash = new TreeMap<>();
+        for (var name : slotsByName.keySet()) {
+            namesByHash.computeIfAbsent(name.hashCode(), k -> new ArrayList<>()).add(name);
+        }
+        int[] hashes = namesByHash.keySet().stream().mapToInt(Integer::intValue).toArray();
+        Label[] hashLabels = new Label[hashes.length];
+        for (int i = 0; i < hashes.length; i++) {
+            hashLabels[i] = new Label();
+        }
+        decode.visitVarInsn(Opcodes.ALOAD, keySlot);
+        decode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(String.class), "hashCode", MethodType.methodType(int.class).descriptorString(), false);
+        decode.visitLookupSwitchInsn(loopLabel, hashes, hashLabels);
+        for (int i = 0; i < hashes.length; i++) {
+            decode.visitLabel(hashLabels[i]);
+            for (var name : namesByHash.get(hashes[i])) {
+                var nextLabel = new Label();
+                decode.visitVarInsn(Opcodes.ALOAD, keySlot);
+                decode.visitLdcInsn(name);
+                decode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(String.class), "equals", MethodType.methodType(boolean.class, Object.class).descriptorString(), false);
+                decode.visitJumpInsn(Opcodes.IFEQ, nextLabel);
+                for (int slot : slotsByName.get(name)) {
+                    // The first entry for a key wins, matching MapLike#get
+                    var skipLabel = new Label();
+                    decode.visitVarInsn(Opcodes.ALOAD, slot);
+                    decode.visitJumpInsn(Opcodes.IFNONNULL, skipLabel);
+                    decode.visitVarInsn(Opcodes.ALOAD, entrySlot);
+                    decode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(Pair.class), "getSecond", MethodType.methodType(Object.class).descriptorString(), false);
+                    decode.visitVarInsn(Opcodes.ASTORE, slot);
+                    decode.visitLabel(skipLabel);
+                }
+                decode.visitJumpInsn(Opcodes.GOTO, loopLabel);
+                decode.visitLabel(nextLabel);
+            }
+            decode.visitJumpInsn(Opcodes.GOTO, loopLabel);
+        }
+        decode.visitLabel(endLabel);
     }
 
-    @SuppressWarnings("unused")
-    private static CallSite asCallSite(MethodHandles.Lookup ignoredLookup, String ignoredName, MethodType ignoredType, MethodHandle handle) {
-        return new ConstantCallSite(handle);
+    private static void loadField(MethodVisitor method, String className, int i) {
+        method.visitVarInsn(Opcodes.ALOAD, 0);
+        method.visitFieldInsn(Opcodes.GETFIELD, className, "field" + i, Type.getDescriptor(Field.class));
+    }
+
+    private static void loadName(MethodVisitor method, String className, int i) {
+        loadField(method, className, i);
+        method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(Field.class), "name", MethodType.methodType(String.class).descriptorString(), false);
+    }
+
+    private int errorsSlot() {
+        // After this, ops, input, the scratch slot, one slot per field, and the single-pass iterator, entry and key
+        return 4 + fields.size() + 3;
+    }
+
+    private int completeSlot() {
+        return errorsSlot() + 1;
+    }
+
+    private void missingKey(MethodVisitor decode, String className, int i, Label afterLabel) {
+        loadName(decode, className, i);
+        decode.visitVarInsn(Opcodes.ALOAD, 2);
+        decode.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(MethodHandleRecordCodecBuilder.class), "missingKey", MethodType.methodType(DataResult.class, String.class, MapLike.class).descriptorString(), false);
+        if (accumulateErrors) {
+            decode.visitVarInsn(Opcodes.ASTORE, 3);
+            accumulateError(decode);
+            decode.visitInsn(Opcodes.ICONST_0);
+            decode.visitVarInsn(Opcodes.ISTORE, completeSlot());
+            pushDefault(decode, fields.get(i).kind());
+            decode.visitJumpInsn(Opcodes.GOTO, afterLabel);
+        } else {
+            decode.visitInsn(Opcodes.ARETURN);
+        }
+    }
+
+    private void parseSlot(MethodVisitor decode, String className, int i, int slot) {
+        loadField(decode, className, i);
+        decode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(Field.class), "elementCodec", MethodType.methodType(Codec.class).descriptorString(), false);
+        decode.visitVarInsn(Opcodes.ALOAD, 1);
+        decode.visitVarInsn(Opcodes.ALOAD, slot);
+        decode.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(Codec.class), "parse", MethodType.methodType(DataResult.class, DynamicOps.class, Object.class).descriptorString(), true);
+        unwrapResult(decode, FieldKind.FIELD);
+    }
+
+    private void unwrapResult(MethodVisitor decode, FieldKind kind) {
+        decode.visitInsn(Opcodes.DUP);
+        decode.visitVarInsn(Opcodes.ASTORE, 3);
+        decode.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(DataResult.class), "isError", MethodType.methodType(boolean.class).descriptorString(), true);
+        var postLabel = new Label();
+        decode.visitJumpInsn(Opcodes.IFEQ, postLabel);
+
+        if (accumulateErrors) {
+            // Record the error, and continue with the partial value if there is one
+            var doneLabel = new Label();
+            accumulateError(decode);
+            decode.visitVarInsn(Opcodes.ALOAD, 3);
+            decode.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(DataResult.Error.class));
+            decode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(DataResult.Error.class), "partialValue", MethodType.methodType(Optional.class).descriptorString(), false);
+            decode.visitInsn(Opcodes.DUP);
+            decode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(Optional.class), "isPresent", MethodType.methodType(boolean.class).descriptorString(), false);
+            decode.visitVarInsn(Opcodes.ILOAD, completeSlot());
+            decode.visitInsn(Opcodes.IAND);
+            decode.visitVarInsn(Opcodes.ISTORE, completeSlot());
+            pushDefault(decode, kind);
+            decode.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(Optional.class), "orElse", MethodType.methodType(Object.class, Object.class).descriptorString(), false);
+            decode.visitJumpInsn(Opcodes.GOTO, doneLabel);
+            decode.visitLabel(postLabel);
+            decode.visitVarInsn(Opcodes.ALOAD, 3);
+            decode.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(DataResult.class), "getOrThrow", MethodType.methodType(Object.class).descriptorString(), true);
+            decode.visitLabel(doneLabel);
+        } else {
+            decode.visitVarInsn(Opcodes.ALOAD, 3);
+            decode.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(DataResult.Error.class));
+            decode.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(MethodHandleRecordCodecBuilder.class), "withError", MethodType.methodType(DataResult.class, DataResult.Error.class).descriptorString(), false);
+            decode.visitInsn(Opcodes.ARETURN);
+
+            decode.visitLabel(postLabel);
+            decode.visitVarInsn(Opcodes.ALOAD, 3);
+            decode.visitMethodInsn(Opcodes.INVOKEINTERFACE, Type.getInternalName(DataResult.class), "getOrThrow", MethodType.methodType(Object.class).descriptorString(), true);
+        }
+    }
+
+    private void accumulateError(MethodVisitor decode) {
+        decode.visitVarInsn(Opcodes.ALOAD, errorsSlot());
+        decode.visitVarInsn(Opcodes.ALOAD, 3);
+        decode.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(DataResult.Error.class));
+        decode.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(MethodHandleRecordCodecBuilder.class), "accumulateError", MethodType.methodType(List.class, List.class, DataResult.Error.class).descriptorString(), false);
+        decode.visitVarInsn(Opcodes.ASTORE, errorsSlot());
+    }
+
+    private static void pushDefault(MethodVisitor decode, FieldKind kind) {
+        // The boxed value that a missing value of the given kind is replaced with, so that it can still be unboxed
+        if (kind == FieldKind.BOOLEAN) {
+            decode.visitFieldInsn(Opcodes.GETSTATIC, Type.getInternalName(Boolean.class), "FALSE", Type.getDescriptor(Boolean.class));
+        } else if (kind.isPrimitive()) {
+            decode.visitInsn(Opcodes.ICONST_0);
+            decode.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(Integer.class), "valueOf", MethodType.methodType(Integer.class, int.class).descriptorString(), false);
+        } else {
+            decode.visitInsn(Opcodes.ACONST_NULL);
+        }
     }
 
     @SuppressWarnings("unused")
@@ -241,9 +759,72 @@ private static <A> DataResult<A> withError(DataResult.Error<?> original) {
         return DataResult.error(original::message);
     }
 
+    @SuppressWarnings("unused")
+    private static List<DataResult.Error<?>> accumulateError(@Nullable List<DataResult.Error<?>> errors, DataResult.Error<?> error) {
+        if (errors == null) {
+            errors = new ArrayList<>();
+        }
+        errors.add(error);
+        return errors;
+    }
+
+    @SuppressWarnings("unused")
+    private static <A> DataResult<A> withErrors(@Nullable A partial, List<DataResult.Error<?>> errors) {
+        Supplier<String> message = () -> "Failed to decode object: " + errors.stream().map(DataResult.Error::message).collect(Collectors.joining("; "));
+        return partial == null ? DataResult.error(message) : DataResult.error(message, partial);
+    }
+
+    @SuppressWarnings("unused")
+    private static <T> @Nullable String keyString(DynamicOps<T> ops, T key) {
+        return ops.getStringValue(key) instanceof DataResult.Success<String> success ? success.value() : null;
+    }
+
+    @SuppressWarnings("unused")
+    private static <A> DataResult<A> missingKey(String name, MapLike<?> input) {
+        return DataResult.error(() -> "No key " + name + " in " + input);
+    }
+
     public interface HandleSupplier {
         MethodHandle makeHandle() throws ReflectiveOperationException;
     }
 
-    private record Field<A, T>(MapCodec<T> codec, Function<A, T> getter) {}
+    private enum FieldKind {
+        MAP_CODEC,
+        FIELD,
+        OPTIONAL_FIELD,
+        INT(int.class, ToIntFunction.class, "applyAsInt", "getNumberValue", Number.class, "intValue", "createInt"),
+        LONG(long.class, ToLongFunction.class, "applyAsLong", "getNumberValue", Number.class, "longValue", "createLong"),
+        FLOAT(float.class, ToFloatFunction.class, "applyAsFloat", "getNumberValue", Number.class, "floatValue", "createFloat"),
+        DOUBLE(double.class, ToDoubleFunction.class, "applyAsDouble", "getNumberValue", Number.class, "doubleValue", "createDouble"),
+        BOOLEAN(boolean.class, ToBooleanFunction.class, "applyAsBoolean", "getBooleanValue", Boolean.class, "booleanValue", "createBoolean");
+
+        private final Class<?> type;
+        private final Class<?> getterType;
+        private final String getterMethod;
+        private final String readMethod;
+        private final Class<?> boxType;
+        private final String unboxMethod;
+        private final String createMethod;
+
+        FieldKind() {
+            this(Object.class, Function.class, "apply", "", Object.class, "", "");
+        }
+
+        FieldKind(Class<?> type, Class<?> getterType, String getterMethod, String readMethod, Class<?> boxType, String unboxMethod, String createMethod) {
+            this.type = type;
+            this.getterType = getterType;
+            this.getterMethod = getterMethod;
+            this.readMethod = readMethod;
+            this.boxType = boxType;
+            this.unboxMethod = unboxMethod;
+            this.createMethod = createMethod;
+        }
+
+        boolean isPrimitive() {
+            return type.isPrimitive();
+        }
+    }
+
+    // Fields read through an accessor handle have no getter function, as direct accessors are then used for encoding
+    private record Field<A, T>(MapCodec<T> codec, @Nullable Function<A, T> getter, FieldKind kind, @Nullable String name, @Nullable Codec<?> elementCodec, @Nullable Object primitiveGetter, @Nullable MethodHandle accessor) {}
 }
@@ -0,0 +1,239 @@
+package dev.lukebemish.codecextras.record;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.MapCodec;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * A single description of a record codec that is built with whichever record codec builder is expected to be fastest.
+ * By default, {@link MethodHandleRecordCodecBuilder} is used if ASM is available at runtime, and
+ * {@link KeyedRecordCodecBuilder} otherwise; the backend may be forced with the system property named by
+ * {@link #BACKEND_PROPERTY}, set to the name of a {@link Backend}.
+ * @param <A> the type of the object being encoded/decoded
+ */
+@ApiStatus.Experimental
+public final class RecordCodecs<A> {
+    /**
+     * The system property which, if set, forces the {@link Backend} used to build codecs.
+     */
+    public static final String BACKEND_PROPERTY = "dev.lukebemish.codecextras.record.backend";
+
+    /**
+     * The builders that a {@link RecordCodecs} may build codecs with.
+     */
+    public enum Backend {
+        /**
+         * Builds codecs with {@link MethodHandleRecordCodecBuilder}; requires ASM at runtime.
+         */
+        METHOD_HANDLE,
+        /**
+         * Builds codecs with {@link KeyedRecordCodecBuilder}, calling the constructor through a spread method handle.
+         */
+        KEYED
+    }
+
+    private static final boolean ASM_AVAILABLE = isAsmAvailable();
+
+    private final List<Field<A, ?>> fields;
+    private final boolean singlePass;
+    private final boolean accumulateErrors;
+
+    private RecordCodecs(List<Field<A, ?>> fields, boolean singlePass, boolean accumulateErrors) {
+        this.fields = fields;
+        this.singlePass = singlePass;
+        this.accumulateErrors = accumulateErrors;
+    }
+
+    public static <A> RecordCodecs<A> start() {
+        return new RecordCodecs<>(List.of(), false, false);
+    }
+
+    public <T> RecordCodecs<A> with(MapCodec<T> codec, Function<A, T> getter) {
+        return with(new Field<>(codec, getter, builder -> builder.with(codec, getter)));
+    }
+
+    public <T> RecordCodecs<A> withField(String name, Codec<T> codec, Function<A, T> getter) {
+        return with(new Field<>(codec.fieldOf(name), getter, builder -> builder.withField(name, codec, getter)));
+    }
+
+    public <T> RecordCodecs<A> withOptionalField(String name, Codec<T> codec, Function<A, Optional<T>> getter) {
+        return with(new Field<>(codec.optionalFieldOf(name), getter, builder -> builder.withOptionalField(name, codec, getter)));
+    }
+
+    public RecordCodecs<A> withInt(String name, ToIntFunction<A> getter) {
+        return with(new Field<>(Codec.INT.fieldOf(name), getter::applyAsInt, builder -> builder.withInt(name, getter)));
+    }
+
+    public RecordCodecs<A> withLong(String name, ToLongFunction<A> getter) {
+        return with(new Field<>(Codec.LONG.fieldOf(name), getter::applyAsLong, builder -> builder.withLong(name, getter)));
+    }
+
+    public RecordCodecs<A> withFloat(String name, ToFloatFunction<A> getter) {
+        return with(new Field<>(Codec.FLOAT.fieldOf(name), getter::applyAsFloat, builder -> builder.withFloat(name, getter)));
+    }
+
+    public RecordCodecs<A> withDouble(String name, ToDoubleFunction<A> getter) {
+        return with(new Field<>(Codec.DOUBLE.fieldOf(name), getter::applyAsDouble, builder -> builder.withDouble(name, getter)));
+    }
+
+    public RecordCodecs<A> withBoolean(String name, ToBooleanFunction<A> getter) {
+        return with(new Field<>(Codec.BOOL.fieldOf(name), getter::applyAsBoolean, builder -> builder.withBoolean(name, getter)));
+    }
+
+    private RecordCodecs<A> with(Field<A, ?> field) {
+        var newFields = new ArrayList<>(this.fields);
+        newFields.add(field);
+        return new RecordCodecs<>(newFields, singlePass, accumulateErrors);
+    }
+
+    /**
+     * Makes codecs built with {@link Backend#METHOD_HANDLE} decode in a single pass, as by
+     * {@link MethodHandleRecordCodecBuilder#singlePass()}. Has no effect on other backends.
+     * @return a new description with single-pass decoding
+     */
+    public RecordCodecs<A> singlePass() {
+        return new RecordCodecs<>(fields, true, accumulateErrors);
+    }
+
+    /**
+     * Makes codecs built with {@link Backend#METHOD_HANDLE} collect the errors of every field, as by
+     * {@link MethodHandleRecordCodecBuilder#accumulateErrors()}, as codecs built with {@link Backend#KEYED} already do.
+     * @return a new description with error-accumulating decoding
+     */
+    public RecordCodecs<A> accumulateErrors() {
+        return new RecordCodecs<>(fields, singlePass, true);
+    }
+
+    /**
+     * {@return the backend that codecs are built with when none is specified}
+     * @throws IllegalArgumentException if {@link #BACKEND_PROPERTY} is set to an unknown backend
+     */
+    public static Backend defaultBackend() {
+        String property = System.getProperty(BACKEND_PROPERTY);
+        if (property != null) {
+            try {
+                return Backend.valueOf(property.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown record codec backend " + property + " set by " + BACKEND_PROPERTY, e);
+            }
+        }
+        return ASM_AVAILABLE ? Backend.METHOD_HANDLE : Backend.KEYED;
+    }
+
+    public Codec<A> build(MethodHandles.Lookup lookup, Class<?> clazz) {
+        return buildMap(lookup, clazz).codec();
+    }
+
+    public MapCodec<A> buildMap(MethodHandles.Lookup lookup, Class<?> clazz) {
+        return buildMap(lookup, clazz, defaultBackend());
+    }
+
+    public Codec<A> build(MethodHandles.Lookup lookup, Class<?> clazz, Backend backend) {
+        return buildMap(lookup, clazz, backend).codec();
+    }
+
+    /**
+     * Builds a map codec with a specific backend, calling the single constructor of the provided class with as many
+     * parameters as there are fields.
+     * @param lookup a lookup with access to the constructor
+     * @param clazz the class to construct
+     * @param backend the backend to build with
+     * @return a map codec for the type {@code A}
+     */
+    public MapCodec<A> buildMap(MethodHandles.Lookup lookup, Class<?> clazz, Backend backend) {
+        return switch (backend) {
+            case METHOD_HANDLE -> {
+                if (!ASM_AVAILABLE) {
+                    throw new IllegalStateException("Cannot build record codec with " + backend + " backend, as ASM is not available");
+                }
+                MethodHandleRecordCodecBuilder<A> builder = MethodHandleRecordCodecBuilder.start();
+                for (var field : fields) {
+                    builder = field.methodHandle().apply(builder);
+                }
+                if (singlePass) {
+                    builder = builder.singlePass();
+                }
+                if (accumulateErrors) {
+                    builder = builder.accumulateErrors();
+                }
+                yield builder.buildMapWithConstructor(lookup, clazz);
+            }
+            case KEYED -> buildKeyed(lookup, clazz);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private MapCodec<A> buildKeyed(MethodHandles.Lookup lookup, Class<?> clazz) {
+        MethodHandle constructor;
+        try {
+            constructor = findConstructor(lookup, clazz, fields.size())
+                .asSpreader(Object[].class, fields.size())
+                .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+        return KeyedRecordCodecBuilder.mapCodec(builder -> {
+            List<KeyedRecordCodecBuilder.Key<?>> keys = new ArrayList<>();
+            for (var field : fields) {
+                keys.add(field.addTo(builder));
+            }
+            return container -> {
+                Object[] values = new Object[keys.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = container.get(keys.get(i));
+                }
+                try {
+                    return (A) constructor.invokeExact(values);
+                } catch (Throwable t) {
+                    throw new RuntimeException(t);
+                }
+            };
+        });
+    }
+
+    static MethodHandle findConstructor(MethodHandles.Lookup lookup, Class<?> clazz, int parameterCount) throws IllegalAccessException {
+        var ctors = Arrays.stream(clazz.getDeclaredConstructors()).filter(c -> c.getParameterCount() == parameterCount).toList();
+        if (ctors.isEmpty()) {
+            throw new IllegalArgumentException("No constructor with " + parameterCount + " parameters found");
+        } else if (ctors.size() > 1) {
+            throw new IllegalArgumentException("Multiple constructors with " + parameterCount + " parameters found");
+        }
+        return lookup.unreflectConstructor(ctors.get(0));
+    }
+
+    private record Field<A, T>(MapCodec<T> codec, Function<A, T> getter, UnaryOperator<MethodHandleRecordCodecBuilder<A>> methodHandle) {
+        private KeyedRecordCodecBuilder.Key<T> addTo(KeyedRecordCodecBuilder<A> builder) {
+            return builder.add(codec, getter);
+        }
+    }
+
+    private static boolean isAsmAvailable() {
+        Module module = RecordCodecs.class.getModule();
+        if (module.isNamed()) {
+            // ASM is a static dependency, so it must also have been resolved and be readable by this module
+            ModuleLayer layer = module.getLayer();
+            if (layer == null || !layer.findModule("org.objectweb.asm").map(module::canRead).orElse(false)) {
+                return false;
+            }
+        }
+        try {
+            Class.forName("org.objectweb.asm.ClassWriter", false, RecordCodecs.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
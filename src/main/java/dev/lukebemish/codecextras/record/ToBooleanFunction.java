@@ -0,0 +1,10 @@
+package dev.lukebemish.codecextras.record;
+
+/**
+ * A getter for a {@code boolean} field.
+ * @param <A> the type of the object the field is read from
+ */
+@FunctionalInterface
+public interface ToBooleanFunction<A> {
+    boolean applyAsBoolean(A value);
+}
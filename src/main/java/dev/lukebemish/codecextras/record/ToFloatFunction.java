@@ -0,0 +1,10 @@
+package dev.lukebemish.codecextras.record;
+
+/**
+ * A getter for a {@code float} field.
+ * @param <A> the type of the object the field is read from
+ */
+@FunctionalInterface
+public interface ToFloatFunction<A> {
+    float applyAsFloat(A value);
+}
@@ -4,9 +4,11 @@
 import com.mojang.datafixers.kinds.Const;
 import com.mojang.datafixers.kinds.K1;
 import com.mojang.datafixers.util.Either;
+import com.mojang.datafixers.util.Pair;
 import com.mojang.datafixers.util.Unit;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
+import com.mojang.serialization.DynamicOps;
 import com.mojang.serialization.MapCodec;
 import dev.lukebemish.codecextras.PartialDispatchedMapCodec;
 import dev.lukebemish.codecextras.StringRepresentation;
@@ -15,10 +17,10 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Interprets a {@link Structure} into a {@link Codec} for the same type.
@@ -38,12 +40,12 @@ public CodecInterpreter(Keys<Holder.Mu, Object> keys, Keys2<ParametricKeyedValue
             .add(Interpreter.STRING, new Holder<>(Codec.STRING))
             .build()
         ), parametricKeys.join(Keys2.<ParametricKeyedValue.Mu<Holder.Mu>, K1, K1>builder()
-            .add(Interpreter.INT_IN_RANGE, numberRangeCodecParameter(Codec.INT))
-            .add(Interpreter.BYTE_IN_RANGE, numberRangeCodecParameter(Codec.BYTE))
-            .add(Interpreter.SHORT_IN_RANGE, numberRangeCodecParameter(Codec.SHORT))
-            .add(Interpreter.LONG_IN_RANGE, numberRangeCodecParameter(Codec.LONG))
-            .add(Interpreter.FLOAT_IN_RANGE, numberRangeCodecParameter(Codec.FLOAT))
-            .add(Interpreter.DOUBLE_IN_RANGE, numberRangeCodecParameter(Codec.DOUBLE))
+            .add(Interpreter.INT_IN_RANGE, numberRangeCodecParameter(RangeCodecs::ofInt))
+            .add(Interpreter.BYTE_IN_RANGE, numberRangeCodecParameter(RangeCodecs::ofByte))
+            .add(Interpreter.SHORT_IN_RANGE, numberRangeCodecParameter(RangeCodecs::ofShort))
+            .add(Interpreter.LONG_IN_RANGE, numberRangeCodecParameter(RangeCodecs::ofLong))
+            .add(Interpreter.FLOAT_IN_RANGE, numberRangeCodecParameter(RangeCodecs::ofFloat))
+            .add(Interpreter.DOUBLE_IN_RANGE, numberRangeCodecParameter(RangeCodecs::ofDouble))
             .add(Interpreter.STRING_REPRESENTABLE, new ParametricKeyedValue<>() {
                 @Override
                 public <T> App<Holder.Mu, App<Identity.Mu, T>> convert(App<StringRepresentation.Mu, T> parameter) {
@@ -55,11 +57,11 @@ public <T> App<Holder.Mu, App<Identity.Mu, T>> convert(App<StringRepresentation.
         ));
     }
 
-    private static <N extends Number & Comparable<N>> ParametricKeyedValue<Holder.Mu, Const.Mu<Range<N>>, Const.Mu<N>> numberRangeCodecParameter(Codec<N> codec) {
+    private static <N extends Number & Comparable<N>> ParametricKeyedValue<Holder.Mu, Const.Mu<Range<N>>, Const.Mu<N>> numberRangeCodecParameter(Function<Range<N>, Codec<N>> codec) {
         return new ParametricKeyedValue<>() {
             @Override
             public <T> App<Holder.Mu, App<Const.Mu<N>, T>> convert(App<Const.Mu<Range<N>>, T> parameter) {
-                return new Holder<>(codec.validate(Codec.checkRange(Const.unbox(parameter).min(), Const.unbox(parameter).max())).xmap(Const::create, Const::unbox));
+                return new Holder<>(new RangeCodecs.Boxed<>(codec.apply(Const.unbox(parameter))));
             }
         };
     }
@@ -96,19 +98,30 @@ public <A, B> DataResult<App<Holder.Mu, B>> flatXmap(App<Holder.Mu, A> input, Fu
         return DataResult.success(new Holder<>(codec.flatXmap(to, from)));
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A, B> DataResult<App<Holder.Mu, B>> xmap(App<Holder.Mu, A> input, Function<A, B> to, Function<B, A> from) {
+        var codec = Holder.unbox(input).codec();
+        if (codec instanceof RangeCodecs.Boxed<?, ?> boxed && RangeStructure.isUnboxing(to)) {
+            // The mapping only undoes the wrapping of a range codec, so the unwrapped codec is used as is
+            return DataResult.success(new Holder<>((Codec<B>) boxed.codec()));
+        }
+        return DataResult.success(new Holder<>(codec.xmap(to, from)));
+    }
+
     @Override
     public <A> DataResult<App<Holder.Mu, A>> annotate(Structure<A> original, Keys<Identity.Mu, Object> annotations) {
         // No annotations handled here
-        return original.interpret(this);
+        return interpretStructure(original);
     }
 
     @Override
     public <E, A> DataResult<App<Holder.Mu, E>> dispatch(String key, Structure<A> keyStructure, Function<? super E, ? extends DataResult<A>> function, Supplier<Set<A>> keys, Function<A, DataResult<Structure<? extends E>>> structures) {
-        return keyStructure.interpret(this).flatMap(keyCodecApp -> {
+        return interpretStructure(keyStructure).flatMap(keyCodecApp -> {
             var keyCodec = unbox(keyCodecApp);
-            var map = new ConcurrentHashMap<A, DataResult<MapCodec<? extends E>>>();
-            Function<A, DataResult<MapCodec<? extends E>>> cache = k -> map.computeIfAbsent(k , structures.andThen(result -> result.flatMap(s -> s.interpret(mapCodecInterpreter())).map(MapCodecInterpreter::unbox)));
-            return DataResult.success(new Holder<>(keyCodec.partialDispatch(key, function, cache)));
+            // The resulting codec may decode on several threads at once, so sub-codecs are cached concurrently
+            Function<A, DataResult<MapCodec<? extends E>>> cache = DispatchCache.cache(keys, structures.andThen(result -> result.flatMap(mapCodecInterpreter()::interpretStructure).map(MapCodecInterpreter::unbox)));
+            return DataResult.success(new Holder<>(StringDispatchCodec.of(key, keyCodec, function, keys, cache).codec()));
         });
     }
 
@@ -135,13 +148,21 @@ public <L, R> DataResult<App<Holder.Mu, Either<L, R>>> xor(App<Holder.Mu, L> lef
 
     @Override
     public <K, V> DataResult<App<Holder.Mu, Map<K, V>>> dispatchedMap(Structure<K> keyStructure, Supplier<Set<K>> keys, Function<K, DataResult<Structure<? extends V>>> valueStructures) {
-        return keyStructure.interpret(this).map(CodecInterpreter::unbox).flatMap(keyCodec -> {
-            var map = new ConcurrentHashMap<K, DataResult<Codec<? extends V>>>();
-            Function<K, DataResult<Codec<? extends V>>> cache = k -> map.computeIfAbsent(k , valueStructures.andThen(result -> result.flatMap(s -> s.interpret(this)).map(CodecInterpreter::unbox)));
+        return interpretStructure(keyStructure).map(CodecInterpreter::unbox).flatMap(keyCodec -> {
+            Function<K, DataResult<Codec<? extends V>>> cache = DispatchCache.cache(keys, valueStructures.andThen(result -> result.flatMap(this::interpretStructure).map(CodecInterpreter::unbox)));
             return DataResult.success(new Holder<>(new PartialDispatchedMapCodec<>(keyCodec, cache)));
         });
     }
 
+    @Override
+    public <A> DataResult<App<Holder.Mu, A>> recursive(String name, Function<App<Holder.Mu, A>, DataResult<App<Holder.Mu, A>>> body) {
+        var self = new RecursiveCodec<A>(name);
+        return body.apply(new Holder<>(self)).map(result -> {
+            self.delegate = unbox(result);
+            return result;
+        });
+    }
+
     @Override
     public CodecInterpreter with(Keys<Holder.Mu, Object> keys, Keys2<ParametricKeyedValue.Mu<Holder.Mu>, K1, K1> parametricKeys) {
         return new CodecAndMapInterpreters(keys().join(keys), mapCodecInterpreter().keys(), parametricKeys().join(parametricKeys), mapCodecInterpreter().parametricKeys()).codecInterpreter();
@@ -196,7 +217,39 @@ public static <T> Codec<T> unbox(App<Holder.Mu, T> box) {
     }
 
     public <T> DataResult<Codec<T>> interpret(Structure<T> structure) {
-        return structure.interpret(this).map(CodecInterpreter::unbox);
+        return interpretStructure(structure).map(CodecInterpreter::unbox);
+    }
+
+    private static final class RecursiveCodec<A> implements Codec<A> {
+        private final String name;
+        private volatile @Nullable Codec<A> delegate;
+
+        private RecursiveCodec(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public <T> DataResult<Pair<A, T>> decode(DynamicOps<T> ops, T input) {
+            var delegate = this.delegate;
+            if (delegate == null) {
+                return DataResult.error(() -> "Recursive codec " + name + " was not bound");
+            }
+            return delegate.decode(ops, input);
+        }
+
+        @Override
+        public <T> DataResult<T> encode(A input, DynamicOps<T> ops, T prefix) {
+            var delegate = this.delegate;
+            if (delegate == null) {
+                return DataResult.error(() -> "Recursive codec " + name + " was not bound");
+            }
+            return delegate.encode(input, ops, prefix);
+        }
+
+        @Override
+        public String toString() {
+            return "RecursiveCodec[" + name + "]";
+        }
     }
 
     public record Holder<T>(Codec<T> codec) implements App<Holder.Mu, T> {
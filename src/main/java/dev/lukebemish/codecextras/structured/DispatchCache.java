@@ -0,0 +1,150 @@
+package dev.lukebemish.codecextras.structured;
+
+import com.google.common.base.Suppliers;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Controls how the interpreted representations of the structures a dispatch structure dispatches to are cached by
+ * interpreters. By default, a representation is created the first time its key is seen and kept for as long as the
+ * dispatching representation is. A different policy is chosen for a dispatch structure by passing the set of keys
+ * through {@link #keys(Supplier)} when creating it:
+ * <pre>{@code
+ * Structure.STRING.dispatch("type", Shape::type, DispatchCache.eager().keys(SHAPES::keySet), SHAPES::get);
+ * }</pre>
+ * All caches may be used from several threads at once.
+ * <p>
+ * A policy {@linkplain #withKeyTable() with a key table} also has codec interpreters build a table from the serialized
+ * string of each key to the key the first time a dispatch codec decodes, so that type keys found in it need not be
+ * decoded.
+ * @see Structure#dispatch(String, Function, Supplier, Function)
+ * @see Structure#dispatchedMap(Supplier, Function)
+ */
+public final class DispatchCache {
+    private static final DispatchCache LAZY = new DispatchCache(false, -1, false);
+    private static final DispatchCache EAGER = new DispatchCache(true, -1, false);
+
+    private final boolean eager;
+    private final long maximumSize;
+    private final boolean keyTable;
+
+    private DispatchCache(boolean eager, long maximumSize, boolean keyTable) {
+        this.eager = eager;
+        this.maximumSize = maximumSize;
+        this.keyTable = keyTable;
+    }
+
+    /**
+     * {@return a policy creating each representation the first time its key is seen, and never evicting it} This is
+     * the policy used for keys not passed through {@link #keys(Supplier)}.
+     */
+    public static DispatchCache lazy() {
+        return LAZY;
+    }
+
+    /**
+     * {@return a policy creating the representations for every key in the set of keys at once, in parallel} This
+     * happens the first time any representation is needed, rather than while the dispatching structure is interpreted,
+     * so that structures which dispatch to themselves are not re-entered before they have been interpreted. Keys
+     * outside of the set are handled as by {@link #lazy()}.
+     */
+    public static DispatchCache eager() {
+        return EAGER;
+    }
+
+    /**
+     * {@return a policy keeping at most the given number of representations, evicting those least recently used} This
+     * suits dispatch structures with open-ended key sets, where caching a representation for every key ever seen
+     * would grow without bound.
+     * @param maximumSize the maximum number of representations to keep
+     */
+    public static DispatchCache bounded(long maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Maximum size must not be negative: " + maximumSize);
+        }
+        return new DispatchCache(false, maximumSize, false);
+    }
+
+    /**
+     * {@return a copy of this policy which also has codec interpreters find type keys by their serialized string,
+     * without decoding them} The table of strings is built from the set of keys once, the first time it is needed, so
+     * a key which later leaves the set is still accepted; the set of keys must not change once a codec has been used.
+     * @throws IllegalStateException if this policy is {@linkplain #bounded(long) bounded}, as bounded policies suit
+     * open-ended sets of keys
+     */
+    public DispatchCache withKeyTable() {
+        if (maximumSize >= 0) {
+            throw new IllegalStateException("Bounded dispatch caches cannot use a key table");
+        }
+        return new DispatchCache(eager, maximumSize, true);
+    }
+
+    /**
+     * {@return a supplier of the same keys, which marks dispatch structures created with it as using this policy}
+     * @param keys the set of possible key values
+     * @param <A> the type of the keys
+     */
+    public <A> Supplier<Set<A>> keys(Supplier<Set<A>> keys) {
+        if (keys instanceof CachedKeys<A> cachedKeys) {
+            keys = cachedKeys.keys();
+        }
+        return new CachedKeys<>(keys, this);
+    }
+
+    /**
+     * Creates a cache for the representations of the structures a dispatch structure dispatches to, using the policy
+     * marked on its keys by {@link #keys(Supplier)} or {@link #lazy()} if there is none. Intended for use by
+     * interpreters.
+     * @param keys the set of possible key values the dispatch structure was created with
+     * @param create creates the value for a key
+     * @return a function returning the cached value for a key, creating it if necessary
+     * @param <K> the type of the keys
+     * @param <V> the type of the cached values
+     */
+    public static <K, V> Function<K, V> cache(Supplier<Set<K>> keys, Function<? super K, ? extends V> create) {
+        var policy = keys instanceof CachedKeys<K> cachedKeys ? cachedKeys.policy() : LAZY;
+        return policy.create(keys, create);
+    }
+
+    static boolean usesKeyTable(Supplier<?> keys) {
+        return keys instanceof CachedKeys<?> cachedKeys && cachedKeys.policy().keyTable;
+    }
+
+    private <K, V> Function<K, V> create(Supplier<Set<K>> keys, Function<? super K, ? extends V> create) {
+        if (maximumSize >= 0) {
+            LoadingCache<K, V> cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .build(CacheLoader.from(create::apply));
+            return cache::getUnchecked;
+        }
+        var map = new ConcurrentHashMap<K, V>();
+        Function<K, V> lookup = k -> map.computeIfAbsent(k, create);
+        if (!eager) {
+            return lookup;
+        }
+        Supplier<Boolean> prewarm = Suppliers.memoize(() -> {
+            keys.get().parallelStream().forEach(lookup::apply);
+            return true;
+        });
+        return k -> {
+            var existing = map.get(k);
+            if (existing != null) {
+                return existing;
+            }
+            prewarm.get();
+            return lookup.apply(k);
+        };
+    }
+
+    private record CachedKeys<A>(Supplier<Set<A>> keys, DispatchCache policy) implements Supplier<Set<A>> {
+        @Override
+        public Set<A> get() {
+            return keys.get();
+        }
+    }
+}
@@ -0,0 +1,573 @@
+package dev.lukebemish.codecextras.structured;
+
+import com.google.common.base.Suppliers;
+import com.mojang.datafixers.kinds.App;
+import com.mojang.datafixers.kinds.Const;
+import com.mojang.datafixers.kinds.K1;
+import com.mojang.datafixers.util.Either;
+import com.mojang.datafixers.util.Unit;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.Dynamic;
+import com.mojang.serialization.DynamicOps;
+import com.mojang.serialization.Encoder;
+import dev.lukebemish.codecextras.StringRepresentation;
+import dev.lukebemish.codecextras.comments.CommentOps;
+import dev.lukebemish.codecextras.companion.AccompaniedOps;
+import dev.lukebemish.codecextras.types.Identity;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Interprets a {@link Structure} into an {@link Encoder} which writes values straight into the {@link DynamicOps}
+ * provided. Unlike the codecs created by the {@link CodecInterpreter}, which pass a {@link com.mojang.serialization.RecordBuilder}
+ * and a {@link DataResult} through every field, the fields of a record are collected into a single map which is only
+ * turned into serialized data once, and no results are created while encoding succeeds.
+ * <p>
+ * Keys this interpreter does not know how to encode are encoded with the codec provided for them by the
+ * {@link CodecInterpreter} given, as is all data written to ops which {@linkplain DynamicOps#compressMaps() compress maps}.
+ * @see #interpret(Structure)
+ */
+public class EncoderInterpreter extends KeyStoringInterpreter<EncoderInterpreter.Holder.Mu, EncoderInterpreter> {
+    private final CodecInterpreter codecInterpreter;
+
+    public EncoderInterpreter(
+        Keys<Holder.Mu, Object> keys,
+        Keys2<ParametricKeyedValue.Mu<Holder.Mu>, K1, K1> parametricKeys,
+        CodecInterpreter codecInterpreter
+    ) {
+        super(keys.join(Keys.<Holder.Mu, Object>builder()
+            .add(Interpreter.UNIT, new Holder<>(new Direct<Unit>() {
+                @Override
+                public <T> T encode(Unit value, DynamicOps<T> ops) {
+                    return ops.emptyMap();
+                }
+            }, null))
+            .add(Interpreter.BOOL, new Holder<>(new Direct<Boolean>() {
+                @Override
+                public <T> T encode(Boolean value, DynamicOps<T> ops) {
+                    return ops.createBoolean(value);
+                }
+            }, null))
+            .add(Interpreter.BYTE, new Holder<>(number(), null))
+            .add(Interpreter.SHORT, new Holder<>(number(), null))
+            .add(Interpreter.INT, new Holder<>(number(), null))
+            .add(Interpreter.LONG, new Holder<>(number(), null))
+            .add(Interpreter.FLOAT, new Holder<>(number(), null))
+            .add(Interpreter.DOUBLE, new Holder<>(number(), null))
+            .add(Interpreter.STRING, new Holder<>(new Direct<String>() {
+                @Override
+                public <T> T encode(String value, DynamicOps<T> ops) {
+                    return ops.createString(value);
+                }
+            }, null))
+            .add(Interpreter.PASSTHROUGH, new Holder<>(new Direct<Dynamic<?>>() {
+                @Override
+                public <T> T encode(Dynamic<?> value, DynamicOps<T> ops) {
+                    return value.convert(ops).getValue();
+                }
+            }, null))
+            .build()
+        ), parametricKeys.join(Keys2.<ParametricKeyedValue.Mu<Holder.Mu>, K1, K1>builder()
+            .add(Interpreter.INT_IN_RANGE, range())
+            .add(Interpreter.BYTE_IN_RANGE, range())
+            .add(Interpreter.SHORT_IN_RANGE, range())
+            .add(Interpreter.LONG_IN_RANGE, range())
+            .add(Interpreter.FLOAT_IN_RANGE, range())
+            .add(Interpreter.DOUBLE_IN_RANGE, range())
+            .add(Interpreter.STRING_REPRESENTABLE, new ParametricKeyedValue<>() {
+                @Override
+                public <T> App<Holder.Mu, App<Identity.Mu, T>> convert(App<StringRepresentation.Mu, T> parameter) {
+                    var representation = StringRepresentation.unbox(parameter).representation();
+                    return new Holder<>(new Direct<>() {
+                        @Override
+                        public <O> O encode(App<Identity.Mu, T> value, DynamicOps<O> ops) {
+                            return ops.createString(representation.apply(Identity.unbox(value).value()));
+                        }
+                    }, null);
+                }
+            })
+            .build()
+        ));
+        this.codecInterpreter = codecInterpreter;
+    }
+
+    public EncoderInterpreter() {
+        this(
+            Keys.<Holder.Mu, Object>builder().build(),
+            Keys2.<ParametricKeyedValue.Mu<Holder.Mu>, K1, K1>builder().build(),
+            CodecInterpreter.create()
+        );
+    }
+
+    @Override
+    public EncoderInterpreter with(Keys<Holder.Mu, Object> keys, Keys2<ParametricKeyedValue.Mu<Holder.Mu>, K1, K1> parametricKeys) {
+        return new EncoderInterpreter(
+            keys().join(keys),
+            parametricKeys().join(parametricKeys),
+            this.codecInterpreter
+        );
+    }
+
+    /**
+     * Writes a value as serialized data, throwing an {@link EncodingFailure} if it cannot be encoded.
+     */
+    private interface Direct<A> {
+        <T> T encode(A value, DynamicOps<T> ops);
+    }
+
+    /**
+     * Writes the fields of a value, as keys and values of serialized data, into a map.
+     */
+    private interface FieldWriter<A> {
+        <T> void write(A value, DynamicOps<T> ops, Map<T, T> fields);
+    }
+
+    private record Fields<A>(FieldWriter<A> writer, Map<String, String> comments) {}
+
+    private static final class EncodingFailure extends RuntimeException {
+        private final Supplier<String> message;
+
+        private EncodingFailure(Supplier<String> message) {
+            // Failures are expected and only carry a message, so no stack trace is captured
+            super(null, null, false, false);
+            this.message = message;
+        }
+    }
+
+    private static <A> A unwrap(DataResult<A> result) {
+        if (result instanceof DataResult.Success<A> success) {
+            return success.value();
+        }
+        throw new EncodingFailure(result.error().orElseThrow().messageSupplier());
+    }
+
+    private static <N extends Number> Direct<N> number() {
+        return new Direct<>() {
+            @Override
+            public <T> T encode(N value, DynamicOps<T> ops) {
+                return createNumber(ops, value);
+            }
+        };
+    }
+
+    private static <T> T createNumber(DynamicOps<T> ops, Number value) {
+        return switch (value) {
+            case Integer i -> ops.createInt(i);
+            case Byte b -> ops.createByte(b);
+            case Short s -> ops.createShort(s);
+            case Long l -> ops.createLong(l);
+            case Float f -> ops.createFloat(f);
+            case Double d -> ops.createDouble(d);
+            default -> ops.createNumeric(value);
+        };
+    }
+
+    private record RangeDirect<N extends Number & Comparable<N>>(Range<N> range) implements Direct<N> {
+        @Override
+        public <T> T encode(N value, DynamicOps<T> ops) {
+            if (value.compareTo(range.min()) < 0 || value.compareTo(range.max()) > 0) {
+                throw new EncodingFailure(() -> "Value " + value + " outside of range [" + range.min() + ":" + range.max() + "]");
+            }
+            return createNumber(ops, value);
+        }
+    }
+
+    private record BoxedRangeDirect<N extends Number & Comparable<N>, X>(RangeDirect<N> direct) implements Direct<App<Const.Mu<N>, X>> {
+        @Override
+        public <T> T encode(App<Const.Mu<N>, X> value, DynamicOps<T> ops) {
+            return direct.encode(Const.unbox(value), ops);
+        }
+    }
+
+    private static <N extends Number & Comparable<N>> ParametricKeyedValue<Holder.Mu, Const.Mu<Range<N>>, Const.Mu<N>> range() {
+        return new ParametricKeyedValue<>() {
+            @Override
+            public <T> App<Holder.Mu, App<Const.Mu<N>, T>> convert(App<Const.Mu<Range<N>>, T> parameter) {
+                return new Holder<>(new BoxedRangeDirect<N, T>(new RangeDirect<>(Const.unbox(parameter))), null);
+            }
+        };
+    }
+
+    @Override
+    public <A> DataResult<App<Holder.Mu, A>> keyed(Key<A> key) {
+        var result = super.keyed(key);
+        if (result.isSuccess()) {
+            return result;
+        }
+        var codec = codecInterpreter.keyed(key);
+        return codec.isSuccess() ? codec.map(app -> new Holder<>(CodecInterpreter.unbox(app))) : result;
+    }
+
+    @Override
+    public <MuO extends K1, MuP extends K1, T> DataResult<App<Holder.Mu, App<MuO, T>>> parametricallyKeyed(Key2<MuP, MuO> key, App<MuP, T> parameter) {
+        var result = super.parametricallyKeyed(key, parameter);
+        if (result.isSuccess()) {
+            return result;
+        }
+        var codec = codecInterpreter.parametricallyKeyed(key, parameter);
+        return codec.isSuccess() ? codec.map(app -> new Holder<>(CodecInterpreter.unbox(app))) : result;
+    }
+
+    @Override
+    public <A> DataResult<App<Holder.Mu, List<A>>> list(App<Holder.Mu, A> single) {
+        var element = Holder.unbox(single).direct;
+        return DataResult.success(new Holder<>(new Direct<>() {
+            @Override
+            public <T> T encode(List<A> value, DynamicOps<T> ops) {
+                var elements = new ArrayList<T>(value.size());
+                for (var entry : value) {
+                    elements.add(element.encode(entry, ops));
+                }
+                return ops.createList(elements.stream());
+            }
+        }, null));
+    }
+
+    @Override
+    public <A> DataResult<App<Holder.Mu, A>> record(List<RecordStructure.Field<A, ?>> fields, Function<RecordStructure.Container, A> creator) {
+        var writers = new ArrayList<FieldWriter<A>>(fields.size());
+        var comments = new LinkedHashMap<String, String>();
+        for (var field : fields) {
+            var result = fieldWriter(field);
+            if (result.error().isPresent()) {
+                return DataResult.error(result.error().get().messageSupplier());
+            }
+            writers.add(result.result().orElseThrow());
+            Annotation.get(field.structure().annotations(), Annotation.COMMENT).ifPresent(comment -> comments.put(field.name(), comment));
+        }
+        var recordFields = new Fields<>(new FieldWriter<A>() {
+            @Override
+            public <T> void write(A value, DynamicOps<T> ops, Map<T, T> out) {
+                for (var writer : writers) {
+                    writer.write(value, ops, out);
+                }
+            }
+        }, comments);
+        int size = fields.size();
+        return DataResult.success(new Holder<>(new Direct<>() {
+            @Override
+            public <T> T encode(A value, DynamicOps<T> ops) {
+                var out = LinkedHashMap.<T, T>newLinkedHashMap(size);
+                recordFields.writer().write(value, ops, out);
+                return comment(ops, ops.createMap(out), recordFields.comments());
+            }
+        }, recordFields));
+    }
+
+    private <A, F> DataResult<FieldWriter<A>> fieldWriter(RecordStructure.Field<A, F> field) {
+        return interpretStructure(field.structure()).map(app -> {
+            var encoder = Holder.unbox(app).direct;
+            var getter = field.getter();
+            var name = field.name();
+            @Nullable Predicate<F> predicate = field.missingBehavior().map(RecordStructure.Field.MissingBehavior::predicate).orElse(null);
+            return new FieldWriter<>() {
+                @Override
+                public <T> void write(A value, DynamicOps<T> ops, Map<T, T> fields) {
+                    var fieldValue = getter.apply(value);
+                    if (predicate != null && !predicate.test(fieldValue)) {
+                        // Left out, as an optional field would be
+                        return;
+                    }
+                    fields.put(ops.createString(name), encoder.encode(fieldValue, ops));
+                }
+            };
+        });
+    }
+
+    private static <T> T comment(DynamicOps<T> ops, T map, Map<String, String> comments) {
+        if (comments.isEmpty()) {
+            return map;
+        }
+        var commentOps = AccompaniedOps.find(ops).flatMap(accompaniedOps -> accompaniedOps.<CommentOps.CommentOpsToken, CommentOps<T>>getCompanion(CommentOps.TOKEN));
+        if (commentOps.isEmpty()) {
+            return map;
+        }
+        var serializedComments = LinkedHashMap.<T, T>newLinkedHashMap(comments.size());
+        comments.forEach((key, comment) -> serializedComments.put(ops.createString(key), ops.createString(comment)));
+        return unwrap(commentOps.get().commentToMap(map, serializedComments));
+    }
+
+    @Override
+    public <A, B> DataResult<App<Holder.Mu, B>> flatXmap(App<Holder.Mu, A> input, Function<A, DataResult<B>> to, Function<B, DataResult<A>> from) {
+        return DataResult.success(mapped(Holder.unbox(input), value -> unwrap(from.apply(value))));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A, B> DataResult<App<Holder.Mu, B>> xmap(App<Holder.Mu, A> input, Function<A, B> to, Function<B, A> from) {
+        var holder = Holder.unbox(input);
+        if (holder.direct instanceof BoxedRangeDirect<?, ?> boxed && RangeStructure.isUnboxing(to)) {
+            // The mapping only undoes the wrapping of a range encoder, so the unwrapped encoder is used as is
+            return DataResult.success(new Holder<>((Direct<B>) boxed.direct(), null));
+        }
+        return DataResult.success(mapped(holder, from));
+    }
+
+    private static <A, B> Holder<B> mapped(Holder<A> holder, Function<B, A> from) {
+        var direct = holder.direct;
+        var fields = holder.fields;
+        return new Holder<>(new Direct<>() {
+            @Override
+            public <T> T encode(B value, DynamicOps<T> ops) {
+                return direct.encode(from.apply(value), ops);
+            }
+        }, fields == null ? null : new Fields<>(new FieldWriter<>() {
+            @Override
+            public <T> void write(B value, DynamicOps<T> ops, Map<T, T> out) {
+                fields.writer().write(from.apply(value), ops, out);
+            }
+        }, fields.comments()));
+    }
+
+    @Override
+    public <A> DataResult<App<Holder.Mu, A>> annotate(Structure<A> original, Keys<Identity.Mu, Object> annotations) {
+        // Comments are handled by the fields of records
+        return interpretStructure(original);
+    }
+
+    @Override
+    public <E, A> DataResult<App<Holder.Mu, E>> dispatch(String key, Structure<A> keyStructure, Function<? super E, ? extends DataResult<A>> function, Supplier<Set<A>> keys, Function<A, DataResult<Structure<? extends E>>> structures) {
+        return interpretStructure(keyStructure).map(keyApp -> {
+            var keyEncoder = Holder.unbox(keyApp).direct;
+            var cache = this.<A, E>cache(keys, structures);
+            return new Holder<>(new Direct<>() {
+                @Override
+                public <T> T encode(E value, DynamicOps<T> ops) {
+                    A type = unwrap(function.apply(value));
+                    var holder = unwrap(cache.apply(type));
+                    var out = new LinkedHashMap<T, T>();
+                    out.put(ops.createString(key), keyEncoder.encode(type, ops));
+                    var fields = holder.fields;
+                    if (fields != null) {
+                        fields.writer().write(value, ops, out);
+                        return comment(ops, ops.createMap(out), fields.comments());
+                    }
+                    // Anything else must still encode to a map, whose entries are placed alongside the key
+                    var map = unwrap(ops.getMap(holder.direct.encode(value, ops)));
+                    map.entries().forEach(entry -> out.put(entry.getFirst(), entry.getSecond()));
+                    return ops.createMap(out);
+                }
+            }, null);
+        });
+    }
+
+    @Override
+    public <K, V> DataResult<App<Holder.Mu, Map<K, V>>> dispatchedMap(Structure<K> keyStructure, Supplier<Set<K>> keys, Function<K, DataResult<Structure<? extends V>>> valueStructures) {
+        return interpretStructure(keyStructure).map(keyApp -> {
+            var keyEncoder = Holder.unbox(keyApp).direct;
+            var cache = this.<K, V>cache(keys, valueStructures);
+            return new Holder<>(new Direct<>() {
+                @Override
+                public <T> T encode(Map<K, V> value, DynamicOps<T> ops) {
+                    var out = LinkedHashMap.<T, T>newLinkedHashMap(value.size());
+                    for (var entry : value.entrySet()) {
+                        var valueEncoder = unwrap(cache.apply(entry.getKey())).direct;
+                        out.put(keyEncoder.encode(entry.getKey(), ops), valueEncoder.encode(entry.getValue(), ops));
+                    }
+                    return ops.createMap(out);
+                }
+            }, null);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K, V> Function<K, DataResult<Holder<V>>> cache(Supplier<Set<K>> keys, Function<K, DataResult<Structure<? extends V>>> structures) {
+        // The resulting encoder may encode on several threads at once, so sub-encoders are cached concurrently
+        return DispatchCache.cache(keys, key -> structures.apply(key).flatMap(structure -> interpretStructure(structure).map(app -> (Holder<V>) Holder.unbox(app))));
+    }
+
+    @Override
+    public <K, V> DataResult<App<Holder.Mu, Map<K, V>>> unboundedMap(App<Holder.Mu, K> key, App<Holder.Mu, V> value) {
+        var keyEncoder = Holder.unbox(key).direct;
+        var valueEncoder = Holder.unbox(value).direct;
+        return DataResult.success(new Holder<>(new Direct<>() {
+            @Override
+            public <T> T encode(Map<K, V> map, DynamicOps<T> ops) {
+                var out = LinkedHashMap.<T, T>newLinkedHashMap(map.size());
+                for (var entry : map.entrySet()) {
+                    out.put(keyEncoder.encode(entry.getKey(), ops), valueEncoder.encode(entry.getValue(), ops));
+                }
+                return ops.createMap(out);
+            }
+        }, null));
+    }
+
+    @Override
+    public <L, R> DataResult<App<Holder.Mu, Either<L, R>>> either(App<Holder.Mu, L> left, App<Holder.Mu, R> right) {
+        return DataResult.success(alternatives(Holder.unbox(left).direct, Holder.unbox(right).direct));
+    }
+
+    @Override
+    public <L, R> DataResult<App<Holder.Mu, Either<L, R>>> xor(App<Holder.Mu, L> left, App<Holder.Mu, R> right) {
+        return DataResult.success(alternatives(Holder.unbox(left).direct, Holder.unbox(right).direct));
+    }
+
+    private static <L, R> Holder<Either<L, R>> alternatives(Direct<L> left, Direct<R> right) {
+        return new Holder<>(new Direct<>() {
+            @Override
+            public <T> T encode(Either<L, R> value, DynamicOps<T> ops) {
+                return value.map(l -> left.encode(l, ops), r -> right.encode(r, ops));
+            }
+        }, null);
+    }
+
+    @Override
+    public <A> DataResult<App<Holder.Mu, A>> recursive(String name, Function<App<Holder.Mu, A>, DataResult<App<Holder.Mu, A>>> body) {
+        var self = new RecursiveDirect<A>(name);
+        return body.apply(new Holder<>(self, null)).map(result -> {
+            self.delegate = Holder.unbox(result).direct;
+            return result;
+        });
+    }
+
+    private static final class RecursiveDirect<A> implements Direct<A> {
+        private final String name;
+        private volatile @Nullable Direct<A> delegate;
+
+        private RecursiveDirect(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public <T> T encode(A value, DynamicOps<T> ops) {
+            var delegate = this.delegate;
+            if (delegate == null) {
+                throw new EncodingFailure(() -> "Recursive encoder " + name + " was not bound");
+            }
+            return delegate.encode(value, ops);
+        }
+    }
+
+    /**
+     * {@return an encoder for the given structure, or an error if one could not be created}
+     * @param structure the structure to interpret
+     * @param <A> the type of data the structure represents
+     */
+    public <A> DataResult<Encoder<A>> interpret(Structure<A> structure) {
+        return interpretStructure(structure).map(app -> new DirectEncoder<>(
+            Holder.unbox(app).direct,
+            Suppliers.memoize(() -> codecInterpreter.interpret(structure))
+        ));
+    }
+
+    private record DirectEncoder<A>(Direct<A> direct, Supplier<DataResult<Codec<A>>> codec) implements Encoder<A> {
+        @Override
+        public <T> DataResult<T> encode(A input, DynamicOps<T> ops, T prefix) {
+            if (ops.compressMaps()) {
+                // Compressed records are laid out by the keys of their map codecs, which only the codec knows
+                return codec.get().flatMap(fallback -> fallback.encode(input, ops, prefix));
+            }
+            T value;
+            try {
+                value = direct.encode(input, ops);
+            } catch (EncodingFailure failure) {
+                return DataResult.error(failure.message);
+            }
+            if (Objects.equals(prefix, ops.empty())) {
+                return DataResult.success(value);
+            }
+            return merge(ops, prefix, value);
+        }
+
+        private static <T> DataResult<T> merge(DynamicOps<T> ops, T prefix, T value) {
+            var map = ops.getMap(value);
+            if (map.isSuccess()) {
+                return ops.mergeToMap(prefix, map.getOrThrow());
+            }
+            var list = ops.getStream(value);
+            if (list.isSuccess()) {
+                return ops.mergeToList(prefix, list.getOrThrow().toList());
+            }
+            return ops.mergeToPrimitive(prefix, value);
+        }
+
+        @Override
+        public String toString() {
+            return "DirectEncoder[" + direct + "]";
+        }
+    }
+
+    public static final Key<Holder.Mu> KEY = Key.create("EncoderInterpreter");
+
+    @Override
+    public Stream<KeyConsumer<?, Holder.Mu>> keyConsumers() {
+        return Stream.of(
+            new KeyConsumer<Holder.Mu, Holder.Mu>() {
+                @Override
+                public Key<Holder.Mu> key() {
+                    return KEY;
+                }
+
+                @Override
+                public <T> App<Holder.Mu, T> convert(App<Holder.Mu, T> input) {
+                    return input;
+                }
+            },
+            new KeyConsumer<CodecInterpreter.Holder.Mu, Holder.Mu>() {
+                @Override
+                public Key<CodecInterpreter.Holder.Mu> key() {
+                    return CodecInterpreter.KEY;
+                }
+
+                @Override
+                public <T> App<Holder.Mu, T> convert(App<CodecInterpreter.Holder.Mu, T> input) {
+                    return new Holder<>(CodecInterpreter.unbox(input));
+                }
+            },
+            new KeyConsumer<MapCodecInterpreter.Holder.Mu, Holder.Mu>() {
+                @Override
+                public Key<MapCodecInterpreter.Holder.Mu> key() {
+                    return MapCodecInterpreter.KEY;
+                }
+
+                @Override
+                public <T> App<Holder.Mu, T> convert(App<MapCodecInterpreter.Holder.Mu, T> input) {
+                    return new Holder<>(MapCodecInterpreter.unbox(input).codec());
+                }
+            }
+        );
+    }
+
+    /**
+     * Holds the encoder for a structure.
+     * @param <T> the type of data the structure represents
+     */
+    public static final class Holder<T> implements App<Holder.Mu, T> {
+        private final Direct<T> direct;
+        private final @Nullable Fields<T> fields;
+
+        /**
+         * Creates a holder which encodes values with an existing encoder.
+         * @param encoder the encoder to use
+         */
+        public Holder(Encoder<T> encoder) {
+            this(new Direct<>() {
+                @Override
+                public <O> O encode(T value, DynamicOps<O> ops) {
+                    return unwrap(encoder.encodeStart(ops, value));
+                }
+            }, null);
+        }
+
+        private Holder(Direct<T> direct, @Nullable Fields<T> fields) {
+            this.direct = direct;
+            this.fields = fields;
+        }
+
+        public static final class Mu implements K1 { private Mu() {} }
+
+        public static <T> Holder<T> unbox(App<Holder.Mu, T> box) {
+            return (Holder<T>) box;
+        }
+    }
+}
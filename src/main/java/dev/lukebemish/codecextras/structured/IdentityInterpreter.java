@@ -61,7 +61,7 @@ public <A> DataResult<App<Identity.Mu, A>> keyed(Key<A> key) {
 
     @Override
     public <A> DataResult<App<Identity.Mu, A>> record(List<RecordStructure.Field<A, ?>> fields, Function<RecordStructure.Container, A> creator) {
-        var builder = RecordStructure.Container.builder();
+        var builder = RecordStructure.Container.builder(fields.size());
         for (var field : fields) {
             DataResult<App<Identity.Mu, A>> result = forField(field, builder);
             if (result != null) return result;
@@ -74,7 +74,7 @@ public <A> DataResult<App<Identity.Mu, A>> record(List<RecordStructure.Field<A,
         if (missingBehavior.isPresent()) {
             builder.add(field.key(), missingBehavior.get().missing().get());
         } else {
-            var result = field.structure().interpret(this).map(i -> Identity.unbox(i).value());
+            var result = interpretStructure(field.structure()).map(i -> Identity.unbox(i).value());
             if (result.error().isPresent()) {
                 return DataResult.error(() -> "No default value available for field " + field.name() + ": " + result.error().orElseThrow().message());
             }
@@ -91,7 +91,7 @@ public <A, B> DataResult<App<Identity.Mu, B>> flatXmap(App<Identity.Mu, A> input
 
     @Override
     public <A> DataResult<App<Identity.Mu, A>> annotate(Structure<A> original, Keys<Identity.Mu, Object> annotations) {
-        return original.interpret(this);
+        return interpretStructure(original);
     }
 
     @Override
@@ -119,7 +119,12 @@ public <L, R> DataResult<App<Identity.Mu, Either<L, R>>> xor(App<Identity.Mu, L>
         return DataResult.error(() -> "No default value available for an xor");
     }
 
+    @Override
+    public <A> DataResult<App<Identity.Mu, A>> recursive(String name, Function<App<Identity.Mu, A>, DataResult<App<Identity.Mu, A>>> body) {
+        return DataResult.error(() -> "No default value available for a recursive structure");
+    }
+
     public <A> DataResult<A> interpret(Structure<A> structure) {
-        return structure.interpret(this).map(i -> Identity.unbox(i).value());
+        return interpretStructure(structure).map(i -> Identity.unbox(i).value());
     }
 }
@@ -0,0 +1,11 @@
+package dev.lukebemish.codecextras.structured;
+
+/**
+ * A key with a dense index, assigned when it is created, by which key sets locate its value.
+ */
+sealed interface IndexedKey permits Key, Key2 {
+    /**
+     * {@return the index of this key, unique among keys of the same kind}
+     */
+    int index();
+}
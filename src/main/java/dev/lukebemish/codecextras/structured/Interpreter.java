@@ -25,10 +25,26 @@
 
     <A, B> DataResult<App<Mu, B>> flatXmap(App<Mu, A> input, Function<A, DataResult<B>> to, Function<B, DataResult<A>> from);
 
+    default <A, B> DataResult<App<Mu, B>> xmap(App<Mu, A> input, Function<A, B> to, Function<B, A> from) {
+        return flatXmap(input, a -> DataResult.success(to.apply(a)), b -> DataResult.success(from.apply(b)));
+    }
+
     <A> DataResult<App<Mu, A>> annotate(Structure<A> original, Keys<Identity.Mu, Object> annotations);
 
     <E, A> DataResult<App<Mu, E>> dispatch(String key, Structure<A> keyStructure, Function<? super E, ? extends DataResult<A>> function, Supplier<Set<A>> keys, Function<A, DataResult<Structure<? extends E>>> structures);
 
+    /**
+     * Interpret a structure with this interpreter. Structures and interpreters interpret any nested structures through
+     * this method rather than calling {@link Structure#interpret(Interpreter)} directly, so that an interpreter may
+     * memoize or otherwise intercept the interpretation of sub-structures.
+     * @param structure the structure to interpret
+     * @return the specific representation of the structure, or an error if one could not be created
+     * @param <A> the type of data the structure represents
+     */
+    default <A> DataResult<App<Mu, A>> interpretStructure(Structure<A> structure) {
+        return structure.interpret(this);
+    }
+
     default Stream<KeyConsumer<?, Mu>> keyConsumers() {
         return Stream.of();
     }
@@ -45,7 +61,7 @@ default <A> DataResult<App<Mu,A>> bounded(Structure<A> input, Supplier<Set<A>> v
             }
             return DataResult.error(() -> "Invalid value: " + a);
         };
-        return input.interpret(this).flatMap(a -> flatXmap(a, validator, validator));
+        return interpretStructure(input).flatMap(a -> flatXmap(a, validator, validator));
     }
 
     <K, V> DataResult<App<Mu, Map<K,V>>> unboundedMap(App<Mu, K> key, App<Mu, V> value);
@@ -78,4 +94,20 @@ default <A> DataResult<App<Mu,A>> bounded(Structure<A> input, Supplier<Set<A>> v
     <L, R> DataResult<App<Mu, Either<L,R>>> xor(App<Mu, L> left, App<Mu, R> right);
 
     <K, V> DataResult<App<Mu, Map<K, V>>> dispatchedMap(Structure<K> keyStructure, Supplier<Set<K>> keys, Function<K, DataResult<Structure<? extends V>>> valueStructures);
+
+    /**
+     * Interpret a structure which refers to itself. The interpreter provides a representation which forwards to the
+     * final result, and which the body uses wherever the structure refers to itself; once the body has been
+     * interpreted, the forwarding representation must be bound to its result. As a forwarding representation cannot
+     * be created without knowing the representation, interpreters which do not override this method do not support
+     * recursive structures.
+     * @param name the name of the recursive structure, unique among the recursive structures interpreted together
+     * @param body interprets the body of the structure, given the forwarding representation
+     * @return the representation of the recursive structure, or an error if one could not be created
+     * @param <A> the type of data the structure represents
+     * @see Structure#recursive(String, Function)
+     */
+    default <A> DataResult<App<Mu, A>> recursive(String name, Function<App<Mu, A>, DataResult<App<Mu, A>>> body) {
+        return DataResult.error(() -> "Recursive structure " + name + " is not supported by this interpreter");
+    }
 }
@@ -0,0 +1,109 @@
+package dev.lukebemish.codecextras.structured;
+
+import com.mojang.datafixers.kinds.App;
+import com.mojang.datafixers.kinds.K1;
+import com.mojang.serialization.DataResult;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Utilities for interpreting many structures at once.
+ * <p>
+ * {@link #interpretAll(Collection, Interpreter[])} interprets every structure with every interpreter as independent
+ * tasks in a {@link ForkJoinPool}, so any interpreter passed to it must be safe to use from several threads at once.
+ * The built-in interpreters are: {@link Keys} and {@link Keys2} are immutable once built, a {@link RecordStructure}
+ * is only mutated while its {@link RecordStructure.Builder} runs, the memoized results of a
+ * {@link KeyStoringInterpreter} and the sub-codecs looked up by dispatch codecs are held in concurrent maps or
+ * {@linkplain DispatchCache caches}, and no interpreter mutates a result once it has been created. Structures and keyed
+ * values provided by users must uphold the same guarantees; in particular, the suppliers passed to
+ * {@link Structure#lazyInitialized(java.util.function.Supplier)} and to bounded or dispatch structures may be called
+ * from any thread.
+ */
+public final class Interpreters {
+    private Interpreters() {}
+
+    /**
+     * Interprets every structure provided with every interpreter provided, using the common fork-join pool.
+     * @param structures the structures to interpret
+     * @param interpreters the interpreters to interpret the structures with
+     * @return the results of every interpretation
+     * @see #interpretAll(ForkJoinPool, Collection, Interpreter[])
+     */
+    public static Interpretations interpretAll(Collection<? extends Structure<?>> structures, Interpreter<?>... interpreters) {
+        return interpretAll(ForkJoinPool.commonPool(), structures, interpreters);
+    }
+
+    /**
+     * Interprets every structure provided with every interpreter provided, as independent tasks in the given pool.
+     * As {@link KeyStoringInterpreter}s memoize their results, interpreting the same structures with the same
+     * interpreters afterwards, such as through {@link CodecInterpreter#interpret(Structure)}, is cheap.
+     * @param pool the pool to interpret the structures in
+     * @param structures the structures to interpret
+     * @param interpreters the interpreters to interpret the structures with; each must be safe to use from several threads
+     * @return the results of every interpretation
+     */
+    public static Interpretations interpretAll(ForkJoinPool pool, Collection<? extends Structure<?>> structures, Interpreter<?>... interpreters) {
+        List<Task<?, ?>> tasks = new ArrayList<>(structures.size() * interpreters.length);
+        for (var interpreter : interpreters) {
+            for (var structure : structures) {
+                tasks.add(new Task<>(interpreter, structure));
+            }
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        var results = new IdentityHashMap<Interpreter<?>, Map<Structure<?>, DataResult<?>>>();
+        for (var task : tasks) {
+            results.computeIfAbsent(task.interpreter, i -> new IdentityHashMap<>()).put(task.structure, task.join());
+        }
+        return new Interpretations(results);
+    }
+
+    /**
+     * The results of interpreting a batch of structures with {@link #interpretAll(Collection, Interpreter[])}.
+     */
+    public static final class Interpretations {
+        private final Map<Interpreter<?>, Map<Structure<?>, DataResult<?>>> results;
+
+        private Interpretations(Map<Interpreter<?>, Map<Structure<?>, DataResult<?>>> results) {
+            this.results = results;
+        }
+
+        /**
+         * {@return the result of interpreting a structure with an interpreter}
+         * @param interpreter the interpreter the structure was interpreted with
+         * @param structure the structure that was interpreted
+         * @param <Mu> the type function of the specific representation
+         * @param <A> the type of data the structure represents
+         * @throws IllegalArgumentException if the structure was not interpreted with the interpreter in this batch
+         */
+        @SuppressWarnings("unchecked")
+        public <Mu extends K1, A> DataResult<App<Mu, A>> get(Interpreter<Mu> interpreter, Structure<A> structure) {
+            var forInterpreter = results.get(interpreter);
+            var result = forInterpreter == null ? null : forInterpreter.get(structure);
+            if (result == null) {
+                throw new IllegalArgumentException("Structure was not interpreted with the given interpreter in this batch");
+            }
+            return (DataResult<App<Mu, A>>) result;
+        }
+    }
+
+    private static final class Task<Mu extends K1, A> extends RecursiveTask<DataResult<App<Mu, A>>> {
+        private final Interpreter<Mu> interpreter;
+        private final Structure<A> structure;
+
+        private Task(Interpreter<Mu> interpreter, Structure<A> structure) {
+            this.interpreter = interpreter;
+            this.structure = structure;
+        }
+
+        @Override
+        protected DataResult<App<Mu, A>> compute() {
+            return interpreter.interpretStructure(structure);
+        }
+    }
+}
@@ -2,12 +2,13 @@
 
 import com.mojang.datafixers.kinds.App;
 import com.mojang.datafixers.kinds.K1;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A key which might be associated with a value. Keys carry a type parameter, and are compared by identity.
  * @param <A> the type parameter carried by the key, which may determine the type of the associated value
  */
-public final class Key<A> implements App<Key.Mu, A> {
+public final class Key<A> implements App<Key.Mu, A>, IndexedKey {
     public static final class Mu implements K1 {
         private Mu() {
         }
@@ -17,10 +18,15 @@ public static <A> Key<A> unbox(App<Mu, A> box) {
         return (Key<A>) box;
     }
 
+    // Indices are dense, so that key sets indexed by them stay compact
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
     private final String name;
+    private final int index;
 
     private Key(String name) {
         this.name = name;
+        this.index = NEXT_INDEX.getAndIncrement();
     }
 
     /**
@@ -44,6 +50,16 @@ public String name() {
         return name;
     }
 
+    /**
+     * {@return the index of the key}
+     * Every key is given the next free index when it is created, so indices are small and unique among keys. Key sets
+     * use them to locate a key's value without hashing.
+     */
+    @Override
+    public int index() {
+        return index;
+    }
+
     @Override
     public String toString() {
         return "Key[" + name + "]";
@@ -2,8 +2,9 @@
 
 import com.mojang.datafixers.kinds.App2;
 import com.mojang.datafixers.kinds.K2;
+import java.util.concurrent.atomic.AtomicInteger;
 
-public final class Key2<A, B> implements App2<Key2.Mu, A, B> {
+public final class Key2<A, B> implements App2<Key2.Mu, A, B>, IndexedKey {
     public static final class Mu implements K2 {
         private Mu() {
         }
@@ -13,10 +14,15 @@ public static <A, B> Key2<A, B> unbox(App2<Mu, A, B> box) {
         return (Key2<A, B>) box;
     }
 
+    // Indices are dense, so that key sets indexed by them stay compact
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
     private final String name;
+    private final int index;
 
     private Key2(String name) {
         this.name = name;
+        this.index = NEXT_INDEX.getAndIncrement();
     }
 
     public static <A, B> Key2<A, B> create(String name) {
@@ -28,6 +34,11 @@ public String name() {
         return name;
     }
 
+    @Override
+    public int index() {
+        return index;
+    }
+
     @Override
     public String toString() {
         return "Key2[" + name + "]";
@@ -0,0 +1,283 @@
+package dev.lukebemish.codecextras.structured;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A persistent map comparing keys by identity, backing {@link Keys} and {@link Keys2}. It is a hash array mapped trie:
+ * adding an entry copies only the nodes on the path to it, and every other node is shared with the map it was added to,
+ * so that deriving key sets from large existing sets does not copy them.
+ * <p>
+ * Keys are placed by their {@linkplain IndexedKey#index() index} rather than by a hash. As indices are dense and unique,
+ * the trie is shallow and evenly filled, and a lookup is a handful of array loads without collisions to search.
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+final class KeyMap<K extends IndexedKey, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final KeyMap<?, ?> EMPTY = new KeyMap<>(BitmapNode.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private KeyMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K extends IndexedKey, V> KeyMap<K, V> empty() {
+        return (KeyMap<K, V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable V get(IndexedKey key) {
+        return (V) root.get(key, hash(key), 0);
+    }
+
+    /**
+     * {@return a map with the entry provided added, replacing any existing entry for the key}
+     */
+    KeyMap<K, V> with(K key, V value) {
+        int hash = hash(key);
+        var existing = root.get(key, hash, 0);
+        if (existing == value) {
+            return this;
+        }
+        return new KeyMap<>(root.put(key, value, hash, 0), existing == null ? size + 1 : size);
+    }
+
+    /**
+     * {@return a map with the entries of both maps, preferring those of the other map where both have a key}
+     */
+    KeyMap<K, V> join(KeyMap<K, V> other) {
+        if (other.size == 0) {
+            return this;
+        } else if (this.size == 0) {
+            return other;
+        }
+        // Entries of the smaller map are added to the larger, so that most of the larger is shared
+        boolean replace = other.size <= this.size;
+        var joining = replace ? new Joining(this.root, this.size, true) : new Joining(other.root, other.size, false);
+        (replace ? other : this).root.forEach(joining);
+        return new KeyMap<>(joining.root, joining.size);
+    }
+
+    private static final class Joining implements BiConsumer<Object, Object> {
+        private Node root;
+        private int size;
+        private final boolean replace;
+
+        private Joining(Node root, int size, boolean replace) {
+            this.root = root;
+            this.size = size;
+            this.replace = replace;
+        }
+
+        @Override
+        public void accept(Object key, Object value) {
+            int hash = hash(key);
+            var existing = root.get(key, hash, 0);
+            if (existing == null) {
+                root = root.put(key, value, hash, 0);
+                size++;
+            } else if (replace && existing != value) {
+                root = root.put(key, value, hash, 0);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEach(BiConsumer<? super K, ? super V> consumer) {
+        root.forEach((BiConsumer<Object, Object>) consumer);
+    }
+
+    /**
+     * {@return a map with the same keys, and with values transformed by the function provided}
+     */
+    @SuppressWarnings("unchecked")
+    <W> KeyMap<K, W> mapValues(Function<? super V, ? extends W> function) {
+        return new KeyMap<>(root.mapValues((Function<Object, Object>) function), size);
+    }
+
+    private static int hash(Object key) {
+        return ((IndexedKey) key).index();
+    }
+
+    private sealed interface Node permits BitmapNode, CollisionNode {
+        @Nullable Object get(Object key, int hash, int shift);
+
+        Node put(Object key, Object value, int hash, int shift);
+
+        void forEach(BiConsumer<Object, Object> consumer);
+
+        Node mapValues(Function<Object, Object> function);
+    }
+
+    /**
+     * A node holding entries and child nodes for the keys whose hashes, at its depth, select the bits set in
+     * {@link #dataMap} and {@link #nodeMap} respectively. Entries are stored as key-value pairs first, followed by the
+     * child nodes.
+     */
+    private record BitmapNode(int dataMap, int nodeMap, Object[] content) implements Node {
+        private static final BitmapNode EMPTY = new BitmapNode(0, 0, new Object[0]);
+
+        private static int bit(int hash, int shift) {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+
+        private int dataIndex(int bit) {
+            return Integer.bitCount(dataMap & (bit - 1));
+        }
+
+        private int nodeIndex(int bit) {
+            return 2 * Integer.bitCount(dataMap) + Integer.bitCount(nodeMap & (bit - 1));
+        }
+
+        @Override
+        public @Nullable Object get(Object key, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int index = 2 * dataIndex(bit);
+                return content[index] == key ? content[index + 1] : null;
+            } else if ((nodeMap & bit) != 0) {
+                return ((Node) content[nodeIndex(bit)]).get(key, hash, shift + BITS);
+            }
+            return null;
+        }
+
+        @Override
+        public Node put(Object key, Object value, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int index = 2 * dataIndex(bit);
+                var existingKey = content[index];
+                if (existingKey == key) {
+                    var newContent = content.clone();
+                    newContent[index + 1] = value;
+                    return new BitmapNode(dataMap, nodeMap, newContent);
+                }
+                // The existing entry and the new one move down into a new child node in place of the entry
+                var child = pair(existingKey, content[index + 1], hash(existingKey), key, value, hash, shift + BITS);
+                int nodeIndex = nodeIndex(bit);
+                var newContent = new Object[content.length - 1];
+                System.arraycopy(content, 0, newContent, 0, index);
+                System.arraycopy(content, index + 2, newContent, index, nodeIndex - index - 2);
+                newContent[nodeIndex - 2] = child;
+                System.arraycopy(content, nodeIndex, newContent, nodeIndex - 1, content.length - nodeIndex);
+                return new BitmapNode(dataMap ^ bit, nodeMap | bit, newContent);
+            } else if ((nodeMap & bit) != 0) {
+                int nodeIndex = nodeIndex(bit);
+                var newContent = content.clone();
+                newContent[nodeIndex] = ((Node) content[nodeIndex]).put(key, value, hash, shift + BITS);
+                return new BitmapNode(dataMap, nodeMap, newContent);
+            }
+            int index = 2 * dataIndex(bit);
+            var newContent = new Object[content.length + 2];
+            System.arraycopy(content, 0, newContent, 0, index);
+            newContent[index] = key;
+            newContent[index + 1] = value;
+            System.arraycopy(content, index, newContent, index + 2, content.length - index);
+            return new BitmapNode(dataMap | bit, nodeMap, newContent);
+        }
+
+        private static Node pair(Object key1, Object value1, int hash1, Object key2, Object value2, int hash2, int shift) {
+            if (shift >= Integer.SIZE) {
+                // Only reachable if indices have wrapped around, as every bit of the two indices is equal
+                return new CollisionNode(new Object[] {key1, key2}, new Object[] {value1, value2});
+            }
+            int bit1 = bit(hash1, shift);
+            int bit2 = bit(hash2, shift);
+            if (bit1 == bit2) {
+                return new BitmapNode(0, bit1, new Object[] {pair(key1, value1, hash1, key2, value2, hash2, shift + BITS)});
+            }
+            var content = Integer.compareUnsigned(bit1, bit2) < 0
+                ? new Object[] {key1, value1, key2, value2}
+                : new Object[] {key2, value2, key1, value1};
+            return new BitmapNode(bit1 | bit2, 0, content);
+        }
+
+        @Override
+        public void forEach(BiConsumer<Object, Object> consumer) {
+            int dataEnd = 2 * Integer.bitCount(dataMap);
+            for (int i = 0; i < dataEnd; i += 2) {
+                consumer.accept(content[i], content[i + 1]);
+            }
+            for (int i = dataEnd; i < content.length; i++) {
+                ((Node) content[i]).forEach(consumer);
+            }
+        }
+
+        @Override
+        public Node mapValues(Function<Object, Object> function) {
+            var newContent = content.clone();
+            int dataEnd = 2 * Integer.bitCount(dataMap);
+            for (int i = 1; i < dataEnd; i += 2) {
+                newContent[i] = function.apply(content[i]);
+            }
+            for (int i = dataEnd; i < content.length; i++) {
+                newContent[i] = ((Node) content[i]).mapValues(function);
+            }
+            return new BitmapNode(dataMap, nodeMap, newContent);
+        }
+    }
+
+    /**
+     * A node holding entries whose keys have identical indices.
+     */
+    private record CollisionNode(Object[] keys, Object[] values) implements Node {
+        @Override
+        public @Nullable Object get(Object key, int hash, int shift) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Node put(Object key, Object value, int hash, int shift) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    var newValues = values.clone();
+                    newValues[i] = value;
+                    return new CollisionNode(keys, newValues);
+                }
+            }
+            var newKeys = Arrays.copyOf(keys, keys.length + 1);
+            var newValues = Arrays.copyOf(values, values.length + 1);
+            newKeys[keys.length] = key;
+            newValues[values.length] = value;
+            return new CollisionNode(newKeys, newValues);
+        }
+
+        @Override
+        public void forEach(BiConsumer<Object, Object> consumer) {
+            for (int i = 0; i < keys.length; i++) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+
+        @Override
+        public Node mapValues(Function<Object, Object> function) {
+            var newValues = new Object[values.length];
+            for (int i = 0; i < values.length; i++) {
+                newValues[i] = function.apply(values[i]);
+            }
+            return new CollisionNode(keys, newValues);
+        }
+    }
+}
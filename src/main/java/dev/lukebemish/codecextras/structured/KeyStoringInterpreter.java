@@ -1,30 +1,62 @@
 package dev.lukebemish.codecextras.structured;
 
+import com.google.common.collect.MapMaker;
 import com.mojang.datafixers.kinds.App;
 import com.mojang.datafixers.kinds.K1;
 import com.mojang.serialization.DataResult;
+import java.util.concurrent.ConcurrentMap;
 
+/**
+ * An interpreter which resolves {@link Key}s and {@link Key2}s from a stored set of values. Results of interpreting
+ * structures are memoized per interpreter instance, keyed on the identity of the structure, so that a sub-structure
+ * shared between several parts of a larger structure is only interpreted once. Structures are weakly referenced by
+ * the memo, but results are held strongly: an entry is only dropped once its structure is unreachable from anywhere
+ * but the memo, and a result which itself refers back to its structure, directly or through other structures, keeps
+ * its entry for as long as the interpreter is reachable. Interpreters used for many short-lived structures should
+ * therefore not be kept around longer than the structures they interpret.
+ * @param <Mu> the type function of the specific representation this interpreter creates
+ * @param <SELF> the type of the interpreter itself
+ */
 public abstract class KeyStoringInterpreter<Mu extends K1, SELF extends KeyStoringInterpreter<Mu, SELF>> implements Interpreter<Mu> {
     private final Keys<Mu, Object> keys;
     private final Keys2<ParametricKeyedValue.Mu<Mu>, K1, K1> parametricKeys;
+    // Weak keys are not ephemerons; a value referring to its key keeps the entry alive
+    private final ConcurrentMap<Structure<?>, DataResult<? extends App<Mu, ?>>> interpreted = new MapMaker().weakKeys().makeMap();
 
     protected KeyStoringInterpreter(Keys<Mu, Object> keys, Keys2<ParametricKeyedValue.Mu<Mu>, K1, K1> parametricKeys) {
         this.keys = keys;
         this.parametricKeys = parametricKeys;
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public <A> DataResult<App<Mu, A>> interpretStructure(Structure<A> structure) {
+        var existing = interpreted.get(structure);
+        if (existing != null) {
+            return (DataResult<App<Mu, A>>) existing;
+        }
+        // Not computeIfAbsent, as interpreting a structure re-enters this method for its sub-structures
+        var result = structure.interpret(this);
+        var raced = interpreted.putIfAbsent(structure, result);
+        return raced == null ? result : (DataResult<App<Mu, A>>) raced;
+    }
+
     @Override
     public <A> DataResult<App<Mu, A>> keyed(Key<A> key) {
-        return keys.get(key).map(DataResult::success).orElse(DataResult.error(() -> "Unknown key "+key.name()));
+        var value = keys.getOrNull(key);
+        if (value == null) {
+            return DataResult.error(() -> "Unknown key "+key.name());
+        }
+        return DataResult.success(value);
     }
 
     @Override
     public <MuO extends K1, MuP extends K1, T> DataResult<App<Mu, App<MuO, T>>> parametricallyKeyed(Key2<MuP, MuO> key, App<MuP, T> parameter) {
-        return parametricKeys.get(key)
-            .map(ParametricKeyedValue::unbox)
-            .map(val -> val.convert(parameter))
-            .map(DataResult::success)
-            .orElse(DataResult.error(() -> "Unknown key "+key.name()));
+        var value = parametricKeys.getOrNull(key);
+        if (value == null) {
+            return DataResult.error(() -> "Unknown key "+key.name());
+        }
+        return DataResult.success(ParametricKeyedValue.unbox(value).convert(parameter));
     }
 
     protected Keys<Mu, Object> keys() {
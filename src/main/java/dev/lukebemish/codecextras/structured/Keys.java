@@ -2,20 +2,23 @@
 
 import com.mojang.datafixers.kinds.App;
 import com.mojang.datafixers.kinds.K1;
-import java.util.IdentityHashMap;
-import java.util.Map;
 import java.util.Optional;
+import org.jspecify.annotations.Nullable;
 
 /**
  * A collection of keys and their associated values. Each key is parameterized by a type extending {@code L}, and a
  * value matching a given key will be of the type of {@code Mu} applied to the key's type.
+ * <p>
+ * Key sets are immutable once built; every modifying operation returns a new set, so a set may be freely shared
+ * between threads. A new set shares most of its structure with the sets it was created from, so adding keys to or
+ * joining large sets is cheap.
  * @param <Mu> the type function mapping key type parameters to value types
  * @param <L> the bound on the key type parameters
  */
 public final class Keys<Mu extends K1, L> {
-    private final IdentityHashMap<Key<? extends L>, App<Mu, ? extends L>> keys;
+    private final KeyMap<Key<? extends L>, App<Mu, ? extends L>> keys;
 
-    private Keys(IdentityHashMap<Key<? extends L>, App<Mu, ? extends L>> keys) {
+    private Keys(KeyMap<Key<? extends L>, App<Mu, ? extends L>> keys) {
         this.keys = keys;
     }
 
@@ -24,9 +27,26 @@ private Keys(IdentityHashMap<Key<? extends L>, App<Mu, ? extends L>> keys) {
      * @param key the key to search for
      * @param <A> the type parameter of the value associated with the key
      */
-    @SuppressWarnings("unchecked")
     public <A extends L> Optional<App<Mu, A>> get(Key<A> key) {
-        return Optional.ofNullable((App<Mu, A>) keys.get(key));
+        return Optional.ofNullable(getOrNull(key));
+    }
+
+    /**
+     * {@return the value associated with a key, or {@code null} if it is not present}
+     * Unlike {@link #get(Key)}, this does not allocate.
+     * @param key the key to search for
+     * @param <A> the type parameter of the value associated with the key
+     */
+    @SuppressWarnings("unchecked")
+    public <A extends L> @Nullable App<Mu, A> getOrNull(Key<A> key) {
+        return (App<Mu, A>) keys.get(key);
+    }
+
+    /**
+     * {@return whether this set contains no keys}
+     */
+    public boolean isEmpty() {
+        return keys.isEmpty();
     }
 
     /**
@@ -35,9 +55,7 @@ public <A extends L> Optional<App<Mu, A>> get(Key<A> key) {
      * @param <N> the type function associated with the new {@link Keys}
      */
     public <N extends K1> Keys<N, L> map(Converter<Mu, N, L> converter) {
-        var map = new IdentityHashMap<Key<? extends L>, App<N, ? extends L>>();
-        keys.forEach((key, value) -> map.put(key, converter.convert(value)));
-        return new Keys<>(map);
+        return new Keys<>(keys.<App<N, ? extends L>>mapValues(value -> converter.convert(value)));
     }
 
     /**
@@ -70,9 +88,7 @@ public static <Mu extends K1, L> Builder<Mu, L> builder() {
      * @param other the other key set to combine with this one
      */
     public Keys<Mu, L> join(Keys<Mu, L> other) {
-        var map = new IdentityHashMap<>(this.keys);
-        map.putAll(other.keys);
-        return new Keys<>(map);
+        return new Keys<>(this.keys.join(other.keys));
     }
 
     /**
@@ -82,25 +98,23 @@ public Keys<Mu, L> join(Keys<Mu, L> other) {
      * @param <A> the type parameter for the key
      */
     public <A extends L> Keys<Mu, L> with(Key<A> key, App<Mu, A> value) {
-        var map = new IdentityHashMap<>(this.keys);
-        map.put(key, value);
-        return new Keys<>(map);
+        return new Keys<>(this.keys.with(key, value));
     }
 
     public final static class Builder<Mu extends K1, L> {
-        private final Map<Key<? extends L>, App<Mu, ? extends L>> keys = new IdentityHashMap<>();
+        private KeyMap<Key<? extends L>, App<Mu, ? extends L>> keys = KeyMap.empty();
 
         public <A extends L> Builder<Mu, L> add(Key<A> key, App<Mu, A> value) {
-            keys.put(key, value);
+            keys = keys.with(key, value);
             return this;
         }
 
         public Keys<Mu, L> build() {
-            return new Keys<>(new IdentityHashMap<>(keys));
+            return new Keys<>(keys);
         }
 
         public Builder<Mu, L> join(Keys<Mu, L> other) {
-            keys.putAll(other.keys);
+            keys = keys.join(other.keys);
             return this;
         }
     }
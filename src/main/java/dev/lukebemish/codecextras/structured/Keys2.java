@@ -2,26 +2,34 @@
 
 import com.mojang.datafixers.kinds.App2;
 import com.mojang.datafixers.kinds.K2;
-import java.util.IdentityHashMap;
-import java.util.Map;
 import java.util.Optional;
+import org.jspecify.annotations.Nullable;
 
+/**
+ * A collection of keys with two type parameters and their associated values; the two-parameter analogue of
+ * {@link Keys}. Like {@link Keys}, instances are immutable and may be shared between threads.
+ * @param <Mu> the type function mapping key type parameters to value types
+ * @param <L1> the bound on the first key type parameter
+ * @param <L2> the bound on the second key type parameter
+ */
 public final class Keys2<Mu extends K2, L1, L2> {
-    private final IdentityHashMap<Key2<? extends L1, ? extends L2>, App2<Mu, ? extends L1, ? extends L2>> keys;
+    private final KeyMap<Key2<? extends L1, ? extends L2>, App2<Mu, ? extends L1, ? extends L2>> keys;
 
-    private Keys2(IdentityHashMap<Key2<? extends L1, ? extends L2>, App2<Mu, ? extends L1, ? extends L2>> keys) {
+    private Keys2(KeyMap<Key2<? extends L1, ? extends L2>, App2<Mu, ? extends L1, ? extends L2>> keys) {
         this.keys = keys;
     }
 
-    @SuppressWarnings("unchecked")
     public <A extends L1, B extends L2> Optional<App2<Mu, A, B>> get(Key2<A, B> key) {
-        return Optional.ofNullable((App2<Mu, A, B>) keys.get(key));
+        return Optional.ofNullable(getOrNull(key));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <A extends L1, B extends L2> @Nullable App2<Mu, A, B> getOrNull(Key2<A, B> key) {
+        return (App2<Mu, A, B>) keys.get(key);
     }
 
     public <N extends K2> Keys2<N, L1, L2> map(Converter<Mu, N, L1, L2> converter) {
-        var map = new IdentityHashMap<Key2<? extends L1, ? extends L2>, App2<N, ? extends L1, ? extends L2>>();
-        keys.forEach((key, value) -> map.put(key, converter.convert(value)));
-        return new Keys2<>(map);
+        return new Keys2<>(keys.<App2<N, ? extends L1, ? extends L2>>mapValues(value -> converter.convert(value)));
     }
 
     public interface Converter<Mu extends K2, N extends K2, L1, L2> {
@@ -33,31 +41,27 @@ public static <Mu extends K2, L1, L2> Builder<Mu, L1, L2> builder() {
     }
 
     public Keys2<Mu, L1, L2> join(Keys2<Mu, L1, L2> other) {
-        var map = new IdentityHashMap<>(this.keys);
-        map.putAll(other.keys);
-        return new Keys2<>(map);
+        return new Keys2<>(this.keys.join(other.keys));
     }
 
     public <A extends L1, B extends L2> Keys2<Mu, L1, L2> with(Key2<A, B> key, App2<Mu, A, B> value) {
-        var map = new IdentityHashMap<>(this.keys);
-        map.put(key, value);
-        return new Keys2<>(map);
+        return new Keys2<>(this.keys.with(key, value));
     }
 
     public final static class Builder<Mu extends K2, L1, L2> {
-        private final Map<Key2<? extends L1, ? extends L2>, App2<Mu, ? extends L1, ? extends L2>> keys = new IdentityHashMap<>();
+        private KeyMap<Key2<? extends L1, ? extends L2>, App2<Mu, ? extends L1, ? extends L2>> keys = KeyMap.empty();
 
         public <A extends L1, B extends L2> Builder<Mu, L1, L2> add(Key2<A, B> key, App2<Mu, A, B> value) {
-            keys.put(key, value);
+            keys = keys.with(key, value);
             return this;
         }
 
         public Keys2<Mu, L1, L2> build() {
-            return new Keys2<>(new IdentityHashMap<>(keys));
+            return new Keys2<>(keys);
         }
 
         public Builder<Mu, L1, L2> join(Keys2<Mu, L1, L2> other) {
-            keys.putAll(other.keys);
+            keys = keys.join(other.keys);
             return this;
         }
     }
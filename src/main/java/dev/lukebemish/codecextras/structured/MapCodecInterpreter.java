@@ -9,17 +9,16 @@
 import com.mojang.serialization.MapCodec;
 import com.mojang.serialization.MapLike;
 import com.mojang.serialization.RecordBuilder;
-import com.mojang.serialization.codecs.KeyDispatchCodec;
 import dev.lukebemish.codecextras.XorMapCodec;
 import dev.lukebemish.codecextras.comments.CommentMapCodec;
 import dev.lukebemish.codecextras.types.Identity;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
 
 /**
  * Interprets a {@link Structure} into a {@link MapCodec} for the same type.
@@ -65,9 +64,15 @@ public <A, B> DataResult<App<Holder.Mu, B>> flatXmap(App<Holder.Mu, A> input, Fu
         return DataResult.success(new Holder<>(mapCodec.flatXmap(to, from)));
     }
 
+    @Override
+    public <A, B> DataResult<App<Holder.Mu, B>> xmap(App<Holder.Mu, A> input, Function<A, B> to, Function<B, A> from) {
+        var mapCodec = unbox(input);
+        return DataResult.success(new Holder<>(mapCodec.xmap(to, from)));
+    }
+
     @Override
     public <A> DataResult<App<Holder.Mu, A>> annotate(Structure<A> original, Keys<Identity.Mu, Object> annotations) {
-        return original.interpret(this).map(input -> {
+        return interpretStructure(original).map(input -> {
             var mapCodec = new Object() {
                 MapCodec<A> m = unbox(input);
             };
@@ -107,16 +112,15 @@ public static <T> MapCodec<T> unbox(App<Holder.Mu, T> box) {
     }
 
     public <T> DataResult<MapCodec<T>> interpret(Structure<T> structure) {
-        return structure.interpret(this).map(MapCodecInterpreter::unbox);
+        return interpretStructure(structure).map(MapCodecInterpreter::unbox);
     }
 
     @Override
     public <E, A> DataResult<App<Holder.Mu, E>> dispatch(String key, Structure<A> keyStructure, Function<? super E, ? extends DataResult<A>> function, Supplier<Set<A>> keys, Function<A, DataResult<Structure<? extends E>>> structures) {
-        return keyStructure.interpret(codecInterpreter()).flatMap(keyCodecApp -> {
+        return codecInterpreter().interpretStructure(keyStructure).flatMap(keyCodecApp -> {
             var keyCodec = CodecInterpreter.unbox(keyCodecApp);
-            var map = new ConcurrentHashMap<A, DataResult<MapCodec<? extends E>>>();
-            Function<A, DataResult<MapCodec<? extends E>>> cache = k -> map.computeIfAbsent(k , structures.andThen(result -> result.flatMap(s -> s.interpret(this)).map(MapCodecInterpreter::unbox)));
-            return DataResult.success(new MapCodecInterpreter.Holder<>(new KeyDispatchCodec<>(key, keyCodec, function, cache)));
+            Function<A, DataResult<MapCodec<? extends E>>> cache = DispatchCache.cache(keys, structures.andThen(result -> result.flatMap(this::interpretStructure).map(MapCodecInterpreter::unbox)));
+            return DataResult.success(new MapCodecInterpreter.Holder<>(StringDispatchCodec.of(key, keyCodec, function, keys, cache)));
         });
     }
 
@@ -144,6 +148,15 @@ public <L, R> DataResult<App<Holder.Mu, Either<L, R>>> xor(App<Holder.Mu, L> lef
         return DataResult.success(new Holder<>(XorMapCodec.of(leftCodec, rightCodec)));
     }
 
+    @Override
+    public <A> DataResult<App<Holder.Mu, A>> recursive(String name, Function<App<Holder.Mu, A>, DataResult<App<Holder.Mu, A>>> body) {
+        var self = new RecursiveMapCodec<A>(name);
+        return body.apply(new Holder<>(self)).map(result -> {
+            self.delegate = unbox(result);
+            return result;
+        });
+    }
+
     @Override
     public MapCodecInterpreter with(Keys<Holder.Mu, Object> keys, Keys2<ParametricKeyedValue.Mu<Holder.Mu>, K1, K1> parametricKeys) {
         return new CodecAndMapInterpreters(codecInterpreter().keys(), keys().join(keys), codecInterpreter().parametricKeys(), parametricKeys().join(parametricKeys)).mapCodecInterpreter();
@@ -163,6 +176,44 @@ public MapCodecInterpreter with(
         ).mapCodecInterpreter();
     }
 
+    private static final class RecursiveMapCodec<A> extends MapCodec<A> {
+        private final String name;
+        private volatile @Nullable MapCodec<A> delegate;
+
+        private RecursiveMapCodec(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public <T> Stream<T> keys(DynamicOps<T> ops) {
+            var delegate = this.delegate;
+            return delegate == null ? Stream.empty() : delegate.keys(ops);
+        }
+
+        @Override
+        public <T> DataResult<A> decode(DynamicOps<T> ops, MapLike<T> input) {
+            var delegate = this.delegate;
+            if (delegate == null) {
+                return DataResult.error(() -> "Recursive map codec " + name + " was not bound");
+            }
+            return delegate.decode(ops, input);
+        }
+
+        @Override
+        public <T> RecordBuilder<T> encode(A input, DynamicOps<T> ops, RecordBuilder<T> prefix) {
+            var delegate = this.delegate;
+            if (delegate == null) {
+                return prefix.withErrorsFrom(DataResult.error(() -> "Recursive map codec " + name + " was not bound"));
+            }
+            return delegate.encode(input, ops, prefix);
+        }
+
+        @Override
+        public String toString() {
+            return "RecursiveMapCodec[" + name + "]";
+        }
+    }
+
     public record Holder<T>(MapCodec<T> mapCodec) implements App<Holder.Mu, T> {
         public static final class Mu implements K1 { private Mu() {} }
 
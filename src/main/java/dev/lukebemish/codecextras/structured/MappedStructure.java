@@ -0,0 +1,88 @@
+package dev.lukebemish.codecextras.structured;
+
+import com.mojang.datafixers.kinds.App;
+import com.mojang.datafixers.kinds.K1;
+import com.mojang.serialization.DataResult;
+import java.util.function.Function;
+import org.jspecify.annotations.Nullable;
+
+final class MappedStructure<A, B> implements Structure<B> {
+    private final Structure<A> source;
+    private final Conversion<A, B> to;
+    private final Conversion<B, A> from;
+
+    private MappedStructure(Structure<A> source, Conversion<A, B> to, Conversion<B, A> from) {
+        this.source = source;
+        this.to = to;
+        this.from = from;
+    }
+
+    static <A, B> Structure<B> of(Structure<A> source, Conversion<A, B> to, Conversion<B, A> from) {
+        if (source instanceof MappedStructure<?, A> mapped) {
+            // Adjacent mappings become a single mapping, and so a single layer in whatever the structure is interpreted to
+            return fuse(mapped, to, from);
+        }
+        return new MappedStructure<>(source, to, from);
+    }
+
+    private static <X, A, B> Structure<B> fuse(MappedStructure<X, A> inner, Conversion<A, B> to, Conversion<B, A> from) {
+        return new MappedStructure<>(inner.source, inner.to.andThen(to), from.andThen(inner.from));
+    }
+
+    @Override
+    public <Mu extends K1> DataResult<App<Mu, B>> interpret(Interpreter<Mu> interpreter) {
+        return interpreter.interpretStructure(source).flatMap(app -> {
+            if (to.total != null && from.total != null) {
+                return interpreter.xmap(app, to.total, from.total);
+            }
+            return interpreter.flatXmap(app, to.partial, from.partial);
+        });
+    }
+
+    /**
+     * A conversion in one direction, which is tracked as a plain function for as long as it cannot fail so that
+     * composing it does not allocate intermediate results.
+     */
+    static final class Conversion<A, B> {
+        private final @Nullable Function<A, B> total;
+        private final Function<A, DataResult<B>> partial;
+
+        private Conversion(@Nullable Function<A, B> total, Function<A, DataResult<B>> partial) {
+            this.total = total;
+            this.partial = partial;
+        }
+
+        static <A, B> Conversion<A, B> total(Function<A, B> function) {
+            return new Conversion<>(function, a -> DataResult.success(function.apply(a)));
+        }
+
+        static <A, B> Conversion<A, B> partial(Function<A, DataResult<B>> function) {
+            return new Conversion<>(null, function);
+        }
+
+        boolean isIdentity() {
+            return total == Function.identity();
+        }
+
+        @SuppressWarnings("unchecked")
+        <C> Conversion<A, C> andThen(Conversion<B, C> next) {
+            if (this.isIdentity()) {
+                return (Conversion<A, C>) next;
+            } else if (next.isIdentity()) {
+                return (Conversion<A, C>) this;
+            }
+            var first = this.total;
+            var second = next.total;
+            if (first != null && second != null) {
+                return total(first.andThen(second));
+            } else if (first != null) {
+                var nextPartial = next.partial;
+                return partial(a -> nextPartial.apply(first.apply(a)));
+            } else if (second != null) {
+                return partial(this.partial.andThen(result -> result.map(second)));
+            }
+            var nextPartial = next.partial;
+            return partial(this.partial.andThen(result -> result.flatMap(nextPartial)));
+        }
+    }
+}
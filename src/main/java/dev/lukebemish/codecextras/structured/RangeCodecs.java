@@ -0,0 +1,261 @@
+package dev.lukebemish.codecextras.structured;
+
+import com.mojang.datafixers.kinds.App;
+import com.mojang.datafixers.kinds.Const;
+import com.mojang.datafixers.util.Pair;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.DynamicOps;
+
+/**
+ * Codecs for numbers within a range. Each reads the number once and checks it against primitive bounds, unlike
+ * validating a primitive codec with {@link Codec#checkRange(Comparable, Comparable)}.
+ */
+final class RangeCodecs {
+    private RangeCodecs() {}
+
+    static Codec<Integer> ofInt(Range<Integer> range) {
+        return new IntRange(range.min(), range.max());
+    }
+
+    static Codec<Byte> ofByte(Range<Byte> range) {
+        return new ByteRange(range.min(), range.max());
+    }
+
+    static Codec<Short> ofShort(Range<Short> range) {
+        return new ShortRange(range.min(), range.max());
+    }
+
+    static Codec<Long> ofLong(Range<Long> range) {
+        return new LongRange(range.min(), range.max());
+    }
+
+    static Codec<Float> ofFloat(Range<Float> range) {
+        return new FloatRange(range.min(), range.max());
+    }
+
+    static Codec<Double> ofDouble(Range<Double> range) {
+        return new DoubleRange(range.min(), range.max());
+    }
+
+    private static String message(Object value, Object min, Object max) {
+        return "Value " + value + " outside of range [" + min + ":" + max + "]";
+    }
+
+    private static <N, T> DataResult<Pair<N, T>> outOfRange(N value, Object min, Object max, DynamicOps<T> ops) {
+        return DataResult.error(() -> message(value, min, max), Pair.of(value, ops.empty()));
+    }
+
+    private static <T> DataResult<T> outOfRange(DataResult<T> encoded, Object value, Object min, Object max) {
+        return encoded.flatMap(t -> DataResult.error(() -> message(value, min, max), t));
+    }
+
+    private static <N, T> DataResult<Pair<N, T>> notANumber(DataResult<Number> number) {
+        return DataResult.error(number.error().orElseThrow().messageSupplier());
+    }
+
+    /**
+     * Wraps the values of a codec in {@link Const}, as the codec for a range key must; an interpreter that sees the
+     * wrapping immediately undone may use {@link #codec()} directly instead.
+     * @param codec the codec producing unwrapped values
+     * @param <N> the type of the values
+     * @param <T> the phantom type of the wrapper
+     */
+    record Boxed<N, T>(Codec<N> codec) implements Codec<App<Const.Mu<N>, T>> {
+        @Override
+        public <O> DataResult<Pair<App<Const.Mu<N>, T>, O>> decode(DynamicOps<O> ops, O input) {
+            return codec.decode(ops, input).map(pair -> pair.mapFirst(Const::create));
+        }
+
+        @Override
+        public <O> DataResult<O> encode(App<Const.Mu<N>, T> input, DynamicOps<O> ops, O prefix) {
+            return codec.encode(Const.unbox(input), ops, prefix);
+        }
+
+        @Override
+        public String toString() {
+            return codec.toString();
+        }
+    }
+
+    private record IntRange(int min, int max) implements Codec<Integer> {
+        @Override
+        public <T> DataResult<Pair<Integer, T>> decode(DynamicOps<T> ops, T input) {
+            var number = ops.getNumberValue(input);
+            if (!(number instanceof DataResult.Success<Number> success)) {
+                return notANumber(number);
+            }
+            int value = success.value().intValue();
+            if (value < min || value > max) {
+                return outOfRange(value, min, max, ops);
+            }
+            return DataResult.success(Pair.of(value, ops.empty()));
+        }
+
+        @Override
+        public <T> DataResult<T> encode(Integer input, DynamicOps<T> ops, T prefix) {
+            int value = input;
+            var encoded = ops.mergeToPrimitive(prefix, ops.createInt(value));
+            if (value < min || value > max) {
+                return outOfRange(encoded, value, min, max);
+            }
+            return encoded;
+        }
+
+        @Override
+        public String toString() {
+            return "IntRange[" + min + ":" + max + "]";
+        }
+    }
+
+    private record ByteRange(byte min, byte max) implements Codec<Byte> {
+        @Override
+        public <T> DataResult<Pair<Byte, T>> decode(DynamicOps<T> ops, T input) {
+            var number = ops.getNumberValue(input);
+            if (!(number instanceof DataResult.Success<Number> success)) {
+                return notANumber(number);
+            }
+            byte value = success.value().byteValue();
+            if (value < min || value > max) {
+                return outOfRange(value, min, max, ops);
+            }
+            return DataResult.success(Pair.of(value, ops.empty()));
+        }
+
+        @Override
+        public <T> DataResult<T> encode(Byte input, DynamicOps<T> ops, T prefix) {
+            byte value = input;
+            var encoded = ops.mergeToPrimitive(prefix, ops.createByte(value));
+            if (value < min || value > max) {
+                return outOfRange(encoded, value, min, max);
+            }
+            return encoded;
+        }
+
+        @Override
+        public String toString() {
+            return "ByteRange[" + min + ":" + max + "]";
+        }
+    }
+
+    private record ShortRange(short min, short max) implements Codec<Short> {
+        @Override
+        public <T> DataResult<Pair<Short, T>> decode(DynamicOps<T> ops, T input) {
+            var number = ops.getNumberValue(input);
+            if (!(number instanceof DataResult.Success<Number> success)) {
+                return notANumber(number);
+            }
+            short value = success.value().shortValue();
+            if (value < min || value > max) {
+                return outOfRange(value, min, max, ops);
+            }
+            return DataResult.success(Pair.of(value, ops.empty()));
+        }
+
+        @Override
+        public <T> DataResult<T> encode(Short input, DynamicOps<T> ops, T prefix) {
+            short value = input;
+            var encoded = ops.mergeToPrimitive(prefix, ops.createShort(value));
+            if (value < min || value > max) {
+                return outOfRange(encoded, value, min, max);
+            }
+            return encoded;
+        }
+
+        @Override
+        public String toString() {
+            return "ShortRange[" + min + ":" + max + "]";
+        }
+    }
+
+    private record LongRange(long min, long max) implements Codec<Long> {
+        @Override
+        public <T> DataResult<Pair<Long, T>> decode(DynamicOps<T> ops, T input) {
+            var number = ops.getNumberValue(input);
+            if (!(number instanceof DataResult.Success<Number> success)) {
+                return notANumber(number);
+            }
+            long value = success.value().longValue();
+            if (value < min || value > max) {
+                return outOfRange(value, min, max, ops);
+            }
+            return DataResult.success(Pair.of(value, ops.empty()));
+        }
+
+        @Override
+        public <T> DataResult<T> encode(Long input, DynamicOps<T> ops, T prefix) {
+            long value = input;
+            var encoded = ops.mergeToPrimitive(prefix, ops.createLong(value));
+            if (value < min || value > max) {
+                return outOfRange(encoded, value, min, max);
+            }
+            return encoded;
+        }
+
+        @Override
+        public String toString() {
+            return "LongRange[" + min + ":" + max + "]";
+        }
+    }
+
+    // Floating point bounds are compared as Float#compareTo and Double#compareTo would, so NaN is never in range
+    private record FloatRange(float min, float max) implements Codec<Float> {
+        @Override
+        public <T> DataResult<Pair<Float, T>> decode(DynamicOps<T> ops, T input) {
+            var number = ops.getNumberValue(input);
+            if (!(number instanceof DataResult.Success<Number> success)) {
+                return notANumber(number);
+            }
+            float value = success.value().floatValue();
+            if (Float.compare(value, min) < 0 || Float.compare(value, max) > 0) {
+                return outOfRange(value, min, max, ops);
+            }
+            return DataResult.success(Pair.of(value, ops.empty()));
+        }
+
+        @Override
+        public <T> DataResult<T> encode(Float input, DynamicOps<T> ops, T prefix) {
+            float value = input;
+            var encoded = ops.mergeToPrimitive(prefix, ops.createFloat(value));
+            if (Float.compare(value, min) < 0 || Float.compare(value, max) > 0) {
+                return outOfRange(encoded, value, min, max);
+            }
+            return encoded;
+        }
+
+        @Override
+        public String toString() {
+            return "FloatRange[" + min + ":" + max + "]";
+        }
+    }
+
+    private record DoubleRange(double min, double max) implements Codec<Double> {
+        @Override
+        public <T> DataResult<Pair<Double, T>> decode(DynamicOps<T> ops, T input) {
+            var number = ops.getNumberValue(input);
+            if (!(number instanceof DataResult.Success<Number> success)) {
+                return notANumber(number);
+            }
+            double value = success.value().doubleValue();
+            if (Double.compare(value, min) < 0 || Double.compare(value, max) > 0) {
+                return outOfRange(value, min, max, ops);
+            }
+            return DataResult.success(Pair.of(value, ops.empty()));
+        }
+
+        @Override
+        public <T> DataResult<T> encode(Double input, DynamicOps<T> ops, T prefix) {
+            double value = input;
+            var encoded = ops.mergeToPrimitive(prefix, ops.createDouble(value));
+            if (Double.compare(value, min) < 0 || Double.compare(value, max) > 0) {
+                return outOfRange(encoded, value, min, max);
+            }
+            return encoded;
+        }
+
+        @Override
+        public String toString() {
+            return "DoubleRange[" + min + ":" + max + "]";
+        }
+    }
+}
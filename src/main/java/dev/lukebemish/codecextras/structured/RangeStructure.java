@@ -0,0 +1,44 @@
+package dev.lukebemish.codecextras.structured;
+
+import com.mojang.datafixers.kinds.App;
+import com.mojang.datafixers.kinds.Const;
+import com.mojang.datafixers.kinds.K1;
+import com.mojang.serialization.DataResult;
+import java.util.function.Function;
+
+final class RangeStructure<N extends Number & Comparable<N>> implements Structure<N> {
+    // Shared so that interpreters can recognize that a mapping only unwraps the value of a range key
+    private static final Function<App<Const.Mu<Object>, Object>, Object> UNBOX = Const::unbox;
+    private static final Function<Object, App<Const.Mu<Object>, Object>> BOX = Const::create;
+
+    private final Key2<Const.Mu<Range<N>>, Const.Mu<N>> key;
+    private final App<Const.Mu<Range<N>>, Object> range;
+
+    RangeStructure(Key2<Const.Mu<Range<N>>, Const.Mu<N>> key, Range<N> range) {
+        this.key = key;
+        this.range = Const.create(range);
+    }
+
+    @Override
+    public <Mu extends K1> DataResult<App<Mu, N>> interpret(Interpreter<Mu> interpreter) {
+        return interpreter.parametricallyKeyed(key, range).flatMap(app -> interpreter.xmap(app, unbox(), box()));
+    }
+
+    /**
+     * {@return whether the function is the one used by range structures to unwrap the value produced for a range key}
+     * @param function the function to check
+     */
+    static boolean isUnboxing(Function<?, ?> function) {
+        return function == UNBOX;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <N> Function<App<Const.Mu<N>, Object>, N> unbox() {
+        return (Function) UNBOX;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <N> Function<N, App<Const.Mu<N>, Object>> box() {
+        return (Function) BOX;
+    }
+}
@@ -4,6 +4,7 @@
 import com.mojang.datafixers.kinds.K1;
 import com.mojang.serialization.DataResult;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -15,6 +16,10 @@
 /**
  * Used to assemble a set of key-structure pairs, potentially optionally present, into a structure. Most often you will
  * create a {@link RecordStructure.Builder} and pass it to {@link Structure#record(Builder)}.
+ * <p>
+ * A record structure is only modified while its builder runs, and must not be modified once the structure has been
+ * created; after that point its fields are only read, so the resulting structure may be interpreted on several threads
+ * at once.
  * @param <A> The type of the record represented.
  */
 public class RecordStructure<A> {
@@ -45,17 +50,34 @@ private  <T> T get(Key<T> key) {
 
         /**
          * {@return a container builder that has not read any keys yet}
-         * {@link Interpreter}s may need to assemble a container to use with a record structure.
+         * {@link Interpreter}s may need to assemble a container to use with a record structure. The builder grows as
+         * keys are added; where the number of fields is known, prefer {@link #builder(int)}.
          */
         public static Builder builder() {
-            return new Builder();
+            return new Builder(0);
         }
 
+        /**
+         * {@return a container builder with a slot for each of the given number of fields}
+         * Each key is written directly into its own slot, so building the container requires no copying. Interpreters
+         * creating a container for a record with a known list of {@link Field}s should pass the size of that list.
+         * @param size the number of fields in the record the container is for
+         */
+        public static Builder builder(int size) {
+            return new Builder(size);
+        }
+
+        /**
+         * Assembles a {@link Container}. A builder should not be used further once {@link #build()} has been called.
+         */
         public static final class Builder {
-            private final List<Object> values = new ArrayList<>();
-            private final List<Key<?>> keys = new ArrayList<>();
+            private Object[] values;
+            private Key<?>[] keys;
 
-            private Builder() {}
+            private Builder(int size) {
+                this.values = new Object[size];
+                this.keys = new Key<?>[size];
+            }
 
             /**
              * Add a key-value pair to the container.
@@ -64,15 +86,21 @@ private Builder() {}
              * @param <T> the type of the value
              */
             public <T> void add(Key<T> key, T value) {
-                keys.add(key);
-                values.add(value);
+                int slot = key.count;
+                if (slot >= keys.length) {
+                    int size = Math.max(slot + 1, keys.length * 2);
+                    keys = Arrays.copyOf(keys, size);
+                    values = Arrays.copyOf(values, size);
+                }
+                keys[slot] = key;
+                values[slot] = value;
             }
 
             /**
              * {@return a new container with the keys and values added so far}
              */
             public Container build() {
-                return new Container(keys.toArray(Key<?>[]::new), values.toArray());
+                return new Container(keys, values);
             }
         }
     }
@@ -0,0 +1,52 @@
+package dev.lukebemish.codecextras.structured;
+
+import com.mojang.datafixers.kinds.App;
+import com.mojang.datafixers.kinds.K1;
+import com.mojang.serialization.DataResult;
+import dev.lukebemish.codecextras.types.Identity;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+final class RecursiveStructure<A> implements Structure<A> {
+    private final String name;
+    private final Structure<A> body;
+    // The forwarding representations of interpreters currently interpreting the body on this thread
+    private final ThreadLocal<Map<Interpreter<?>, App<?, A>>> pending = ThreadLocal.withInitial(IdentityHashMap::new);
+
+    RecursiveStructure(String name, Function<Structure<A>, Structure<A>> function) {
+        this.name = name;
+        this.body = function.apply(new Self());
+    }
+
+    @Override
+    public <Mu extends K1> DataResult<App<Mu, A>> interpret(Interpreter<Mu> interpreter) {
+        return interpreter.recursive(name, self -> {
+            var map = pending.get();
+            map.put(interpreter, self);
+            try {
+                return interpreter.interpretStructure(body);
+            } finally {
+                map.remove(interpreter);
+            }
+        });
+    }
+
+    @Override
+    public Keys<Identity.Mu, Object> annotations() {
+        return body.annotations();
+    }
+
+    private final class Self implements Structure<A> {
+        @SuppressWarnings("unchecked")
+        @Override
+        public <Mu extends K1> DataResult<App<Mu, A>> interpret(Interpreter<Mu> interpreter) {
+            var self = (App<Mu, A>) pending.get().get(interpreter);
+            if (self != null) {
+                return DataResult.success(self);
+            }
+            // Referenced outside of the body's interpretation, such as by another interpreter; stands for the whole structure
+            return interpreter.interpretStructure(RecursiveStructure.this);
+        }
+    }
+}
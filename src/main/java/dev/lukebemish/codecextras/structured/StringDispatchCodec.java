@@ -0,0 +1,72 @@
+package dev.lukebemish.codecextras.structured;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.DynamicOps;
+import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.MapLike;
+import com.mojang.serialization.RecordBuilder;
+import com.mojang.serialization.codecs.KeyDispatchCodec;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * A map codec wrapping a {@link KeyDispatchCodec} which, when decoding, finds the type key in a {@link StringKeyTable}
+ * by its serialized string instead of decoding it. Encoding, and decoding any type key not in the table, is left to the
+ * wrapped {@link KeyDispatchCodec}.
+ */
+final class StringDispatchCodec<K, V> extends MapCodec<V> {
+    private final String typeKey;
+    private final StringKeyTable<K> table;
+    private final Function<? super K, ? extends DataResult<? extends MapCodec<? extends V>>> codec;
+    private final MapCodec<V> fallback;
+
+    private StringDispatchCodec(String typeKey, StringKeyTable<K> table, Function<? super K, ? extends DataResult<? extends MapCodec<? extends V>>> codec, MapCodec<V> fallback) {
+        this.typeKey = typeKey;
+        this.table = table;
+        this.codec = codec;
+        this.fallback = fallback;
+    }
+
+    static <K, V> MapCodec<V> of(String typeKey, Codec<K> keyCodec, Function<? super V, ? extends DataResult<? extends K>> type, Supplier<Set<K>> keys, Function<? super K, ? extends DataResult<? extends MapCodec<? extends V>>> codec) {
+        MapCodec<V> fallback = new KeyDispatchCodec<>(typeKey, keyCodec, type, codec);
+        var table = StringKeyTable.of(keyCodec, keys);
+        if (table == null) {
+            return fallback;
+        }
+        return new StringDispatchCodec<>(typeKey, table, codec, fallback);
+    }
+
+    @Override
+    public <T> Stream<T> keys(DynamicOps<T> ops) {
+        return fallback.keys(ops);
+    }
+
+    @Override
+    public <T> DataResult<V> decode(DynamicOps<T> ops, MapLike<T> input) {
+        // Compressed maps store the dispatched value under a separate key, which the fallback handles
+        if (!ops.compressMaps()) {
+            var serializedKey = input.get(typeKey);
+            if (serializedKey != null) {
+                var key = table.find(ops, serializedKey);
+                if (key != null) {
+                    DataResult<? extends MapCodec<? extends V>> result = codec.apply(key);
+                    return result.flatMap(c -> c.decode(ops, input).<V>map(v -> v));
+                }
+            }
+        }
+        return fallback.decode(ops, input);
+    }
+
+    @Override
+    public <T> RecordBuilder<T> encode(V input, DynamicOps<T> ops, RecordBuilder<T> prefix) {
+        return fallback.encode(input, ops, prefix);
+    }
+
+    @Override
+    public String toString() {
+        return "StringDispatchCodec[" + typeKey + "]";
+    }
+}
@@ -0,0 +1,74 @@
+package dev.lukebemish.codecextras.structured;
+
+import com.google.common.base.Suppliers;
+import com.google.gson.JsonElement;
+import com.mojang.serialization.DynamicOps;
+import com.mojang.serialization.Encoder;
+import com.mojang.serialization.JsonOps;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Finds the keys of a dispatch structure from their serialized strings, without decoding them. The table is built from
+ * the set of keys the first time it is needed, and only holds keys which encode to strings; any key which cannot be
+ * found in it must still be decoded. Assumes that the key codec decodes the string of each key back to that key.
+ * @param <K> the type of the keys
+ */
+final class StringKeyTable<K> {
+    private final Supplier<Map<String, K>> table;
+
+    private StringKeyTable(Supplier<Map<String, K>> table) {
+        this.table = table;
+    }
+
+    /**
+     * {@return a table for the keys provided, or {@code null} unless the keys use a policy
+     * {@linkplain DispatchCache#withKeyTable() with a key table}} Only such policies promise that the set of keys does
+     * not change, so that a key the table holds is still valid.
+     * @param keyEncoder encodes keys to find their strings
+     * @param keys the set of possible key values
+     */
+    static <K> @Nullable StringKeyTable<K> of(Encoder<K> keyEncoder, Supplier<Set<K>> keys) {
+        if (!DispatchCache.usesKeyTable(keys)) {
+            return null;
+        }
+        return new StringKeyTable<>(Suppliers.memoize(() -> build(keyEncoder, keys.get())));
+    }
+
+    private static <K> Map<String, K> build(Encoder<K> keyEncoder, Set<K> keys) {
+        var table = new HashMap<String, K>();
+        var ambiguous = new HashSet<String>();
+        for (var key : keys) {
+            var encoded = keyEncoder.encodeStart(JsonOps.INSTANCE, key).result();
+            if (encoded.isEmpty() || !isString(encoded.get())) {
+                continue;
+            }
+            var string = encoded.get().getAsString();
+            if (table.putIfAbsent(string, key) != null) {
+                ambiguous.add(string);
+            }
+        }
+        // Strings shared by several keys are left to the key codec to resolve
+        table.keySet().removeAll(ambiguous);
+        return Map.copyOf(table);
+    }
+
+    private static boolean isString(JsonElement element) {
+        return element.isJsonPrimitive() && element.getAsJsonPrimitive().isString();
+    }
+
+    /**
+     * {@return the key serialized as the given value, or {@code null} if the value is not a string in the table}
+     * @param ops the ops the value is serialized with
+     * @param value the serialized key
+     * @param <T> the type of the serialized data
+     */
+    <T> @Nullable K find(DynamicOps<T> ops, T value) {
+        var string = ops.getStringValue(value).result();
+        return string.isEmpty() ? null : table.get().get(string.get());
+    }
+}
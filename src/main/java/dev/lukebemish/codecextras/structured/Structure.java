@@ -1,8 +1,8 @@
 package dev.lukebemish.codecextras.structured;
 
+import com.google.common.base.Suppliers;
 import com.google.common.collect.Sets;
 import com.mojang.datafixers.kinds.App;
-import com.mojang.datafixers.kinds.Const;
 import com.mojang.datafixers.kinds.K1;
 import com.mojang.datafixers.util.Either;
 import com.mojang.datafixers.util.Unit;
@@ -72,11 +72,8 @@ private static <A, O> Structure<A> annotatedDelegatingStructure(Function<Structu
         final class AnnotatedDelegatingStructure<X> implements Structure<X> {
             final Structure<X> original;
 
-            AnnotatedDelegatingStructure(Function<Structure<O>, Structure<X>> function, Structure<O> original) {
-                while (original instanceof AnnotatedDelegatingStructure<O> annotatedDelegatingStructure) {
-                    original = annotatedDelegatingStructure.original;
-                }
-                this.original = function.apply(original);
+            AnnotatedDelegatingStructure(Structure<X> original) {
+                this.original = original;
             }
 
             @Override
@@ -90,7 +87,16 @@ public Keys<Identity.Mu, Object> annotations() {
             }
         }
 
-        return new AnnotatedDelegatingStructure<>(outerFunction, outer);
+        var original = outer;
+        while (original instanceof AnnotatedDelegatingStructure<O> annotatedDelegatingStructure) {
+            original = annotatedDelegatingStructure.original;
+        }
+        var delegate = outerFunction.apply(original);
+        if (annotations.isEmpty()) {
+            // No interpreter does anything with an empty set of annotations, so the layer is left out entirely
+            return delegate;
+        }
+        return new AnnotatedDelegatingStructure<>(delegate);
     }
 
     /**
@@ -102,7 +108,7 @@ default Structure<List<A>> listOf() {
         return new Structure<>() {
             @Override
             public <Mu extends K1> DataResult<App<Mu, List<A>>> interpret(Interpreter<Mu> interpreter) {
-                return outer.interpret(interpreter).flatMap(interpreter::list);
+                return interpreter.interpretStructure(outer).flatMap(interpreter::list);
             }
         };
     }
@@ -120,7 +126,7 @@ static <K, V> Structure<Map<K, V>> unboundedMap(Structure<K> key, Structure<V> v
         return new Structure<>() {
             @Override
             public <Mu extends K1> DataResult<App<Mu, Map<K, V>>> interpret(Interpreter<Mu> interpreter) {
-                return key.interpret(interpreter).flatMap(k -> value.interpret(interpreter).flatMap(v -> interpreter.unboundedMap(k, v)));
+                return interpreter.interpretStructure(key).flatMap(k -> interpreter.interpretStructure(value).flatMap(v -> interpreter.unboundedMap(k, v)));
             }
         };
     }
@@ -138,8 +144,8 @@ static <L, R> Structure<Either<L, R>> either(Structure<L> left, Structure<R> rig
         return new Structure<>() {
             @Override
             public <Mu extends K1> DataResult<App<Mu, Either<L, R>>> interpret(Interpreter<Mu> interpreter) {
-                var leftResult = left.interpret(interpreter);
-                var rightResult = right.interpret(interpreter);
+                var leftResult = interpreter.interpretStructure(left);
+                var rightResult = interpreter.interpretStructure(right);
                 return leftResult
                     .mapError(s -> rightResult.error().map(e -> s + "; " + e.message()).orElse(s))
                     .flatMap(leftApp -> rightResult.flatMap(rightApp -> interpreter.either(leftApp, rightApp)));
@@ -160,8 +166,8 @@ static <L, R> Structure<Either<L, R>> xor(Structure<L> left, Structure<R> right)
         return new Structure<>() {
             @Override
             public <Mu extends K1> DataResult<App<Mu, Either<L, R>>> interpret(Interpreter<Mu> interpreter) {
-                var leftResult = left.interpret(interpreter);
-                var rightResult = right.interpret(interpreter);
+                var leftResult = interpreter.interpretStructure(left);
+                var rightResult = interpreter.interpretStructure(right);
                 return leftResult
                     .mapError(s -> rightResult.error().map(e -> s + "; " + e.message()).orElse(s))
                     .flatMap(leftApp -> rightResult.flatMap(rightApp -> interpreter.xor(leftApp, rightApp)));
@@ -208,12 +214,11 @@ default RecordStructure.Builder<A> optionalFieldOf(String name, Supplier<A> defa
      * @param <B> the new type to represent
      */
     default <B> Structure<B> flatXmap(Function<A, DataResult<B>> to, Function<B, DataResult<A>> from) {
-        return annotatedDelegatingStructure(outer -> new Structure<>() {
-            @Override
-            public <Mu extends K1> DataResult<App<Mu, B>> interpret(Interpreter<Mu> interpreter) {
-                return outer.interpret(interpreter).flatMap(app -> interpreter.flatXmap(app, to, from));
-            }
-        }, this, this.annotations());
+        return mapped(MappedStructure.Conversion.partial(to), MappedStructure.Conversion.partial(from));
+    }
+
+    private <B> Structure<B> mapped(MappedStructure.Conversion<A, B> to, MappedStructure.Conversion<B, A> from) {
+        return annotatedDelegatingStructure(outer -> MappedStructure.of(outer, to, from), this, this.annotations());
     }
 
     /**
@@ -224,8 +229,12 @@ public <Mu extends K1> DataResult<App<Mu, B>> interpret(Interpreter<Mu> interpre
      * @return a new structure representing the new type
      * @param <B> the new type to represent
      */
+    @SuppressWarnings("unchecked")
     default <B> Structure<B> xmap(Function<A, B> to, Function<B, A> from) {
-        return flatXmap(a -> DataResult.success(to.apply(a)), b -> DataResult.success(from.apply(b)));
+        if (to == Function.identity() && from == Function.identity()) {
+            return (Structure<B>) this;
+        }
+        return mapped(MappedStructure.Conversion.total(to), MappedStructure.Conversion.total(from));
     }
 
     /**
@@ -237,7 +246,7 @@ default <B> Structure<B> xmap(Function<A, B> to, Function<B, A> from) {
      * @param <B> the new type to represent
      */
     default <B> Structure<B> comapFlatMap(Function<A, DataResult<B>> to, Function<B, A> from) {
-        return flatXmap(to, b -> DataResult.success(from.apply(b)));
+        return mapped(MappedStructure.Conversion.partial(to), MappedStructure.Conversion.total(from));
     }
 
     /**
@@ -249,13 +258,14 @@ default <B> Structure<B> comapFlatMap(Function<A, DataResult<B>> to, Function<B,
      * @param <B> the new type to represent
      */
     default <B> Structure<B> flatComapMap(Function<A, B> to, Function<B, DataResult<A>> from) {
-        return flatXmap(a -> DataResult.success(to.apply(a)), from);
+        return mapped(MappedStructure.Conversion.total(to), MappedStructure.Conversion.partial(from));
     }
 
     /**
      * Creates a structure such that the structure of the data is dependent on the value for a given key. The key must
      * have a finite set of possible values. The current structure becomes the structure of the key field.
-     * Analogous to {@link Codec#dispatch(String, Function, Function)}.
+     * Analogous to {@link Codec#dispatch(String, Function, Function)}. How interpreters cache the representations of
+     * the structures dispatched to may be chosen with a {@link DispatchCache}.
      * @param key the key to dispatch on
      * @param function retrieve a key from the final data type
      * @param keys the set of possible key values
@@ -294,6 +304,7 @@ public <Mu extends K1> DataResult<App<Mu, E>> interpret(Interpreter<Mu> interpre
     /**
      * Creates a structure representing a map where the structure of a value is dependent on the key. The key must have a
      * finite set of possible values. The current structure becomes the structure of the key field. Analogous to {@link Codec#dispatchedMap(Codec, Function)}.
+     * How interpreters cache the representations of the structures dispatched to may be chosen with a {@link DispatchCache}.
      * @param keys the set of possible key values
      * @param structures converts keys into structures
      * @return a new structure representing the map type
@@ -333,14 +344,30 @@ public <Mu extends K1> DataResult<App<Mu, Map<A, V>>> interpret(Interpreter<Mu>
      * @param <A> the type of data the structure represents
      */
     static <A> Structure<A> lazyInitialized(Supplier<Structure<A>> supplier) {
+        var memoized = Suppliers.memoize(supplier::get);
         return new Structure<>() {
             @Override
             public <Mu extends K1> DataResult<App<Mu, A>> interpret(Interpreter<Mu> interpreter) {
-                return supplier.get().interpret(interpreter);
+                return interpreter.interpretStructure(memoized.get());
             }
         };
     }
 
+    /**
+     * Creates a structure which may refer to itself, such as a tree whose nodes contain further nodes. Analogous to
+     * {@link Codec#recursive(String, Function)}; unlike referring to a structure through
+     * {@link #lazyInitialized(Supplier)}, the body is only interpreted once per interpreter, with references to the
+     * structure within it interpreted to a representation, such as a codec or a schema {@code $ref}, which forwards to
+     * the result.
+     * @param name the name of the structure, used for instance to name its schema definition
+     * @param function creates the body of the structure, given a structure that refers to the result
+     * @return a new structure
+     * @param <A> the type of data the structure represents
+     */
+    static <A> Structure<A> recursive(String name, Function<Structure<A>, Structure<A>> function) {
+        return new RecursiveStructure<>(name, function);
+    }
+
     /**
      * Keys provide a way of representing the smallest building blocks of a structure. Interpreters are responsible for
      * finding a matching specific representation given a key when interpreting a structure.
@@ -372,7 +399,7 @@ static <A> Structure<A> keyed(Key<A> key, Structure<A> fallback) {
             public <Mu extends K1> DataResult<App<Mu, A>> interpret(Interpreter<Mu> interpreter) {
                 var result = interpreter.keyed(key);
                 if (result.error().isPresent()) {
-                    return fallback.interpret(interpreter).mapError(s -> "Could not interpret keyed structure: "+s+"; "+result.error().orElseThrow().message());
+                    return interpreter.interpretStructure(fallback).mapError(s -> "Could not interpret keyed structure: "+s+"; "+result.error().orElseThrow().message());
                 }
                 return result;
             }
@@ -425,7 +452,7 @@ public <Mu extends K1> DataResult<App<Mu, A>> interpret(Interpreter<Mu> interpre
                     .map(DataResult::success)
                     .orElseGet(() -> interpreter.keyed(key));
                 if (result.error().isPresent()) {
-                    return fallback.interpret(interpreter).mapError(s -> "Could not interpret keyed structure: "+s+"; "+result.error().orElseThrow().message());
+                    return interpreter.interpretStructure(fallback).mapError(s -> "Could not interpret keyed structure: "+s+"; "+result.error().orElseThrow().message());
                 }
                 return result;
             }
@@ -479,7 +506,7 @@ public <Mu extends K1> DataResult<App<Mu, A>> interpret(Interpreter<Mu> interpre
                         interpreter.flatXmap(app, a -> DataResult.success(unboxer.apply(a)), DataResult::success)
                 );
                 if (result.error().isPresent()) {
-                    return fallback.interpret(interpreter).mapError(s -> "Could not interpret parametrically keyed structure: "+s+"; "+result.error().orElseThrow().message());
+                    return interpreter.interpretStructure(fallback).mapError(s -> "Could not interpret parametrically keyed structure: "+s+"; "+result.error().orElseThrow().message());
                 }
                 return result;
             }
@@ -550,7 +577,7 @@ public <Mu extends K1> DataResult<App<Mu, A>> interpret(Interpreter<Mu> interpre
                         interpreter.flatXmap(app, a -> DataResult.success(unboxer.apply(a)), DataResult::success)
                     ));
                 if (result.error().isPresent()) {
-                    return fallback.interpret(interpreter).mapError(s -> "Could not interpret parametrically keyed structure: "+s+"; "+result.error().orElseThrow().message());
+                    return interpreter.interpretStructure(fallback).mapError(s -> "Could not interpret parametrically keyed structure: "+s+"; "+result.error().orElseThrow().message());
                 }
                 return result;
             }
@@ -675,8 +702,7 @@ static <A> Structure<A> record(RecordStructure.Builder<A> builder) {
      * @param max the maximum value (inclusive)
      */
     static Structure<Integer> intInRange(int min, int max) {
-        return Structure.parametricallyKeyed(Interpreter.INT_IN_RANGE, Const.create(new Range<>(min, max)), app -> (Const<Integer, Object>) app)
-                .xmap(Const::unbox, Const::create);
+        return new RangeStructure<>(Interpreter.INT_IN_RANGE, new Range<>(min, max));
     }
 
     /**
@@ -685,8 +711,7 @@ static Structure<Integer> intInRange(int min, int max) {
      * @param max the maximum value (inclusive)
      */
     static Structure<Byte> byteInRange(byte min, byte max) {
-        return Structure.parametricallyKeyed(Interpreter.BYTE_IN_RANGE, Const.create(new Range<>(min, max)), app -> (Const<Byte, Object>) app)
-                .xmap(Const::unbox, Const::create);
+        return new RangeStructure<>(Interpreter.BYTE_IN_RANGE, new Range<>(min, max));
     }
 
     /**
@@ -695,8 +720,7 @@ static Structure<Byte> byteInRange(byte min, byte max) {
      * @param max the maximum value (inclusive)
      */
     static Structure<Short> shortInRange(short min, short max) {
-        return Structure.parametricallyKeyed(Interpreter.SHORT_IN_RANGE, Const.create(new Range<>(min, max)), app -> (Const<Short, Object>) app)
-                .xmap(Const::unbox, Const::create);
+        return new RangeStructure<>(Interpreter.SHORT_IN_RANGE, new Range<>(min, max));
     }
 
     /**
@@ -705,8 +729,7 @@ static Structure<Short> shortInRange(short min, short max) {
      * @param max the maximum value (inclusive)
      */
     static Structure<Long> longInRange(long min, long max) {
-        return Structure.parametricallyKeyed(Interpreter.LONG_IN_RANGE, Const.create(new Range<>(min, max)), app -> (Const<Long, Object>) app)
-                .xmap(Const::unbox, Const::create);
+        return new RangeStructure<>(Interpreter.LONG_IN_RANGE, new Range<>(min, max));
     }
 
     /**
@@ -715,8 +738,7 @@ static Structure<Long> longInRange(long min, long max) {
      * @param max the maximum value (inclusive)
      */
     static Structure<Float> floatInRange(float min, float max) {
-        return Structure.parametricallyKeyed(Interpreter.FLOAT_IN_RANGE, Const.create(new Range<>(min, max)), app -> (Const<Float, Object>) app)
-                .xmap(Const::unbox, Const::create);
+        return new RangeStructure<>(Interpreter.FLOAT_IN_RANGE, new Range<>(min, max));
     }
 
     /**
@@ -725,8 +747,7 @@ static Structure<Float> floatInRange(float min, float max) {
      * @param max the maximum value (inclusive)
      */
     static Structure<Double> doubleInRange(double min, double max) {
-        return Structure.parametricallyKeyed(Interpreter.DOUBLE_IN_RANGE, Const.create(new Range<>(min, max)), app -> (Const<Double, Object>) app)
-                .xmap(Const::unbox, Const::create);
+        return new RangeStructure<>(Interpreter.DOUBLE_IN_RANGE, new Range<>(min, max));
     }
 
     /**
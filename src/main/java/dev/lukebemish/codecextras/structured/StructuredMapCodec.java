@@ -10,6 +10,7 @@
 import com.mojang.serialization.MapLike;
 import com.mojang.serialization.RecordBuilder;
 import dev.lukebemish.codecextras.comments.CommentMapCodec;
+import dev.lukebemish.codecextras.record.IndexedMapLike;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -43,7 +44,7 @@ public static <A, Mu extends K1> DataResult<MapCodec<A>> of(List<RecordStructure
     }
 
     private static <A, F, Mu extends K1> @Nullable DataResult<MapCodec<A>> recordSingleField(RecordStructure.Field<A, F> field, ArrayList<StructuredMapCodec.Field<A, ?>> mapCodecFields, Interpreter<Mu> interpreter, Unboxer<Mu> unboxer) {
-        var result = field.structure().interpret(interpreter);
+        var result = interpreter.interpretStructure(field.structure());
         if (result.error().isPresent()) {
             return DataResult.error(result.error().orElseThrow().messageSupplier());
         }
@@ -70,28 +71,26 @@ public <T> Stream<T> keys(DynamicOps<T> ops) {
 
     @Override
     public <T> DataResult<A> decode(DynamicOps<T> ops, MapLike<T> input) {
-        var builder = RecordStructure.Container.builder();
+        input = IndexedMapLike.forFields(ops, input, fields.size());
+        var builder = RecordStructure.Container.builder(fields.size());
         boolean isPartial = false;
-        boolean isError = false;
         Lifecycle errorLifecycle = Lifecycle.stable();
-        Supplier<String> errorMessage = null;
+        List<DataResult.Error<?>> errors = null;
         for (var field : fields) {
             DataResult<?> result = singleField(ops, input, field, builder);
-            if (result.isError()) {
-                if (result.hasResultOrPartial()) {
+            if (result instanceof DataResult.Error<?> error) {
+                if (error.partialValue().isPresent()) {
                     isPartial = true;
                 }
-                isError = true;
-                errorLifecycle = errorLifecycle.add(result.lifecycle());
-                if (errorMessage == null) {
-                    errorMessage = result.error().orElseThrow().messageSupplier();
-                } else {
-                    var oldMessage = errorMessage;
-                    errorMessage = () -> oldMessage.get() + ": " + result.error().orElseThrow().messageSupplier().get();
+                errorLifecycle = errorLifecycle.add(error.lifecycle());
+                if (errors == null) {
+                    errors = new ArrayList<>(fields.size());
                 }
+                errors.add(error);
             }
         }
-        if (isError) {
+        if (errors != null) {
+            var errorMessage = errorMessage(errors);
             if (isPartial) {
                 return DataResult.error(errorMessage, creator.apply(builder.build()), errorLifecycle);
             } else {
@@ -102,6 +101,23 @@ public <T> DataResult<A> decode(DynamicOps<T> ops, MapLike<T> input) {
         }
     }
 
+    private static Supplier<String> errorMessage(List<DataResult.Error<?>> errors) {
+        if (errors.size() == 1) {
+            return errors.getFirst().messageSupplier();
+        }
+        // Messages are only assembled if asked for, as lenient decoding may discard them entirely
+        return () -> {
+            var message = new StringBuilder();
+            for (var error : errors) {
+                if (!message.isEmpty()) {
+                    message.append(": ");
+                }
+                message.append(error.message());
+            }
+            return message.toString();
+        };
+    }
+
     private static <A, T, F> DataResult<F> singleField(DynamicOps<T> ops, MapLike<T> input, Field<A, F> field, RecordStructure.Container.Builder builder) {
         var key = field.key();
         var codec = field.codec();
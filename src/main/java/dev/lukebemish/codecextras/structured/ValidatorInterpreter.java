@@ -0,0 +1,580 @@
+package dev.lukebemish.codecextras.structured;
+
+import com.google.common.base.Suppliers;
+import com.mojang.datafixers.kinds.App;
+import com.mojang.datafixers.kinds.Const;
+import com.mojang.datafixers.kinds.K1;
+import com.mojang.datafixers.util.Either;
+import com.mojang.datafixers.util.Unit;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.DynamicOps;
+import dev.lukebemish.codecextras.StringRepresentation;
+import dev.lukebemish.codecextras.types.Identity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Interprets a {@link Structure} into a {@link Validator}, which checks whether serialized data matches the structure
+ * without decoding it. Types, ranges, string representations, record fields, lists, maps and alternatives are checked
+ * directly against the {@link DynamicOps} input, so validating data does not construct the values it represents.
+ * <p>
+ * Some structures can only be checked against a decoded value: mappings that may fail, such as those created by
+ * {@link Structure#flatXmap(Function, Function)} or {@link Structure#bounded(Supplier)}, and the keys of dispatched
+ * structures. For those parts alone, the validator decodes the data with a codec from the {@link CodecInterpreter}
+ * provided, so a validator accepts exactly the data that codec would decode without error.
+ * @see #interpret(Structure)
+ */
+public class ValidatorInterpreter extends KeyStoringInterpreter<ValidatorInterpreter.Holder.Mu, ValidatorInterpreter> {
+    private static final DataResult<Unit> VALID = DataResult.success(Unit.INSTANCE);
+
+    private final CodecInterpreter codecInterpreter;
+
+    public ValidatorInterpreter(
+        Keys<Holder.Mu, Object> keys,
+        Keys2<ParametricKeyedValue.Mu<Holder.Mu>, K1, K1> parametricKeys,
+        CodecInterpreter codecInterpreter
+    ) {
+        super(keys.join(Keys.<Holder.Mu, Object>builder()
+            .add(Interpreter.UNIT, new Holder<>(ANY))
+            .add(Interpreter.BOOL, new Holder<>(new Validator() {
+                @Override
+                public <T> DataResult<Unit> validate(DynamicOps<T> ops, T input) {
+                    return check(ops.getBooleanValue(input));
+                }
+            }))
+            .add(Interpreter.BYTE, new Holder<>(NUMBER))
+            .add(Interpreter.SHORT, new Holder<>(NUMBER))
+            .add(Interpreter.INT, new Holder<>(NUMBER))
+            .add(Interpreter.LONG, new Holder<>(NUMBER))
+            .add(Interpreter.FLOAT, new Holder<>(NUMBER))
+            .add(Interpreter.DOUBLE, new Holder<>(NUMBER))
+            .add(Interpreter.STRING, new Holder<>(new Validator() {
+                @Override
+                public <T> DataResult<Unit> validate(DynamicOps<T> ops, T input) {
+                    return check(ops.getStringValue(input));
+                }
+            }))
+            .add(Interpreter.PASSTHROUGH, new Holder<>(ANY))
+            .build()
+        ), parametricKeys.join(Keys2.<ParametricKeyedValue.Mu<Holder.Mu>, K1, K1>builder()
+            .add(Interpreter.INT_IN_RANGE, integralRange(Number::intValue))
+            .add(Interpreter.BYTE_IN_RANGE, integralRange(Number::byteValue))
+            .add(Interpreter.SHORT_IN_RANGE, integralRange(Number::shortValue))
+            .add(Interpreter.LONG_IN_RANGE, integralRange(Number::longValue))
+            .add(Interpreter.FLOAT_IN_RANGE, floatingRange(Number::floatValue))
+            .add(Interpreter.DOUBLE_IN_RANGE, floatingRange(Number::doubleValue))
+            .add(Interpreter.STRING_REPRESENTABLE, new ParametricKeyedValue<>() {
+                @Override
+                public <T> App<Holder.Mu, App<Identity.Mu, T>> convert(App<StringRepresentation.Mu, T> parameter) {
+                    var representation = StringRepresentation.unbox(parameter);
+                    return new Holder<>(new Validator() {
+                        @Override
+                        public <O> DataResult<Unit> validate(DynamicOps<O> ops, O input) {
+                            var string = ops.getStringValue(input);
+                            if (string.error().isPresent()) {
+                                return DataResult.error(string.error().get().messageSupplier());
+                            }
+                            var value = string.result().orElseThrow();
+                            if (representation.inverse().apply(value) == null) {
+                                return DataResult.error(() -> "Unknown string representation value: " + value);
+                            }
+                            return VALID;
+                        }
+                    });
+                }
+            })
+            .build()
+        ));
+        this.codecInterpreter = codecInterpreter;
+    }
+
+    public ValidatorInterpreter() {
+        this(
+            Keys.<Holder.Mu, Object>builder().build(),
+            Keys2.<ParametricKeyedValue.Mu<Holder.Mu>, K1, K1>builder().build(),
+            CodecInterpreter.create()
+        );
+    }
+
+    @Override
+    public ValidatorInterpreter with(Keys<Holder.Mu, Object> keys, Keys2<ParametricKeyedValue.Mu<Holder.Mu>, K1, K1> parametricKeys) {
+        return new ValidatorInterpreter(
+            keys().join(keys),
+            parametricKeys().join(parametricKeys),
+            this.codecInterpreter
+        );
+    }
+
+    private static final Validator ANY = new Validator() {
+        @Override
+        public <T> DataResult<Unit> validate(DynamicOps<T> ops, T input) {
+            return VALID;
+        }
+    };
+
+    private static final Validator NUMBER = new Validator() {
+        @Override
+        public <T> DataResult<Unit> validate(DynamicOps<T> ops, T input) {
+            return check(ops.getNumberValue(input));
+        }
+    };
+
+    private static <N extends Number & Comparable<N>> ParametricKeyedValue<Holder.Mu, Const.Mu<Range<N>>, Const.Mu<N>> integralRange(ToLongFunction<Number> narrow) {
+        return new ParametricKeyedValue<>() {
+            @Override
+            public <T> App<Holder.Mu, App<Const.Mu<N>, T>> convert(App<Const.Mu<Range<N>>, T> parameter) {
+                var range = Const.unbox(parameter);
+                long min = range.min().longValue();
+                long max = range.max().longValue();
+                return new Holder<>(new Validator() {
+                    @Override
+                    public <O> DataResult<Unit> validate(DynamicOps<O> ops, O input) {
+                        var number = ops.getNumberValue(input);
+                        if (!(number instanceof DataResult.Success<Number> success)) {
+                            return check(number);
+                        }
+                        long value = narrow.applyAsLong(success.value());
+                        if (value < min || value > max) {
+                            return DataResult.error(() -> "Value " + value + " outside of range [" + range.min() + ":" + range.max() + "]");
+                        }
+                        return VALID;
+                    }
+                });
+            }
+        };
+    }
+
+    private static <N extends Number & Comparable<N>> ParametricKeyedValue<Holder.Mu, Const.Mu<Range<N>>, Const.Mu<N>> floatingRange(ToDoubleFunction<Number> narrow) {
+        return new ParametricKeyedValue<>() {
+            @Override
+            public <T> App<Holder.Mu, App<Const.Mu<N>, T>> convert(App<Const.Mu<Range<N>>, T> parameter) {
+                var range = Const.unbox(parameter);
+                double min = range.min().doubleValue();
+                double max = range.max().doubleValue();
+                return new Holder<>(new Validator() {
+                    @Override
+                    public <O> DataResult<Unit> validate(DynamicOps<O> ops, O input) {
+                        var number = ops.getNumberValue(input);
+                        if (!(number instanceof DataResult.Success<Number> success)) {
+                            return check(number);
+                        }
+                        double value = narrow.applyAsDouble(success.value());
+                        // Compared as Double#compareTo would, so NaN is never in range
+                        if (Double.compare(value, min) < 0 || Double.compare(value, max) > 0) {
+                            // Narrowed values are reported as the type of the range, as the codec would report them
+                            String shown = range.min() instanceof Float ? Float.toString((float) value) : Double.toString(value);
+                            return DataResult.error(() -> "Value " + shown + " outside of range [" + range.min() + ":" + range.max() + "]");
+                        }
+                        return VALID;
+                    }
+                });
+            }
+        };
+    }
+
+    private static DataResult<Unit> check(DataResult<?> result) {
+        if (result instanceof DataResult.Error<?> error) {
+            return DataResult.error(error.messageSupplier());
+        }
+        return VALID;
+    }
+
+    @Override
+    public <A> DataResult<App<Holder.Mu, A>> keyed(Key<A> key) {
+        var result = super.keyed(key);
+        if (result.isSuccess()) {
+            return result.map(app -> Holder.unbox(app).withCodec(() -> codecInterpreter.keyed(key)));
+        }
+        // Keys only known to the codec interpreter are validated by decoding
+        var codec = codecInterpreter.keyed(key);
+        return codec.isSuccess() ? DataResult.success(decoding(() -> codec)) : result;
+    }
+
+    @Override
+    public <MuO extends K1, MuP extends K1, T> DataResult<App<Holder.Mu, App<MuO, T>>> parametricallyKeyed(Key2<MuP, MuO> key, App<MuP, T> parameter) {
+        var result = super.parametricallyKeyed(key, parameter);
+        if (result.isSuccess()) {
+            return result.map(app -> Holder.unbox(app).withCodec(() -> codecInterpreter.parametricallyKeyed(key, parameter)));
+        }
+        var codec = codecInterpreter.parametricallyKeyed(key, parameter);
+        return codec.isSuccess() ? DataResult.success(decoding(() -> codec)) : result;
+    }
+
+    @Override
+    public <A> DataResult<App<Holder.Mu, List<A>>> list(App<Holder.Mu, A> single) {
+        var element = Holder.unbox(single).validator();
+        return DataResult.success(new Holder<>(new Validator() {
+            @Override
+            public <T> DataResult<Unit> validate(DynamicOps<T> ops, T input) {
+                var list = ops.getList(input);
+                if (list.error().isPresent()) {
+                    return DataResult.error(list.error().get().messageSupplier());
+                }
+                var errors = new Errors();
+                list.result().orElseThrow().accept(value -> errors.add(element.validate(ops, value)));
+                return errors.result();
+            }
+        }, () -> codec(single).flatMap(codecInterpreter::list)));
+    }
+
+    @Override
+    public <A> DataResult<App<Holder.Mu, A>> record(List<RecordStructure.Field<A, ?>> fields, Function<RecordStructure.Container, A> creator) {
+        var validatorFields = new ArrayList<Field>(fields.size());
+        for (var field : fields) {
+            var result = interpretStructure(field.structure());
+            if (result.error().isPresent()) {
+                return DataResult.error(result.error().get().messageSupplier());
+            }
+            boolean optional = field.missingBehavior().isPresent();
+            boolean lenient = optional && Annotation.get(field.structure().annotations(), Annotation.LENIENT).isPresent();
+            validatorFields.add(new Field(field.name(), Holder.unbox(result.result().orElseThrow()).validator(), optional, lenient));
+        }
+        return DataResult.success(new Holder<>(new Validator() {
+            @Override
+            public <T> DataResult<Unit> validate(DynamicOps<T> ops, T input) {
+                var map = ops.getMap(input);
+                if (map.error().isPresent()) {
+                    return DataResult.error(map.error().get().messageSupplier());
+                }
+                var mapLike = map.result().orElseThrow();
+                var errors = new Errors();
+                for (var field : validatorFields) {
+                    var value = mapLike.get(field.name());
+                    if (value == null) {
+                        if (!field.optional()) {
+                            errors.add(DataResult.error(() -> "No key " + field.name() + " in " + mapLike));
+                        }
+                    } else {
+                        var result = field.validator().validate(ops, value);
+                        if (!field.lenient()) {
+                            errors.add(result);
+                        }
+                    }
+                }
+                return errors.result();
+            }
+        }, () -> codecInterpreter.record(fields, creator)));
+    }
+
+    private record Field(String name, Validator validator, boolean optional, boolean lenient) {}
+
+    @Override
+    public <A, B> DataResult<App<Holder.Mu, B>> flatXmap(App<Holder.Mu, A> input, Function<A, DataResult<B>> to, Function<B, DataResult<A>> from) {
+        // A mapping that may fail can only be checked against the decoded value
+        Supplier<DataResult<App<CodecInterpreter.Holder.Mu, B>>> codec = () -> codec(input).flatMap(c -> codecInterpreter.flatXmap(c, to, from));
+        return DataResult.success(decoding(codec));
+    }
+
+    @Override
+    public <A, B> DataResult<App<Holder.Mu, B>> xmap(App<Holder.Mu, A> input, Function<A, B> to, Function<B, A> from) {
+        return DataResult.success(new Holder<>(Holder.unbox(input).validator(), () -> codec(input).flatMap(c -> codecInterpreter.xmap(c, to, from))));
+    }
+
+    @Override
+    public <A> DataResult<App<Holder.Mu, A>> bounded(Structure<A> input, Supplier<Set<A>> values) {
+        return DataResult.success(decoding(() -> codecInterpreter.bounded(input, values)));
+    }
+
+    @Override
+    public <A> DataResult<App<Holder.Mu, A>> annotate(Structure<A> original, Keys<Identity.Mu, Object> annotations) {
+        return interpretStructure(original).map(app -> new Holder<>(Holder.unbox(app).validator(), () -> codecInterpreter.annotate(original, annotations)));
+    }
+
+    @Override
+    public <E, A> DataResult<App<Holder.Mu, E>> dispatch(String key, Structure<A> keyStructure, Function<? super E, ? extends DataResult<A>> function, Supplier<Set<A>> keys, Function<A, DataResult<Structure<? extends E>>> structures) {
+        return codecInterpreter.interpret(keyStructure).map(keyCodec -> {
+            Function<A, DataResult<Validator>> cache = cache(keys, structures);
+            var table = StringKeyTable.of(keyCodec, keys);
+            return new Holder<>(new Validator() {
+                @Override
+                public <T> DataResult<Unit> validate(DynamicOps<T> ops, T input) {
+                    var map = ops.getMap(input);
+                    if (map.error().isPresent()) {
+                        return DataResult.error(map.error().get().messageSupplier());
+                    }
+                    var keyValue = map.result().orElseThrow().get(key);
+                    if (keyValue == null) {
+                        return DataResult.error(() -> "Input does not contain a key [" + key + "]: " + input);
+                    }
+                    var validator = find(table, keyCodec, cache, ops, keyValue);
+                    if (validator.error().isPresent()) {
+                        return DataResult.error(validator.error().get().messageSupplier());
+                    }
+                    // The fields of the dispatched structure are read from the same map as the key
+                    return validator.result().orElseThrow().validate(ops, input);
+                }
+            }, () -> codecInterpreter.dispatch(key, keyStructure, function, keys, structures));
+        });
+    }
+
+    @Override
+    public <K, V> DataResult<App<Holder.Mu, Map<K, V>>> dispatchedMap(Structure<K> keyStructure, Supplier<Set<K>> keys, Function<K, DataResult<Structure<? extends V>>> valueStructures) {
+        return codecInterpreter.interpret(keyStructure).map(keyCodec -> {
+            Function<K, DataResult<Validator>> cache = cache(keys, valueStructures);
+            var table = StringKeyTable.of(keyCodec, keys);
+            return new Holder<>(new Validator() {
+                @Override
+                public <T> DataResult<Unit> validate(DynamicOps<T> ops, T input) {
+                    var entries = ops.getMapEntries(input);
+                    if (entries.error().isPresent()) {
+                        return DataResult.error(entries.error().get().messageSupplier());
+                    }
+                    var errors = new Errors();
+                    entries.result().orElseThrow().accept((entryKey, entryValue) -> {
+                        var validator = find(table, keyCodec, cache, ops, entryKey);
+                        if (validator.error().isPresent()) {
+                            errors.add(validator);
+                        } else {
+                            errors.add(validator.result().orElseThrow().validate(ops, entryValue));
+                        }
+                    });
+                    return errors.result();
+                }
+            }, () -> codecInterpreter.dispatchedMap(keyStructure, keys, valueStructures));
+        });
+    }
+
+    private static <K, T> DataResult<Validator> find(@Nullable StringKeyTable<K> table, Codec<K> keyCodec, Function<K, DataResult<Validator>> cache, DynamicOps<T> ops, T serializedKey) {
+        // Keys found by their string need not be decoded
+        var key = table == null ? null : table.find(ops, serializedKey);
+        return key != null ? cache.apply(key) : keyCodec.parse(ops, serializedKey).flatMap(cache);
+    }
+
+    private <K> Function<K, DataResult<Validator>> cache(Supplier<Set<K>> keys, Function<K, ? extends DataResult<? extends Structure<?>>> structures) {
+        // Validators may run on several threads at once, so sub-validators are cached concurrently
+        return DispatchCache.cache(keys, key -> structures.apply(key).flatMap(structure -> interpretStructure(structure).map(app -> Holder.unbox(app).validator())));
+    }
+
+    @Override
+    public <K, V> DataResult<App<Holder.Mu, Map<K, V>>> unboundedMap(App<Holder.Mu, K> key, App<Holder.Mu, V> value) {
+        var keyValidator = Holder.unbox(key).validator();
+        var valueValidator = Holder.unbox(value).validator();
+        return DataResult.success(new Holder<>(new Validator() {
+            @Override
+            public <T> DataResult<Unit> validate(DynamicOps<T> ops, T input) {
+                var entries = ops.getMapEntries(input);
+                if (entries.error().isPresent()) {
+                    return DataResult.error(entries.error().get().messageSupplier());
+                }
+                var errors = new Errors();
+                entries.result().orElseThrow().accept((entryKey, entryValue) -> {
+                    errors.add(keyValidator.validate(ops, entryKey));
+                    errors.add(valueValidator.validate(ops, entryValue));
+                });
+                return errors.result();
+            }
+        }, () -> codec(key).flatMap(k -> codec(value).flatMap(v -> codecInterpreter.unboundedMap(k, v)))));
+    }
+
+    @Override
+    public <L, R> DataResult<App<Holder.Mu, Either<L, R>>> either(App<Holder.Mu, L> left, App<Holder.Mu, R> right) {
+        var leftValidator = Holder.unbox(left).validator();
+        var rightValidator = Holder.unbox(right).validator();
+        return DataResult.success(new Holder<>(new Validator() {
+            @Override
+            public <T> DataResult<Unit> validate(DynamicOps<T> ops, T input) {
+                var leftResult = leftValidator.validate(ops, input);
+                if (leftResult.isSuccess()) {
+                    return leftResult;
+                }
+                var rightResult = rightValidator.validate(ops, input);
+                if (rightResult.isSuccess()) {
+                    return rightResult;
+                }
+                return DataResult.error(() -> "Failed to parse either. First: " + leftResult.error().orElseThrow().message() + "; Second: " + rightResult.error().orElseThrow().message());
+            }
+        }, () -> codec(left).flatMap(l -> codec(right).flatMap(r -> codecInterpreter.either(l, r)))));
+    }
+
+    @Override
+    public <L, R> DataResult<App<Holder.Mu, Either<L, R>>> xor(App<Holder.Mu, L> left, App<Holder.Mu, R> right) {
+        var leftValidator = Holder.unbox(left).validator();
+        var rightValidator = Holder.unbox(right).validator();
+        return DataResult.success(new Holder<>(new Validator() {
+            @Override
+            public <T> DataResult<Unit> validate(DynamicOps<T> ops, T input) {
+                var leftResult = leftValidator.validate(ops, input);
+                var rightResult = rightValidator.validate(ops, input);
+                if (leftResult.isSuccess() && rightResult.isSuccess()) {
+                    return DataResult.error(() -> "Both alternatives read successfully, can not pick the correct one");
+                } else if (leftResult.isSuccess() || rightResult.isSuccess()) {
+                    return VALID;
+                }
+                return DataResult.error(() -> "Failed to parse either. First: " + leftResult.error().orElseThrow().message() + "; Second: " + rightResult.error().orElseThrow().message());
+            }
+        }, () -> codec(left).flatMap(l -> codec(right).flatMap(r -> codecInterpreter.xor(l, r)))));
+    }
+
+    @Override
+    public <A> DataResult<App<Holder.Mu, A>> recursive(String name, Function<App<Holder.Mu, A>, DataResult<App<Holder.Mu, A>>> body) {
+        var recursive = new RecursiveValidator<A>();
+        // The codec of the bound holder is created by the codec of the placeholder, so must only be resolved when used
+        Supplier<DataResult<App<CodecInterpreter.Holder.Mu, A>>> codec = () -> DataResult.success(new CodecInterpreter.Holder<>(
+            Codec.lazyInitialized(() -> CodecInterpreter.unbox(recursive.bound().codec.get().getOrThrow()))
+        ));
+        return body.apply(new Holder<>(recursive, codec)).map(result -> {
+            recursive.holder = Holder.unbox(result);
+            return result;
+        });
+    }
+
+    private static final class RecursiveValidator<A> implements Validator {
+        private volatile @Nullable Holder<A> holder;
+
+        private Holder<A> bound() {
+            var holder = this.holder;
+            if (holder == null) {
+                throw new IllegalStateException("Recursive validator was not bound");
+            }
+            return holder;
+        }
+
+        @Override
+        public <T> DataResult<Unit> validate(DynamicOps<T> ops, T input) {
+            var holder = this.holder;
+            if (holder == null) {
+                return DataResult.error(() -> "Recursive validator was not bound");
+            }
+            return holder.validator().validate(ops, input);
+        }
+    }
+
+    private static <A> DataResult<App<CodecInterpreter.Holder.Mu, A>> codec(App<Holder.Mu, A> box) {
+        return Holder.unbox(box).codec.get();
+    }
+
+    private static <A> Holder<A> decoding(Supplier<DataResult<App<CodecInterpreter.Holder.Mu, A>>> codecSupplier) {
+        var holder = new Holder<A>(ANY, codecSupplier);
+        var codec = holder.codec;
+        return new Holder<>(new Validator() {
+            @Override
+            public <T> DataResult<Unit> validate(DynamicOps<T> ops, T input) {
+                var result = codec.get();
+                if (result.error().isPresent()) {
+                    return DataResult.error(result.error().get().messageSupplier());
+                }
+                return check(CodecInterpreter.unbox(result.result().orElseThrow()).decode(ops, input));
+            }
+        }, codec);
+    }
+
+    /**
+     * Collects the errors of the parts of a value, only assembling a message if there were any.
+     */
+    private static final class Errors {
+        private @Nullable List<Supplier<String>> messages;
+
+        void add(DataResult<?> result) {
+            if (result instanceof DataResult.Error<?> error) {
+                if (messages == null) {
+                    messages = new ArrayList<>();
+                }
+                messages.add(error.messageSupplier());
+            }
+        }
+
+        DataResult<Unit> result() {
+            var messages = this.messages;
+            if (messages == null) {
+                return VALID;
+            }
+            return DataResult.error(() -> {
+                var builder = new StringBuilder();
+                for (var message : messages) {
+                    if (!builder.isEmpty()) {
+                        builder.append("; ");
+                    }
+                    builder.append(message.get());
+                }
+                return builder.toString();
+            });
+        }
+    }
+
+    /**
+     * {@return a validator for the given structure, or an error if one could not be created}
+     * @param structure the structure to interpret
+     */
+    public DataResult<Validator> interpret(Structure<?> structure) {
+        return interpretStructure(structure).map(app -> Holder.unbox(app).validator());
+    }
+
+    public static final Key<Holder.Mu> KEY = Key.create("ValidatorInterpreter");
+
+    @Override
+    public Stream<KeyConsumer<?, Holder.Mu>> keyConsumers() {
+        return Stream.of(
+            new KeyConsumer<Holder.Mu, Holder.Mu>() {
+                @Override
+                public Key<Holder.Mu> key() {
+                    return KEY;
+                }
+
+                @Override
+                public <T> App<Holder.Mu, T> convert(App<Holder.Mu, T> input) {
+                    return input;
+                }
+            }
+        );
+    }
+
+    /**
+     * Checks whether serialized data matches a structure.
+     */
+    public interface Validator {
+        /**
+         * {@return a successful result if the input matches the structure, or an error describing why it does not}
+         * @param ops the ops for the serialized data
+         * @param input the serialized data
+         * @param <T> the type of the serialized data
+         */
+        <T> DataResult<Unit> validate(DynamicOps<T> ops, T input);
+    }
+
+    /**
+     * Holds the validator for a structure. Holders created by the interpreter also know how to create a codec for the
+     * structure, for the parts of a structure that must be decoded to be validated; a holder provided for a key by
+     * {@link #with(Keys, Keys2)} is given its codec from the {@link CodecInterpreter} when the key is interpreted.
+     * @param <T> the type of data the structure represents
+     */
+    public static final class Holder<T> implements App<Holder.Mu, T> {
+        private final Validator validator;
+        private final Supplier<DataResult<App<CodecInterpreter.Holder.Mu, T>>> codec;
+
+        public Holder(Validator validator) {
+            this(validator, () -> DataResult.error(() -> "No codec available for a provided validator"));
+        }
+
+        private Holder(Validator validator, Supplier<DataResult<App<CodecInterpreter.Holder.Mu, T>>> codec) {
+            this.validator = validator;
+            // Codecs are only created for the parts of a structure that need them, and only once
+            this.codec = Suppliers.memoize(codec::get);
+        }
+
+        /**
+         * {@return the validator for the structure}
+         */
+        public Validator validator() {
+            return validator;
+        }
+
+        private Holder<T> withCodec(Supplier<DataResult<App<CodecInterpreter.Holder.Mu, T>>> codec) {
+            return new Holder<>(validator, codec);
+        }
+
+        public static final class Mu implements K1 { private Mu() {} }
+
+        public static <T> Holder<T> unbox(App<Holder.Mu, T> box) {
+            return (Holder<T>) box;
+        }
+    }
+}
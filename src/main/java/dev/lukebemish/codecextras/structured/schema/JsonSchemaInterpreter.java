@@ -4,10 +4,13 @@
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
 import com.mojang.datafixers.kinds.App;
 import com.mojang.datafixers.kinds.Const;
 import com.mojang.datafixers.kinds.K1;
 import com.mojang.datafixers.util.Either;
+import com.mojang.datafixers.util.Pair;
+import com.mojang.datafixers.util.Unit;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.DynamicOps;
 import com.mojang.serialization.JsonOps;
@@ -24,6 +27,7 @@
 import dev.lukebemish.codecextras.structured.RecordStructure;
 import dev.lukebemish.codecextras.structured.Structure;
 import dev.lukebemish.codecextras.types.Identity;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -43,12 +47,23 @@
 public class JsonSchemaInterpreter extends KeyStoringInterpreter<JsonSchemaInterpreter.Holder.Mu, JsonSchemaInterpreter> {
     private final CodecInterpreter codecInterpreter;
     private final DynamicOps<JsonElement> ops;
+    private final boolean deduplicate;
 
     public JsonSchemaInterpreter(
         Keys<Holder.Mu, Object> keys,
         Keys2<ParametricKeyedValue.Mu<Holder.Mu>, K1, K1> parametricKeys,
         CodecInterpreter codecInterpreter,
         DynamicOps<JsonElement> ops
+    ) {
+        this(keys, parametricKeys, codecInterpreter, ops, false);
+    }
+
+    private JsonSchemaInterpreter(
+        Keys<Holder.Mu, Object> keys,
+        Keys2<ParametricKeyedValue.Mu<Holder.Mu>, K1, K1> parametricKeys,
+        CodecInterpreter codecInterpreter,
+        DynamicOps<JsonElement> ops,
+        boolean deduplicate
     ) {
         super(keys.join(Keys.<Holder.Mu, Object>builder()
             .add(Interpreter.UNIT, new Holder<>(OBJECT.get()))
@@ -98,6 +113,7 @@ public <T> App<Holder.Mu, App<Identity.Mu, T>> convert(App<StringRepresentation.
         ));
         this.codecInterpreter = codecInterpreter;
         this.ops = ops;
+        this.deduplicate = deduplicate;
     }
 
     private static <N extends Number & Comparable<N>> ParametricKeyedValue<JsonSchemaInterpreter.Holder.Mu, Const.Mu<Range<N>>, Const.Mu<N>> numberInRange(Supplier<JsonObject> base) {
@@ -118,10 +134,21 @@ public JsonSchemaInterpreter with(Keys<Holder.Mu, Object> keys, Keys2<Parametric
         return new JsonSchemaInterpreter(
             keys().join(keys),
             parametricKeys().join(parametricKeys),
-            this.codecInterpreter, this.ops
+            this.codecInterpreter, this.ops, this.deduplicate
         );
     }
 
+    /**
+     * {@return an interpreter which additionally moves sub-schemas that occur more than once into {@code $defs}}
+     * Sub-schemas are compared by their contents, so a structure used by many fields is defined once and referenced
+     * everywhere else, without needing to be annotated with {@link SchemaAnnotations#REUSE_KEY}. Sub-schemas that are
+     * equal to a definition already present reference that definition; others are given generated names. Very small
+     * sub-schemas, such as those of primitives, are left in place.
+     */
+    public JsonSchemaInterpreter deduplicating() {
+        return new JsonSchemaInterpreter(keys(), parametricKeys(), this.codecInterpreter, this.ops, true);
+    }
+
     public JsonSchemaInterpreter() {
         this(
             Keys.<Holder.Mu, Object>builder().build(),
@@ -156,15 +183,16 @@ public <A> DataResult<App<Holder.Mu, A>> record(List<RecordStructure.Field<A, ?>
     }
 
     private <A, F> @Nullable Supplier<String> singleField(RecordStructure.Field<A, F> field, JsonObject properties, JsonArray required, Map<String, Structure<?>> definitions) {
-        var partialResolt = field.structure().interpret(this);
+        var partialResolt = interpretStructure(field.structure());
         if (partialResolt.isError()) {
             return partialResolt.error().orElseThrow().messageSupplier();
         }
-        var fieldObject = copy(schemaValue(partialResolt.result().orElseThrow()));
+        var fieldObject = schemaValue(partialResolt.result().orElseThrow());
         definitions.putAll(definitions(partialResolt.result().orElseThrow()));
 
         var error = new Object() {
             @Nullable Supplier<String> value = null;
+            @Nullable JsonElement defaultValue = null;
         };
 
         field.missingBehavior().ifPresentOrElse(missingBehavior -> {
@@ -179,13 +207,18 @@ public <A> DataResult<App<Holder.Mu, A>> record(List<RecordStructure.Field<A, ?>
                 // If it cannot serialize the default value, we just don't report it -- it could be something like an Optional where the default value does not exist.
                 return;
             }
-            fieldObject.add("default", defaultValueResult.result().orElseThrow());
+            error.defaultValue = defaultValueResult.result().orElseThrow();
         }, () -> required.add(field.name()));
 
         if (error.value != null) {
             return error.value;
         }
 
+        if (error.defaultValue != null) {
+            // Only copied when modified, as the interpreted schema is shared with anything else that uses the structure
+            fieldObject = copy(fieldObject);
+            fieldObject.add("default", error.defaultValue);
+        }
         properties.add(field.name(), fieldObject);
         return null;
     }
@@ -199,6 +232,9 @@ public <A, B> DataResult<App<Holder.Mu, B>> flatXmap(App<Holder.Mu, A> input, Fu
     public <A> DataResult<App<Holder.Mu, A>> annotate(Structure<A> input, Keys<Identity.Mu, Object> annotations) {
         JsonObject schema;
         SequencedMap<String, Structure<?>> definitions;
+        var pattern = Annotation.get(annotations, Annotation.PATTERN);
+        var description = Annotation.get(annotations, Annotation.DESCRIPTION).or(() -> Annotation.get(annotations, Annotation.COMMENT));
+        var title = Annotation.get(annotations, Annotation.TITLE);
         var refName = Annotation.get(annotations, SchemaAnnotations.REUSE_KEY);
         if (refName.isPresent()) {
             schema = new JsonObject();
@@ -207,29 +243,26 @@ public <A> DataResult<App<Holder.Mu, A>> annotate(Structure<A> input, Keys<Ident
             definitions = new LinkedHashMap<>();
             definitions.put(ref, input);
         } else {
-            var result = input.interpret(this);
+            var result = interpretStructure(input);
             if (result.error().isPresent()) {
                 return DataResult.error(result.error().get().messageSupplier());
             }
+            definitions = definitions(result.result().orElseThrow());
+            if (pattern.isEmpty() && description.isEmpty() && title.isEmpty()) {
+                return DataResult.success(new Holder<>(schemaValue(result.result().orElseThrow()), definitions));
+            }
             schema = copy(schemaValue(result.result().orElseThrow()));
-            definitions = new LinkedHashMap<>(definitions(result.result().orElseThrow()));
         }
 
-        Annotation.get(annotations, Annotation.PATTERN).ifPresent(pattern -> {
-            schema.addProperty("pattern", pattern);
-        });
-        Annotation.get(annotations, Annotation.DESCRIPTION).or(() -> Annotation.get(annotations, Annotation.COMMENT)).ifPresent(comment -> {
-            schema.addProperty("description", comment);
-        });
-        Annotation.get(annotations, Annotation.TITLE).ifPresent(comment -> {
-            schema.addProperty("title", comment);
-        });
+        pattern.ifPresent(value -> schema.addProperty("pattern", value));
+        description.ifPresent(value -> schema.addProperty("description", value));
+        title.ifPresent(value -> schema.addProperty("title", value));
         return DataResult.success(new Holder<>(schema, definitions));
     }
 
     @Override
     public <E, A> DataResult<App<Holder.Mu, E>> dispatch(String key, Structure<A> keyStructure, Function<? super E, ? extends DataResult<A>> function, Supplier<Set<A>> keys, Function<A, DataResult<Structure<? extends E>>> structures) {
-        return keyStructure.interpret(this).flatMap(keySchemaApp -> {
+        return interpretStructure(keyStructure).flatMap(keySchemaApp -> {
             var definitions = new LinkedHashMap<>(definitions(keySchemaApp));
             var keySchema = schemaValue(keySchemaApp);
             JsonObject out = new JsonObject();
@@ -246,7 +279,7 @@ public <E, A> DataResult<App<Holder.Mu, E>> dispatch(String key, Structure<A> ke
             }
             var keyCodec = keyCodecResult.result().orElseThrow();
             for (A entryKey : keys.get()) {
-                var result = structures.apply(entryKey).flatMap(it -> it.interpret(this));
+                var result = structures.apply(entryKey).flatMap(this::interpretStructure);
                 if (result.error().isPresent()) {
                     return DataResult.error(result.error().get().messageSupplier());
                 }
@@ -287,7 +320,7 @@ public <A> DataResult<App<Holder.Mu, A>> bounded(Structure<A> input, Supplier<Se
                 }
                 types.add(result.result().orElseThrow());
             }
-            return input.interpret(this).flatMap(outer -> {
+            return interpretStructure(input).flatMap(outer -> {
                 var schema = copy(schemaValue(outer));
                 schema.add("enum", types);
                 return DataResult.success(new Holder<>(schema, definitions(outer)));
@@ -353,7 +386,7 @@ public <K, V> DataResult<App<Holder.Mu, Map<K, V>>> dispatchedMap(Structure<K> k
                 if (keyValue.error().isPresent()) {
                     return DataResult.error(keyValue.error().get().messageSupplier());
                 }
-                var valueSchema = valueStructures.apply(key).flatMap(it -> it.interpret(this));
+                var valueSchema = valueStructures.apply(key).flatMap(this::interpretStructure);
                 if (valueSchema.error().isPresent()) {
                     return DataResult.error(valueSchema.error().get().messageSupplier());
                 }
@@ -364,6 +397,37 @@ public <K, V> DataResult<App<Holder.Mu, Map<K, V>>> dispatchedMap(Structure<K> k
         }).map(schema -> new Holder<>(schema, definitions));
     }
 
+    @Override
+    public <A> DataResult<App<Holder.Mu, A>> recursive(String name, Function<App<Holder.Mu, A>, DataResult<App<Holder.Mu, A>>> body) {
+        // References to the structure, including the result itself, point at a definition which is filled in once the
+        // body has been interpreted
+        var definition = new RecursiveDefinition<A>();
+        var schema = new JsonObject();
+        schema.addProperty("$ref", "#/$defs/"+name);
+        var selfDefinitions = new LinkedHashMap<String, Structure<?>>();
+        selfDefinitions.put(name, definition);
+        return body.apply(new Holder<>(schema, selfDefinitions)).map(result -> {
+            definition.holder = Holder.unbox(result);
+            var definitions = new LinkedHashMap<>(definitions(result));
+            definitions.put(name, definition);
+            return new Holder<>(schema, definitions);
+        });
+    }
+
+    private static final class RecursiveDefinition<A> implements Structure<A> {
+        private volatile @Nullable Holder<A> holder;
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <Mu extends K1> DataResult<App<Mu, A>> interpret(Interpreter<Mu> interpreter) {
+            var holder = this.holder;
+            if (holder == null || !(interpreter instanceof JsonSchemaInterpreter)) {
+                return DataResult.error(() -> "Recursive schema definition was not bound");
+            }
+            return DataResult.success((App<Mu, A>) (App<?, A>) holder);
+        }
+    }
+
     private static JsonObject schemaValue(App<Holder.Mu, ?> box) {
         return Holder.unbox(box).jsonObject;
     }
@@ -373,31 +437,107 @@ private static SequencedMap<String, Structure<?>> definitions(App<Holder.Mu, ?>
     }
 
     public <T> DataResult<JsonObject> interpret(Structure<T> structure) {
-        return structure.interpret(this).flatMap(holder -> {
-            var object = copy(schemaValue(holder));
-            var definitions = new LinkedHashMap<>(definitions(holder));
+        return resolve(structure).map(resolved -> {
+            var object = copy(resolved.getFirst());
             var defsObject = new JsonObject();
-            while (true) {
-                final var entry = definitions.pollFirstEntry();
-                if (entry == null) break;
-                if (defsObject.has(entry.getKey())) {
-                    continue;
-                }
-                var result = entry.getValue().interpret(this);
-                if (result.error().isPresent()) {
-                    return DataResult.error(result.error().get().messageSupplier());
-                }
-                var schema = schemaValue(result.result().orElseThrow());
-                defsObject.add(entry.getKey(), schema);
-                definitions.putAll(definitions(result.result().orElseThrow()));
-            }
+            resolved.getSecond().forEach((name, schema) -> defsObject.add(name, copy(schema)));
             if (!defsObject.isEmpty()) {
                 object.add("$defs", defsObject);
             }
-            return DataResult.success(object);
+            return object;
         });
     }
 
+    /**
+     * Writes the JSON schema for a structure to a writer. The schema and every definition are still resolved in full
+     * before anything is written, exactly as by {@link #interpret(Structure)}; this only avoids the deep copy that
+     * method makes of the result to assemble a single root object, by writing the interpreter's own results directly.
+     * Each definition is written once, under {@code $defs}. The output is the same as that of
+     * {@link #interpret(Structure)}.
+     * @param structure the structure to write a schema for
+     * @param writer the writer to write the schema to
+     * @return a successful result, or an error if the schema could not be created; nothing is written in that case
+     * @param <T> the type of data the structure represents
+     * @throws IOException if the writer fails
+     */
+    public <T> DataResult<Unit> write(Structure<T> structure, JsonWriter writer) throws IOException {
+        var result = resolve(structure);
+        if (result.error().isPresent()) {
+            return DataResult.error(result.error().get().messageSupplier());
+        }
+        var schema = result.result().orElseThrow().getFirst();
+        var definitions = result.result().orElseThrow().getSecond();
+        writer.beginObject();
+        for (var entry : schema.entrySet()) {
+            writer.name(entry.getKey());
+            write(entry.getValue(), writer);
+        }
+        if (!definitions.isEmpty()) {
+            writer.name("$defs");
+            writer.beginObject();
+            for (var entry : definitions.entrySet()) {
+                writer.name(entry.getKey());
+                write(entry.getValue(), writer);
+            }
+            writer.endObject();
+        }
+        writer.endObject();
+        return DataResult.success(Unit.INSTANCE);
+    }
+
+    private <T> DataResult<Pair<JsonObject, SequencedMap<String, JsonObject>>> resolve(Structure<T> structure) {
+        return interpretStructure(structure).flatMap(holder -> resolveDefinitions(holder).map(definitions -> {
+            var schema = schemaValue(holder);
+            if (deduplicate) {
+                return SchemaDeduplicator.deduplicate(schema, definitions);
+            }
+            return Pair.of(schema, definitions);
+        }));
+    }
+
+    private static void write(JsonElement element, JsonWriter writer) throws IOException {
+        switch (element) {
+            case JsonObject object -> {
+                writer.beginObject();
+                for (var entry : object.entrySet()) {
+                    writer.name(entry.getKey());
+                    write(entry.getValue(), writer);
+                }
+                writer.endObject();
+            }
+            case JsonArray array -> {
+                writer.beginArray();
+                for (var value : array) {
+                    write(value, writer);
+                }
+                writer.endArray();
+            }
+            case JsonPrimitive primitive when primitive.isBoolean() -> writer.value(primitive.getAsBoolean());
+            case JsonPrimitive primitive when primitive.isNumber() -> writer.value(primitive.getAsNumber());
+            case JsonPrimitive primitive -> writer.value(primitive.getAsString());
+            default -> writer.nullValue();
+        }
+    }
+
+    private DataResult<SequencedMap<String, JsonObject>> resolveDefinitions(App<Holder.Mu, ?> holder) {
+        var definitions = new LinkedHashMap<>(definitions(holder));
+        SequencedMap<String, JsonObject> resolved = new LinkedHashMap<>();
+        while (true) {
+            final var entry = definitions.pollFirstEntry();
+            if (entry == null) break;
+            if (resolved.containsKey(entry.getKey())) {
+                continue;
+            }
+            var result = interpretStructure(entry.getValue());
+            if (result.error().isPresent()) {
+                return DataResult.error(result.error().get().messageSupplier());
+            }
+            resolved.put(entry.getKey(), schemaValue(result.result().orElseThrow()));
+            definitions.putAll(definitions(result.result().orElseThrow()));
+        }
+        return DataResult.success(resolved);
+    }
+
     public static final Key<Holder.Mu> KEY = Key.create("JsonSchemaInterpreter");
 
     @Override
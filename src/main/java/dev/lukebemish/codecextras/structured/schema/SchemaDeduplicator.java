@@ -0,0 +1,172 @@
+package dev.lukebemish.codecextras.structured.schema;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.mojang.datafixers.util.Pair;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SequencedMap;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Moves sub-schemas that occur more than once into {@code $defs}. Every distinct JSON value is given an id based on its
+ * contents, computed once per instance as schema fragments are heavily shared between the interpreter's results, so
+ * that equal sub-schemas can be found without repeatedly comparing whole trees.
+ */
+final class SchemaDeduplicator {
+    // Sub-schemas with fewer JSON values than this are no larger than a reference to them
+    private static final int MINIMUM_SIZE = 4;
+
+    // Keys whose values are a single schema, a map of names to schemas, or an array of schemas
+    private static final Set<String> SCHEMA_KEYS = Set.of("items", "additionalProperties", "not", "if", "then", "else", "contains", "propertyNames");
+    private static final Set<String> SCHEMA_MAP_KEYS = Set.of("properties", "patternProperties");
+    private static final Set<String> SCHEMA_ARRAY_KEYS = Set.of("prefixItems", "allOf", "anyOf", "oneOf");
+
+    private final Map<List<Object>, Integer> ids = new HashMap<>();
+    private final Map<JsonElement, Integer> elementIds = new IdentityHashMap<>();
+    private final List<Integer> sizes = new ArrayList<>();
+    private final Map<Integer, Integer> counts = new HashMap<>();
+    private final Map<Integer, String> names = new HashMap<>();
+    private final Set<String> existingNames;
+    private final SequencedMap<String, JsonObject> definitions = new LinkedHashMap<>();
+    private int nextName = 0;
+
+    private SchemaDeduplicator(Set<String> existingNames) {
+        this.existingNames = existingNames;
+    }
+
+    static Pair<JsonObject, SequencedMap<String, JsonObject>> deduplicate(JsonObject schema, SequencedMap<String, JsonObject> definitions) {
+        var deduplicator = new SchemaDeduplicator(definitions.keySet());
+        definitions.forEach((name, definition) -> deduplicator.names.putIfAbsent(deduplicator.id(definition), name));
+        deduplicator.count(schema);
+        definitions.values().forEach(deduplicator::count);
+
+        var root = deduplicator.rewrite(schema);
+        definitions.forEach((name, definition) -> {
+            if (!deduplicator.definitions.containsKey(name)) {
+                deduplicator.definitions.put(name, deduplicator.rewrite(definition));
+            }
+        });
+        return Pair.of(root, deduplicator.definitions);
+    }
+
+    private int id(JsonElement element) {
+        var existing = elementIds.get(element);
+        if (existing != null) {
+            return existing;
+        }
+        var key = new ArrayList<>();
+        int size = 1;
+        switch (element) {
+            case JsonObject object -> {
+                key.add("{");
+                for (var entry : object.entrySet()) {
+                    int child = id(entry.getValue());
+                    key.add(entry.getKey());
+                    key.add(child);
+                    size += sizes.get(child);
+                }
+            }
+            case JsonArray array -> {
+                key.add("[");
+                for (var value : array) {
+                    int child = id(value);
+                    key.add(child);
+                    size += sizes.get(child);
+                }
+            }
+            default -> key.add(element.toString());
+        }
+        int finalSize = size;
+        int id = ids.computeIfAbsent(key, k -> {
+            sizes.add(finalSize);
+            return sizes.size() - 1;
+        });
+        elementIds.put(element, id);
+        return id;
+    }
+
+    private void count(JsonElement schema) {
+        // Sub-schemas of a schema that has already been seen are not counted again, as they only occur within it and
+        // so are not repeated in the output once it is moved to a definition
+        if (counts.merge(id(schema), 1, Integer::sum) == 1) {
+            forEachSubSchema(schema, this::count);
+        }
+    }
+
+    private static void forEachSubSchema(JsonElement schema, Consumer<JsonElement> consumer) {
+        if (!(schema instanceof JsonObject object)) {
+            return;
+        }
+        for (var entry : object.entrySet()) {
+            var value = entry.getValue();
+            if (SCHEMA_KEYS.contains(entry.getKey())) {
+                consumer.accept(value);
+            } else if (SCHEMA_MAP_KEYS.contains(entry.getKey()) && value instanceof JsonObject map) {
+                map.asMap().values().forEach(consumer);
+            } else if (SCHEMA_ARRAY_KEYS.contains(entry.getKey()) && value instanceof JsonArray array) {
+                array.forEach(consumer);
+            }
+        }
+    }
+
+    private JsonElement reference(JsonElement schema) {
+        if (!(schema instanceof JsonObject object)) {
+            return schema;
+        }
+        int id = id(object);
+        var name = names.get(id);
+        if (name == null) {
+            if (counts.getOrDefault(id, 0) < 2 || sizes.get(id) < MINIMUM_SIZE) {
+                return rewrite(object);
+            }
+            name = newName();
+            names.put(id, name);
+        }
+        if (!definitions.containsKey(name)) {
+            definitions.put(name, rewrite(object));
+        }
+        var reference = new JsonObject();
+        reference.addProperty("$ref", "#/$defs/" + name);
+        return reference;
+    }
+
+    private String newName() {
+        String name;
+        do {
+            name = "shared" + nextName++;
+        } while (existingNames.contains(name));
+        return name;
+    }
+
+    private JsonObject rewrite(JsonObject schema) {
+        // Schemas are shared with the interpreter's results, so are never modified in place
+        var out = new JsonObject();
+        for (var entry : schema.entrySet()) {
+            var value = entry.getValue();
+            if (SCHEMA_KEYS.contains(entry.getKey())) {
+                value = reference(value);
+            } else if (SCHEMA_MAP_KEYS.contains(entry.getKey()) && value instanceof JsonObject map) {
+                var newMap = new JsonObject();
+                for (var property : map.entrySet()) {
+                    newMap.add(property.getKey(), reference(property.getValue()));
+                }
+                value = newMap;
+            } else if (SCHEMA_ARRAY_KEYS.contains(entry.getKey()) && value instanceof JsonArray array) {
+                var newArray = new JsonArray(array.size());
+                for (var element : array) {
+                    newArray.add(reference(element));
+                }
+                value = newArray;
+            }
+            out.add(entry.getKey(), value);
+        }
+        return out;
+    }
+}
@@ -44,6 +44,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -936,7 +937,7 @@ private <A, T> void handleEntry(RecordStructure.Field<A,T> field, List<RecordEnt
             errors.add(codecResult.error().orElseThrow().messageSupplier());
             return;
         }
-        var optionEntryResult = field.structure().interpret(this).map(ConfigScreenEntry::unbox);
+        var optionEntryResult = interpretStructure(field.structure()).map(ConfigScreenEntry::unbox);
         if (optionEntryResult.isError()) {
             errors.add(optionEntryResult.error().orElseThrow().messageSupplier());
             return;
@@ -965,7 +966,7 @@ public <A, B> DataResult<App<ConfigScreenEntry.Mu, B>> flatXmap(App<ConfigScreen
 
     @Override
     public <A> DataResult<App<ConfigScreenEntry.Mu, A>> annotate(Structure<A> original, Keys<Identity.Mu, Object> annotations) {
-        var result = original.interpret(this);
+        var result = interpretStructure(original);
         var codecResult = codecInterpreter.annotate(original, annotations).map(CodecInterpreter::unbox);
         if (codecResult.isError()) {
             return DataResult.error(codecResult.error().orElseThrow().messageSupplier());
@@ -996,7 +997,7 @@ public <E, A> DataResult<App<ConfigScreenEntry.Mu, E>> dispatch(String key, Stru
         Supplier<Map<A, Supplier<DataResult<ConfigScreenEntry<? extends E>>>>> entries = Suppliers.memoize(() -> {
             Map<A, Supplier<DataResult<ConfigScreenEntry<? extends E>>>> map = new HashMap<>();
             for (var entryKey : keys.get()) {
-                map.put(entryKey, Suppliers.memoize(() -> structures.apply(entryKey).flatMap(it -> it.interpret(this)).map(ConfigScreenEntry::unbox)));
+                map.put(entryKey, Suppliers.memoize(() -> structures.apply(entryKey).flatMap(this::interpretStructure).map(ConfigScreenEntry::unbox)));
             }
             return map;
         });
@@ -1040,7 +1041,7 @@ public <K, V> DataResult<App<ConfigScreenEntry.Mu, Map<K, V>>> dispatchedMap(Str
         Supplier<Map<K, Supplier<DataResult<ConfigScreenEntry<? extends V>>>>> entries = Suppliers.memoize(() -> {
             Map<K, Supplier<DataResult<ConfigScreenEntry<? extends V>>>> map = new HashMap<>();
             for (var entryKey : keys.get()) {
-                map.put(entryKey, Suppliers.memoize(() -> valueStructures.apply(entryKey).flatMap(it -> it.interpret(this)).map(ConfigScreenEntry::unbox)));
+                map.put(entryKey, Suppliers.memoize(() -> valueStructures.apply(entryKey).flatMap(this::interpretStructure).map(ConfigScreenEntry::unbox)));
             }
             return map;
         });
@@ -1075,7 +1076,24 @@ public <K, V> DataResult<App<ConfigScreenEntry.Mu, Map<K, V>>> dispatchedMap(Str
         ));
     }
 
+    @Override
+    public <A> DataResult<App<ConfigScreenEntry.Mu, A>> recursive(String name, Function<App<ConfigScreenEntry.Mu, A>, DataResult<App<ConfigScreenEntry.Mu, A>>> body) {
+        // Nested entries are only created once the screen is opened, by which point the entry has been bound
+        var bound = new AtomicReference<ConfigScreenEntry<A>>();
+        var self = new ConfigScreenEntry<A>(
+            (parent, width, context, original, update, creationInfo, handleOptional) ->
+                bound.get().layout().create(parent, width, context, original, update, creationInfo, handleOptional),
+            (context, original, onClose, creationInfo) ->
+                bound.get().screenEntryProvider().open(context, original, onClose, creationInfo),
+            new EntryCreationInfo<>(Codec.lazyInitialized(() -> bound.get().entryCreationInfo().codec()), ComponentInfo.empty())
+        );
+        return body.apply(self).map(result -> {
+            bound.set(ConfigScreenEntry.unbox(result));
+            return result;
+        });
+    }
+
     public <A> DataResult<ConfigScreenEntry<A>> interpret(Structure<A> structure) {
-        return structure.interpret(this).map(ConfigScreenEntry::unbox);
+        return interpretStructure(structure).map(ConfigScreenEntry::unbox);
     }
 }
@@ -9,6 +9,7 @@
 import com.mojang.datafixers.util.Unit;
 import com.mojang.serialization.DataResult;
 import dev.lukebemish.codecextras.StringRepresentation;
+import dev.lukebemish.codecextras.structured.DispatchCache;
 import dev.lukebemish.codecextras.structured.Interpreter;
 import dev.lukebemish.codecextras.structured.Key;
 import dev.lukebemish.codecextras.structured.KeyStoringInterpreter;
@@ -29,7 +30,7 @@
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -247,6 +248,7 @@ public <A> DataResult<App<Holder.Mu<B>, A>> record(List<RecordStructure.Field<A,
             DataResult<App<Holder.Mu<B>, A>> result = recordSingleField(field, streamFields);
             if (result != null) return result;
         }
+        int size = fields.size();
         return DataResult.success(new Holder<>(StreamCodec.of(
             (buf, data) -> {
                 for (var field : streamFields) {
@@ -254,7 +256,7 @@ public <A> DataResult<App<Holder.Mu<B>, A>> record(List<RecordStructure.Field<A,
                 }
             },
             buf -> {
-                var builder = RecordStructure.Container.builder();
+                var builder = RecordStructure.Container.builder(size);
                 for (var field : streamFields) {
                     decodeSingleField(buf, field, builder);
                 }
@@ -272,18 +274,23 @@ public <X, Y> DataResult<App<Holder.Mu<B>, Y>> flatXmap(App<Holder.Mu<B>, X> inp
         )));
     }
 
+    @Override
+    public <X, Y> DataResult<App<Holder.Mu<B>, Y>> xmap(App<Holder.Mu<B>, X> input, Function<X, Y> to, Function<Y, X> from) {
+        var streamCodec = unbox(input);
+        return DataResult.success(new Holder<>(streamCodec.map(to, from)));
+    }
+
     @Override
     public <A> DataResult<App<Holder.Mu<B>, A>> annotate(Structure<A> original, Keys<Identity.Mu, Object> annotations) {
         // No annotations handled here
-        return original.interpret(this);
+        return interpretStructure(original);
     }
 
     @Override
     public <E, A> DataResult<App<Holder.Mu<B>, E>> dispatch(String key, Structure<A> keyStructure, Function<? super E, ? extends DataResult<A>> function, Supplier<Set<A>> keys, Function<A, DataResult<Structure<? extends E>>> structures) {
-        return keyStructure.interpret(this).flatMap(keyCodecApp -> {
+        return interpretStructure(keyStructure).flatMap(keyCodecApp -> {
             var keyStreamCodec = unbox(keyCodecApp);
-            var map = new ConcurrentHashMap<A, DataResult<StreamCodec<B, ? extends E>>>();
-            Function<A, DataResult<StreamCodec<B, ? extends E>>> cache = k -> map.computeIfAbsent(k , structures.andThen(result -> result.flatMap(s -> s.interpret(this)).map(StreamCodecInterpreter::unbox)));
+            Function<A, DataResult<StreamCodec<B, ? extends E>>> cache = DispatchCache.cache(keys, structures.andThen(result -> result.flatMap(this::interpretStructure).map(StreamCodecInterpreter::unbox)));
             return DataResult.success(new Holder<>(
                 keyStreamCodec.dispatch(function.andThen(DataResult::getOrThrow), cache.andThen(DataResult::getOrThrow))
             ));
@@ -292,9 +299,8 @@ public <E, A> DataResult<App<Holder.Mu<B>, E>> dispatch(String key, Structure<A>
 
     @Override
     public <K, V> DataResult<App<Holder.Mu<B>, Map<K, V>>> dispatchedMap(Structure<K> keyStructure, Supplier<Set<K>> keys, Function<K, DataResult<Structure<? extends V>>> valueStructures) {
-        return keyStructure.interpret(this).map(StreamCodecInterpreter::unbox).flatMap(keyCodec -> {
-            var map = new ConcurrentHashMap<K, DataResult<StreamCodec<B, ? extends V>>>();
-            Function<K, DataResult<StreamCodec<B, ? extends V>>> cache = k -> map.computeIfAbsent(k , valueStructures.andThen(result -> result.flatMap(s -> s.interpret(this)).map(StreamCodecInterpreter::unbox)));
+        return interpretStructure(keyStructure).map(StreamCodecInterpreter::unbox).flatMap(keyCodec -> {
+            Function<K, DataResult<StreamCodec<B, ? extends V>>> cache = DispatchCache.cache(keys, valueStructures.andThen(result -> result.flatMap(this::interpretStructure).map(StreamCodecInterpreter::unbox)));
             return DataResult.success(new Holder<>(new StreamCodec<>() {
                 @Override
                 public Map<K, V> decode(B buffer) {
@@ -358,7 +364,7 @@ private static <B extends ByteBuf, A, F> void decodeSingleField(B buf, Field<A,
     }
 
     private <A, F> @Nullable DataResult<App<Holder.Mu<B>, A>> recordSingleField(RecordStructure.Field<A, F> field, ArrayList<Field<A, B, ?>> streamFields) {
-        var result = field.structure().interpret(this);
+        var result = interpretStructure(field.structure());
         if (result.error().isPresent()) {
             return DataResult.error(result.error().orElseThrow().messageSupplier());
         }
@@ -370,8 +376,36 @@ public static <B extends ByteBuf, T> StreamCodec<B, T> unbox(App<Holder.Mu<B>, T
         return Holder.unbox(box).streamCodec();
     }
 
+    @Override
+    public <A> DataResult<App<Holder.Mu<B>, A>> recursive(String name, Function<App<Holder.Mu<B>, A>, DataResult<App<Holder.Mu<B>, A>>> body) {
+        var bound = new AtomicReference<@Nullable StreamCodec<B, A>>();
+        StreamCodec<B, A> self = new StreamCodec<>() {
+            @Override
+            public A decode(B buffer) {
+                var streamCodec = bound.get();
+                if (streamCodec == null) {
+                    throw new DecoderException("Recursive stream codec " + name + " was not bound");
+                }
+                return streamCodec.decode(buffer);
+            }
+
+            @Override
+            public void encode(B buffer, A value) {
+                var streamCodec = bound.get();
+                if (streamCodec == null) {
+                    throw new EncoderException("Recursive stream codec " + name + " was not bound");
+                }
+                streamCodec.encode(buffer, value);
+            }
+        };
+        return body.apply(new Holder<>(self)).map(result -> {
+            bound.set(unbox(result));
+            return result;
+        });
+    }
+
     public <T> DataResult<StreamCodec<B, T>> interpret(Structure<T> structure) {
-        return structure.interpret(this).map(StreamCodecInterpreter::unbox);
+        return interpretStructure(structure).map(StreamCodecInterpreter::unbox);
     }
 
     @Override
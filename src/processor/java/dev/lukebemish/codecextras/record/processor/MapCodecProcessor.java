@@ -0,0 +1,388 @@
+package dev.lukebemish.codecextras.record.processor;
+
+import dev.lukebemish.codecextras.record.GenerateMapCodec;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.WildcardType;
+import javax.tools.Diagnostic;
+import org.jetbrains.annotations.ApiStatus;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Generates the source of a specialized {@link com.mojang.serialization.MapCodec} for every record annotated with
+ * {@link GenerateMapCodec}. The generated codecs follow the same field model as {@link
+ * dev.lukebemish.codecextras.record.MethodHandleRecordCodecBuilder}: {@code int}, {@code long}, {@code float},
+ * {@code double} and {@code boolean} components are read and written directly through the {@link
+ * com.mojang.serialization.DynamicOps} without boxing through a codec, {@link java.util.Optional} components are
+ * optional fields, and everything else is a plain field backed by a codec. Decoding stops at the first failing field.
+ */
+@ApiStatus.Experimental
+public final class MapCodecProcessor extends AbstractProcessor {
+    private static final String SUFFIX = "MapCodec";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(GenerateMapCodec.class.getCanonicalName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateMapCodec.class)) {
+            if (element.getKind() != ElementKind.RECORD) {
+                error(element, "@GenerateMapCodec may only be applied to records");
+                continue;
+            }
+            var type = (TypeElement) element;
+            var fields = fields(type);
+            if (fields == null) {
+                continue;
+            }
+            try {
+                write(type, fields);
+            } catch (IOException e) {
+                error(element, "Could not write generated codec: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private enum Kind {
+        INT("int", "getNumberValue", "Number", ".intValue()", "createInt"),
+        LONG("long", "getNumberValue", "Number", ".longValue()", "createLong"),
+        FLOAT("float", "getNumberValue", "Number", ".floatValue()", "createFloat"),
+        DOUBLE("double", "getNumberValue", "Number", ".doubleValue()", "createDouble"),
+        BOOLEAN("boolean", "getBooleanValue", "Boolean", "", "createBoolean"),
+        FIELD,
+        OPTIONAL_FIELD;
+
+        private final String type;
+        private final String readMethod;
+        private final String readType;
+        private final String unbox;
+        private final String createMethod;
+
+        Kind(String type, String readMethod, String readType, String unbox, String createMethod) {
+            this.type = type;
+            this.readMethod = readMethod;
+            this.readType = readType;
+            this.unbox = unbox;
+            this.createMethod = createMethod;
+        }
+
+        Kind() {
+            this("", "", "", "", "");
+        }
+
+        boolean isPrimitive() {
+            return !type.isEmpty();
+        }
+    }
+
+    private record Field(String accessor, String name, Kind kind, String type, @Nullable String codec) {}
+
+    private @Nullable List<Field> fields(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.PRIVATE)) {
+            error(type, "Records with generated codecs may not be private");
+            return null;
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            error(type, "Records with generated codecs may not be generic");
+            return null;
+        }
+        List<Field> fields = new ArrayList<>();
+        boolean valid = true;
+        for (RecordComponentElement component : type.getRecordComponents()) {
+            var annotation = component.getAnnotation(GenerateMapCodec.Field.class);
+            String accessor = component.getSimpleName().toString();
+            String name = annotation == null || annotation.name().isEmpty() ? accessor : annotation.name();
+            String codec = annotation == null || annotation.codec().isEmpty() ? null : annotation.codec();
+            TypeMirror componentType = component.asType();
+
+            if (codec == null) {
+                var kind = primitiveKind(componentType.getKind());
+                if (kind != null) {
+                    fields.add(new Field(accessor, name, kind, kind.type, null));
+                    continue;
+                }
+            }
+            Kind kind = Kind.FIELD;
+            TypeMirror valueType = componentType;
+            if (isOptional(componentType)) {
+                var arguments = ((DeclaredType) componentType).getTypeArguments();
+                if (arguments.size() != 1) {
+                    error(component, "Optional components must not be raw");
+                    valid = false;
+                    continue;
+                }
+                kind = Kind.OPTIONAL_FIELD;
+                valueType = arguments.getFirst();
+            }
+            if (codec == null && isString(valueType)) {
+                codec = "Codec.STRING";
+            }
+            if (codec == null) {
+                error(component, "Component of type " + componentType + " requires a codec to be specified with @GenerateMapCodec.Field");
+                valid = false;
+                continue;
+            }
+            var typeName = boxed(valueType);
+            if (typeName == null) {
+                error(component, "Component of type " + componentType + " cannot be named in generated source");
+                valid = false;
+                continue;
+            }
+            fields.add(new Field(accessor, name, kind, typeName, codec));
+        }
+        return valid ? fields : null;
+    }
+
+    private static @Nullable Kind primitiveKind(TypeKind kind) {
+        return switch (kind) {
+            case INT -> Kind.INT;
+            case LONG -> Kind.LONG;
+            case FLOAT -> Kind.FLOAT;
+            case DOUBLE -> Kind.DOUBLE;
+            case BOOLEAN -> Kind.BOOLEAN;
+            default -> null;
+        };
+    }
+
+    private boolean isOptional(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals("java.util.Optional");
+    }
+
+    private boolean isString(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals("java.lang.String");
+    }
+
+    private @Nullable String boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return sourceName(type);
+    }
+
+    /**
+     * {@return the name of a type as written in source, built from its elements} Unlike {@link TypeMirror#toString()},
+     * this leaves out type-use annotations and never names captured types.
+     */
+    private @Nullable String sourceName(TypeMirror type) {
+        return switch (type.getKind()) {
+            case BOOLEAN, BYTE, SHORT, INT, LONG, CHAR, FLOAT, DOUBLE -> type.getKind().name().toLowerCase(Locale.ROOT);
+            case ARRAY -> {
+                var component = sourceName(((ArrayType) type).getComponentType());
+                yield component == null ? null : component + "[]";
+            }
+            case DECLARED -> {
+                var declared = (DeclaredType) type;
+                var name = new StringBuilder(((TypeElement) declared.asElement()).getQualifiedName());
+                var arguments = declared.getTypeArguments();
+                if (!arguments.isEmpty()) {
+                    name.append('<');
+                    for (int i = 0; i < arguments.size(); i++) {
+                        var argument = sourceName(arguments.get(i));
+                        if (argument == null) {
+                            yield null;
+                        }
+                        name.append(i == 0 ? "" : ", ").append(argument);
+                    }
+                    name.append('>');
+                }
+                yield name.toString();
+            }
+            case WILDCARD -> {
+                var wildcard = (WildcardType) type;
+                var bound = wildcard.getExtendsBound() != null ? wildcard.getExtendsBound() : wildcard.getSuperBound();
+                if (bound == null) {
+                    yield "?";
+                }
+                var boundName = sourceName(bound);
+                yield boundName == null ? null : (wildcard.getExtendsBound() != null ? "? extends " : "? super ") + boundName;
+            }
+            case TYPEVAR -> ((TypeVariable) type).asElement().getSimpleName().toString();
+            default -> null;
+        };
+    }
+
+    private void write(TypeElement type, List<Field> fields) throws IOException {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = packageElement.getQualifiedName().toString();
+        String recordName = type.getQualifiedName().toString();
+        String simpleName = (packageName.isEmpty() ? recordName : recordName.substring(packageName.length() + 1)).replace('.', '_') + SUFFIX;
+        String visibility = isPublic(type) ? "public " : "";
+
+        var out = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+        out.append("import com.mojang.serialization.Codec;\n");
+        out.append("import com.mojang.serialization.DataResult;\n");
+        out.append("import com.mojang.serialization.DynamicOps;\n");
+        out.append("import com.mojang.serialization.MapCodec;\n");
+        out.append("import com.mojang.serialization.MapLike;\n");
+        out.append("import com.mojang.serialization.RecordBuilder;\n");
+        out.append("import java.util.Optional;\n");
+        out.append("import java.util.stream.Stream;\n\n");
+
+        out.append("@javax.annotation.processing.Generated(\"").append(MapCodecProcessor.class.getName()).append("\")\n");
+        out.append(visibility).append("final class ").append(simpleName).append(" extends MapCodec<").append(recordName).append("> {\n");
+        out.append("    ").append(visibility).append("static final ").append(simpleName).append(" INSTANCE = new ").append(simpleName).append("();\n");
+        for (int i = 0; i < fields.size(); i++) {
+            var field = fields.get(i);
+            if (!field.kind().isPrimitive()) {
+                out.append("    private static final Codec<").append(field.type()).append("> CODEC$").append(i).append(" = ").append(field.codec()).append(";\n");
+            }
+        }
+        out.append("\n    private ").append(simpleName).append("() {}\n\n");
+
+        out.append("    @Override\n");
+        out.append("    public <T> Stream<T> keys(DynamicOps<T> ops) {\n");
+        out.append("        return Stream.of(");
+        for (int i = 0; i < fields.size(); i++) {
+            if (i != 0) {
+                out.append(", ");
+            }
+            out.append("ops.createString(").append(literal(fields.get(i).name())).append(")");
+        }
+        out.append(");\n");
+        out.append("    }\n\n");
+
+        out.append("    @Override\n");
+        out.append("    public <T> DataResult<").append(recordName).append("> decode(DynamicOps<T> ops, MapLike<T> input) {\n");
+        for (int i = 0; i < fields.size(); i++) {
+            decodeField(out, fields.get(i), i);
+        }
+        out.append("        return DataResult.success(new ").append(recordName).append("(");
+        for (int i = 0; i < fields.size(); i++) {
+            if (i != 0) {
+                out.append(", ");
+            }
+            out.append("field$").append(i);
+        }
+        out.append("));\n");
+        out.append("    }\n\n");
+
+        out.append("    @Override\n");
+        out.append("    public <T> RecordBuilder<T> encode(").append(recordName).append(" input, DynamicOps<T> ops, RecordBuilder<T> prefix) {\n");
+        for (int i = 0; i < fields.size(); i++) {
+            var field = fields.get(i);
+            String name = literal(field.name());
+            String getter = "input." + field.accessor() + "()";
+            switch (field.kind()) {
+                case FIELD -> out.append("        prefix = prefix.add(").append(name).append(", CODEC$").append(i).append(".encodeStart(ops, ").append(getter).append("));\n");
+                case OPTIONAL_FIELD -> {
+                    out.append("        if (").append(getter).append(".isPresent()) {\n");
+                    out.append("            prefix = prefix.add(").append(name).append(", CODEC$").append(i).append(".encodeStart(ops, ").append(getter).append(".get()));\n");
+                    out.append("        }\n");
+                }
+                default -> out.append("        prefix = prefix.add(").append(name).append(", ops.").append(field.kind().createMethod).append("(").append(getter).append("));\n");
+            }
+        }
+        out.append("        return prefix;\n");
+        out.append("    }\n\n");
+
+        out.append("    @Override\n");
+        out.append("    public String toString() {\n");
+        out.append("        return ").append(literal("GeneratedMapCodec[" + recordName + "]")).append(";\n");
+        out.append("    }\n");
+        out.append("}\n");
+
+        String fileName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(fileName, type).openWriter()) {
+            writer.write(out.toString());
+        }
+    }
+
+    private static void decodeField(StringBuilder out, Field field, int i) {
+        String name = literal(field.name());
+        String value = "value$" + i;
+        String result = "result$" + i;
+        String target = "field$" + i;
+        out.append("        T ").append(value).append(" = input.get(").append(name).append(");\n");
+        if (field.kind() == Kind.OPTIONAL_FIELD) {
+            out.append("        Optional<").append(field.type()).append("> ").append(target).append(";\n");
+            out.append("        if (").append(value).append(" == null) {\n");
+            out.append("            ").append(target).append(" = Optional.empty();\n");
+            out.append("        } else {\n");
+            out.append("            DataResult<").append(field.type()).append("> ").append(result).append(" = CODEC$").append(i).append(".parse(ops, ").append(value).append(");\n");
+            out.append("            if (").append(result).append(".isError()) {\n");
+            out.append("                return DataResult.error(").append(result).append(".error().orElseThrow()::message);\n");
+            out.append("            }\n");
+            out.append("            ").append(target).append(" = Optional.of(").append(result).append(".getOrThrow());\n");
+            out.append("        }\n");
+            return;
+        }
+        out.append("        if (").append(value).append(" == null) {\n");
+        out.append("            return DataResult.error(() -> ").append(literal("No key " + field.name() + " in ")).append(" + input);\n");
+        out.append("        }\n");
+        if (field.kind() == Kind.FIELD) {
+            out.append("        DataResult<").append(field.type()).append("> ").append(result).append(" = CODEC$").append(i).append(".parse(ops, ").append(value).append(");\n");
+        } else {
+            out.append("        DataResult<").append(field.kind().readType).append("> ").append(result).append(" = ops.").append(field.kind().readMethod).append("(").append(value).append(");\n");
+        }
+        out.append("        if (").append(result).append(".isError()) {\n");
+        out.append("            return DataResult.error(").append(result).append(".error().orElseThrow()::message);\n");
+        out.append("        }\n");
+        out.append("        ").append(field.type()).append(" ").append(target).append(" = ").append(result).append(".getOrThrow()").append(field.kind().unbox).append(";\n");
+    }
+
+    private static boolean isPublic(TypeElement type) {
+        Element current = type;
+        while (current instanceof TypeElement) {
+            if (!current.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+            current = current.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private static String literal(String value) {
+        var builder = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
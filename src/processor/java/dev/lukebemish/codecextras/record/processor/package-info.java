@@ -0,0 +1,4 @@
+@NullMarked
+package dev.lukebemish.codecextras.record.processor;
+
+import org.jspecify.annotations.NullMarked;
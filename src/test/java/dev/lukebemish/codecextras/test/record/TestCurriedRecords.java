@@ -15,6 +15,15 @@ private record TestRecord(int a, int b, float c) {
                 .build(c -> b -> a -> new TestRecord(a, b, c));
     }
 
+    private record CompiledRecord(int a, int b, float c) {
+        public static final Codec<CompiledRecord> CODEC = CurriedRecordCodecBuilder
+                .start(Codec.INT.fieldOf("a"), CompiledRecord::a)
+                .field(Codec.INT.fieldOf("b"), CompiledRecord::b)
+                .field(Codec.FLOAT.fieldOf("c"), CompiledRecord::c)
+                .compile(c -> b -> a -> new CompiledRecord(a, b, c))
+                .codec();
+    }
+
     private final String json = """
             {
                 "a": 1,
@@ -31,4 +40,14 @@ void testDecoding() {
     void testEncoding() {
         CodecAssertions.assertEncodes(JsonOps.INSTANCE, new TestRecord(1, 2, 3.0f), json, TestRecord.CODEC);
     }
+
+    @Test
+    void testCompiledDecoding() {
+        CodecAssertions.assertDecodes(JsonOps.INSTANCE, json, new CompiledRecord(1, 2, 3.0f), CompiledRecord.CODEC);
+    }
+
+    @Test
+    void testCompiledEncoding() {
+        CodecAssertions.assertEncodes(JsonOps.INSTANCE, new CompiledRecord(1, 2, 3.0f), json, CompiledRecord.CODEC);
+    }
 }
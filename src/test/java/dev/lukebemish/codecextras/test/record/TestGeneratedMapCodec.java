@@ -0,0 +1,81 @@
+package dev.lukebemish.codecextras.test.record;
+
+import com.google.gson.JsonObject;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
+import dev.lukebemish.codecextras.record.GenerateMapCodec;
+import dev.lukebemish.codecextras.record.processor.MapCodecProcessor;
+import dev.lukebemish.codecextras.test.CodecAssertions;
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestGeneratedMapCodec {
+    @GenerateMapCodec
+    record TestRecord(int a, @GenerateMapCodec.Field(name = "second") long b, float c, String d, @GenerateMapCodec.Field(codec = "Codec.INT") Optional<Integer> e) {
+        static final Codec<TestRecord> CODEC = TestGeneratedMapCodec_TestRecordMapCodec.INSTANCE.codec();
+    }
+
+    private final String json = """
+            {
+                "a": 1,
+                "second": 2,
+                "c": 3.0,
+                "d": "test",
+                "e": 4
+            }""";
+
+    private final String jsonWithoutOptional = """
+            {
+                "a": 1,
+                "second": 2,
+                "c": 3.0,
+                "d": "test"
+            }""";
+
+    @Test
+    void testDecoding() {
+        CodecAssertions.assertDecodes(JsonOps.INSTANCE, json, new TestRecord(1, 2, 3.0f, "test", Optional.of(4)), TestRecord.CODEC);
+        CodecAssertions.assertDecodes(JsonOps.INSTANCE, jsonWithoutOptional, new TestRecord(1, 2, 3.0f, "test", Optional.empty()), TestRecord.CODEC);
+    }
+
+    @Test
+    void testEncoding() {
+        CodecAssertions.assertEncodes(JsonOps.INSTANCE, new TestRecord(1, 2, 3.0f, "test", Optional.of(4)), json, TestRecord.CODEC);
+        CodecAssertions.assertEncodes(JsonOps.INSTANCE, new TestRecord(1, 2, 3.0f, "test", Optional.empty()), jsonWithoutOptional, TestRecord.CODEC);
+    }
+
+    @Test
+    void testMissingField() {
+        Assertions.assertTrue(TestRecord.CODEC.parse(JsonOps.INSTANCE, new JsonObject()).isError());
+    }
+
+    @Test
+    void testGenericRecordRejected() {
+        var source = new SimpleJavaFileObject(URI.create("string:///test/Generic.java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return """
+                    package test;
+
+                    import dev.lukebemish.codecextras.record.GenerateMapCodec;
+
+                    @GenerateMapCodec
+                    public record Generic<T>(int a, @GenerateMapCodec.Field(codec = "null") T b) {}
+                    """;
+            }
+        };
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        var task = compiler.getTask(null, null, diagnostics, List.of("-proc:only", "-classpath", System.getProperty("java.class.path")), null, List.of(source));
+        task.setProcessors(List.of(new MapCodecProcessor()));
+        Assertions.assertFalse(task.call());
+        Assertions.assertTrue(diagnostics.getDiagnostics().stream().anyMatch(d -> d.getMessage(null).equals("Records with generated codecs may not be generic")));
+    }
+}
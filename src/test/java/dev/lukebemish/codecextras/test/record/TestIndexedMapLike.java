@@ -0,0 +1,63 @@
+package dev.lukebemish.codecextras.test.record;
+
+import com.google.gson.JsonParser;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JavaOps;
+import com.mojang.serialization.JsonOps;
+import dev.lukebemish.codecextras.compat.jankson.JanksonOps;
+import dev.lukebemish.codecextras.record.IndexedMapLike;
+import dev.lukebemish.codecextras.record.KeyedRecordCodecBuilder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestIndexedMapLike {
+    private record WideRecord(int a, int b, int c, int d, String e) {
+        public static final Codec<WideRecord> CODEC = KeyedRecordCodecBuilder.codec(i -> {
+            var a = i.add(Codec.INT.fieldOf("a"), WideRecord::a);
+            var b = i.add(Codec.INT.fieldOf("b"), WideRecord::b);
+            var c = i.add(Codec.INT.fieldOf("c"), WideRecord::c);
+            var d = i.add(Codec.INT.fieldOf("d"), WideRecord::d);
+            var e = i.add(Codec.STRING.fieldOf("e"), WideRecord::e);
+            return container -> new WideRecord(container.get(a), container.get(b), container.get(c), container.get(d), container.get(e));
+        });
+    }
+
+    private final String json = """
+            {
+                "a": 1,
+                "b": 2,
+                "c": 3,
+                "d": 4,
+                "e": "test"
+            }""";
+
+    @Test
+    void testIndexedLookup() {
+        var data = JsonOps.INSTANCE.convertTo(JanksonOps.INSTANCE, JsonParser.parseString(json));
+        var map = JanksonOps.INSTANCE.getMap(data).getOrThrow();
+        var indexed = IndexedMapLike.of(JanksonOps.INSTANCE, map);
+        Assertions.assertEquals(map.get("e"), indexed.get("e"));
+        Assertions.assertEquals(map.get(JanksonOps.INSTANCE.createString("a")), indexed.get(JanksonOps.INSTANCE.createString("a")));
+        Assertions.assertNull(indexed.get("f"));
+        Assertions.assertSame(indexed, IndexedMapLike.of(JanksonOps.INSTANCE, indexed));
+    }
+
+    @Test
+    void testOnlyScanningOpsIndexed() {
+        var data = JsonOps.INSTANCE.convertTo(JanksonOps.INSTANCE, JsonParser.parseString(json));
+        var janksonMap = JanksonOps.INSTANCE.getMap(data).getOrThrow();
+        Assertions.assertInstanceOf(IndexedMapLike.class, IndexedMapLike.forFields(JanksonOps.INSTANCE, janksonMap, 5));
+        Assertions.assertSame(janksonMap, IndexedMapLike.forFields(JanksonOps.INSTANCE, janksonMap, 2));
+        var jsonMap = JsonOps.INSTANCE.getMap(JsonParser.parseString(json)).getOrThrow();
+        Assertions.assertSame(jsonMap, IndexedMapLike.forFields(JsonOps.INSTANCE, jsonMap, 5));
+        var javaMap = JavaOps.INSTANCE.getMap(JsonOps.INSTANCE.convertTo(JavaOps.INSTANCE, JsonParser.parseString(json))).getOrThrow();
+        Assertions.assertSame(javaMap, IndexedMapLike.forFields(JavaOps.INSTANCE, javaMap, 5));
+    }
+
+    @Test
+    void testIndexedDecoding() {
+        var data = JsonOps.INSTANCE.convertTo(JanksonOps.INSTANCE, JsonParser.parseString(json));
+        var result = WideRecord.CODEC.parse(JanksonOps.INSTANCE, data);
+        Assertions.assertEquals(new WideRecord(1, 2, 3, 4, "test"), result.getOrThrow());
+    }
+}
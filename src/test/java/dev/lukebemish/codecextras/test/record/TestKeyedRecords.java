@@ -1,9 +1,11 @@
 package dev.lukebemish.codecextras.test.record;
 
+import com.google.gson.JsonObject;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.JsonOps;
 import dev.lukebemish.codecextras.record.KeyedRecordCodecBuilder;
 import dev.lukebemish.codecextras.test.CodecAssertions;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 class TestKeyedRecords {
@@ -16,6 +18,15 @@ private record TestRecord(int a, int b, float c) {
         });
     }
 
+    private record ReusingRecord(int a, int b, float c) {
+        public static final Codec<ReusingRecord> CODEC = KeyedRecordCodecBuilder.codec(i -> {
+            var a = i.add(Codec.INT.fieldOf("a"), ReusingRecord::a);
+            var b = i.add(Codec.INT.fieldOf("b"), ReusingRecord::b);
+            var c = i.add(Codec.FLOAT.fieldOf("c"), ReusingRecord::c);
+            return container -> new ReusingRecord(container.get(a), container.get(b), container.get(c));
+        }, true);
+    }
+
     private final String json = """
             {
                 "a": 1,
@@ -32,4 +43,17 @@ void testDecoding() {
     void testEncoding() {
         CodecAssertions.assertEncodes(JsonOps.INSTANCE, new TestRecord(1, 2, 3.0f), json, TestRecord.CODEC);
     }
+
+    @Test
+    void testReusingDecoding() {
+        CodecAssertions.assertDecodes(JsonOps.INSTANCE, json, new ReusingRecord(1, 2, 3.0f), ReusingRecord.CODEC);
+        CodecAssertions.assertDecodes(JsonOps.INSTANCE, """
+            {
+                "a": 4,
+                "b": 5,
+                "c": 6.0
+            }""", new ReusingRecord(4, 5, 6.0f), ReusingRecord.CODEC);
+        Assertions.assertTrue(ReusingRecord.CODEC.parse(JsonOps.INSTANCE, new JsonObject()).isError());
+        CodecAssertions.assertDecodes(JsonOps.INSTANCE, json, new ReusingRecord(1, 2, 3.0f), ReusingRecord.CODEC);
+    }
 }
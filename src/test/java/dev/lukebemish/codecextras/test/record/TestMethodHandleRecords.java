@@ -1,10 +1,16 @@
 package dev.lukebemish.codecextras.test.record;
 
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
 import com.mojang.serialization.JsonOps;
 import dev.lukebemish.codecextras.record.MethodHandleRecordCodecBuilder;
 import dev.lukebemish.codecextras.test.CodecAssertions;
 import java.lang.invoke.MethodHandles;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 class TestMethodHandleRecords {
@@ -16,6 +22,38 @@ private record TestRecord(int a, int b, float c) {
             .buildWithConstructor(MethodHandles.lookup(), TestRecord.class);
     }
 
+    private record SinglePassRecord(int a, int b, float c, Optional<String> d) {
+        public static final Codec<SinglePassRecord> CODEC = MethodHandleRecordCodecBuilder.<SinglePassRecord>start()
+            .withField("a", Codec.INT, SinglePassRecord::a)
+            .with(Codec.INT.fieldOf("b"), SinglePassRecord::b)
+            .withField("c", Codec.FLOAT, SinglePassRecord::c)
+            .withOptionalField("d", Codec.STRING, SinglePassRecord::d)
+            .singlePass()
+            .buildWithConstructor(MethodHandles.lookup(), SinglePassRecord.class);
+    }
+
+    private record PrimitiveRecord(int a, int b, float c) {
+        public static final Codec<PrimitiveRecord> CODEC = MethodHandleRecordCodecBuilder.<PrimitiveRecord>start()
+            .withInt("a", PrimitiveRecord::a)
+            .withInt("b", PrimitiveRecord::b)
+            .withFloat("c", PrimitiveRecord::c)
+            .buildWithConstructor(MethodHandles.lookup(), PrimitiveRecord.class);
+    }
+
+    private static final Codec<Integer> NON_NEGATIVE = Codec.INT.flatXmap(
+        i -> i < 0 ? DataResult.error(() -> "Negative value " + i, 0) : DataResult.success(i),
+        DataResult::success
+    );
+
+    private record AccumulatingRecord(int a, int b, float c) {
+        public static final Codec<AccumulatingRecord> CODEC = MethodHandleRecordCodecBuilder.<AccumulatingRecord>start()
+            .withField("a", NON_NEGATIVE, AccumulatingRecord::a)
+            .withField("b", NON_NEGATIVE, AccumulatingRecord::b)
+            .withFloat("c", AccumulatingRecord::c)
+            .accumulateErrors()
+            .buildWithConstructor(MethodHandles.lookup(), AccumulatingRecord.class);
+    }
+
     private final String json = """
             {
                 "a": 1,
@@ -32,4 +70,126 @@ void testDecoding() {
     void testEncoding() {
         CodecAssertions.assertEncodes(JsonOps.INSTANCE, new TestRecord(1, 2, 3.0f), json, TestRecord.CODEC);
     }
+
+    @Test
+    void testSinglePassDecoding() {
+        CodecAssertions.assertDecodes(JsonOps.INSTANCE, json, new SinglePassRecord(1, 2, 3.0f, Optional.empty()), SinglePassRecord.CODEC);
+        CodecAssertions.assertDecodes(JsonOps.INSTANCE, """
+            {
+                "d": "test",
+                "c": 3.0,
+                "b": 2,
+                "a": 1,
+                "e": 4
+            }""", new SinglePassRecord(1, 2, 3.0f, Optional.of("test")), SinglePassRecord.CODEC);
+    }
+
+    @Test
+    void testSinglePassEncoding() {
+        CodecAssertions.assertEncodes(JsonOps.INSTANCE, new SinglePassRecord(1, 2, 3.0f, Optional.empty()), json, SinglePassRecord.CODEC);
+    }
+
+    @Test
+    void testSinglePassMissingField() {
+        var result = SinglePassRecord.CODEC.parse(JsonOps.INSTANCE, new JsonObject());
+        Assertions.assertTrue(result.isError());
+    }
+
+    @Test
+    void testPrimitiveDecoding() {
+        CodecAssertions.assertDecodes(JsonOps.INSTANCE, json, new PrimitiveRecord(1, 2, 3.0f), PrimitiveRecord.CODEC);
+    }
+
+    @Test
+    void testPrimitiveEncoding() {
+        CodecAssertions.assertEncodes(JsonOps.INSTANCE, new PrimitiveRecord(1, 2, 3.0f), json, PrimitiveRecord.CODEC);
+    }
+
+    @Test
+    void testAccumulatingDecoding() {
+        CodecAssertions.assertDecodes(JsonOps.INSTANCE, json, new AccumulatingRecord(1, 2, 3.0f), AccumulatingRecord.CODEC);
+    }
+
+    @Test
+    void testAccumulatingPartial() {
+        var broken = JsonParser.parseString("""
+            {
+                "a": -1,
+                "b": -2,
+                "c": 3.0
+            }""");
+        CodecAssertions.assertDecodesOrPartial(JsonOps.INSTANCE, broken, new AccumulatingRecord(0, 0, 3.0f), AccumulatingRecord.CODEC);
+        var message = AccumulatingRecord.CODEC.parse(JsonOps.INSTANCE, broken).error().orElseThrow().message();
+        Assertions.assertTrue(message.contains("Negative value -1"));
+        Assertions.assertTrue(message.contains("Negative value -2"));
+    }
+
+    @Test
+    void testAccumulatingMissingField() {
+        var result = AccumulatingRecord.CODEC.parse(JsonOps.INSTANCE, new JsonObject());
+        Assertions.assertTrue(result.error().orElseThrow().partialValue().isEmpty());
+    }
+
+    private record ReflectedRecord(int a, String b, Optional<Float> c) {
+        public static final Codec<ReflectedRecord> CODEC = MethodHandleRecordCodecBuilder.forRecord(MethodHandles.lookup(), ReflectedRecord.class, Map.of(
+            "b", Codec.STRING,
+            "c", Codec.FLOAT
+        )).codec();
+    }
+
+    @Test
+    void testRecordDecoding() {
+        CodecAssertions.assertDecodes(JsonOps.INSTANCE, """
+            {
+                "a": 1,
+                "b": "test",
+                "c": 3.0
+            }""", new ReflectedRecord(1, "test", Optional.of(3.0f)), ReflectedRecord.CODEC);
+    }
+
+    @Test
+    void testRecordEncoding() {
+        CodecAssertions.assertEncodes(JsonOps.INSTANCE, new ReflectedRecord(1, "test", Optional.empty()), """
+            {
+                "a": 1,
+                "b": "test"
+            }""", ReflectedRecord.CODEC);
+    }
+
+    @Test
+    void testRecordMissingCodec() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MethodHandleRecordCodecBuilder.forRecord(MethodHandles.lookup(), ReflectedRecord.class, Map.of()));
+    }
+
+    @Test
+    void testRecordUnknownComponent() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MethodHandleRecordCodecBuilder.forRecord(MethodHandles.lookup(), ReflectedRecord.class, Map.of(
+            "b", Codec.STRING,
+            "c", Codec.FLOAT,
+            "d", Codec.INT
+        )));
+    }
+
+    private record SameShapeRecord(int x, int y, float z) {}
+
+    @Test
+    void testSharedGeneratedClass() {
+        var first = MethodHandleRecordCodecBuilder.<PrimitiveRecord>start()
+            .withInt("a", PrimitiveRecord::a)
+            .withInt("b", PrimitiveRecord::b)
+            .withFloat("c", PrimitiveRecord::c)
+            .buildMapWithConstructor(MethodHandles.lookup(), PrimitiveRecord.class);
+        var second = MethodHandleRecordCodecBuilder.<SameShapeRecord>start()
+            .withInt("x", SameShapeRecord::x)
+            .withInt("y", SameShapeRecord::y)
+            .withFloat("z", SameShapeRecord::z)
+            .buildMapWithConstructor(MethodHandles.lookup(), SameShapeRecord.class);
+        Assertions.assertSame(first.getClass(), second.getClass());
+        CodecAssertions.assertDecodes(JsonOps.INSTANCE, """
+            {
+                "x": 1,
+                "y": 2,
+                "z": 3.0
+            }""", new SameShapeRecord(1, 2, 3.0f), second.codec());
+    }
 }
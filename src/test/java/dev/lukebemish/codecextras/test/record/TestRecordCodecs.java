@@ -0,0 +1,68 @@
+package dev.lukebemish.codecextras.test.record;
+
+import com.google.gson.JsonParser;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
+import dev.lukebemish.codecextras.record.RecordCodecs;
+import dev.lukebemish.codecextras.test.CodecAssertions;
+import java.lang.invoke.MethodHandles;
+import java.util.Optional;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestRecordCodecs {
+    private record TestRecord(int a, String b, float c, Optional<String> d) {}
+
+    private static final RecordCodecs<TestRecord> DESCRIPTION = RecordCodecs.<TestRecord>start()
+        .withInt("a", TestRecord::a)
+        .withField("b", Codec.STRING, TestRecord::b)
+        .withFloat("c", TestRecord::c)
+        .withOptionalField("d", Codec.STRING, TestRecord::d);
+
+    private final String json = """
+            {
+                "a": 1,
+                "b": "test",
+                "c": 3.0
+            }""";
+
+    @Test
+    void testDecoding() {
+        for (var backend : RecordCodecs.Backend.values()) {
+            var codec = DESCRIPTION.build(MethodHandles.lookup(), TestRecord.class, backend);
+            CodecAssertions.assertDecodes(JsonOps.INSTANCE, json, new TestRecord(1, "test", 3.0f, Optional.empty()), codec);
+        }
+    }
+
+    @Test
+    void testEncoding() {
+        for (var backend : RecordCodecs.Backend.values()) {
+            var codec = DESCRIPTION.build(MethodHandles.lookup(), TestRecord.class, backend);
+            CodecAssertions.assertEncodes(JsonOps.INSTANCE, new TestRecord(1, "test", 3.0f, Optional.empty()), json, codec);
+        }
+    }
+
+    @Test
+    void testSinglePass() {
+        for (var backend : RecordCodecs.Backend.values()) {
+            var codec = DESCRIPTION.singlePass().build(MethodHandles.lookup(), TestRecord.class, backend);
+            CodecAssertions.assertDecodes(JsonOps.INSTANCE, json, new TestRecord(1, "test", 3.0f, Optional.empty()), codec);
+        }
+    }
+
+    @Test
+    void testAccumulatingErrors() {
+        var broken = JsonParser.parseString("""
+            {
+                "a": [],
+                "b": {},
+                "c": 3.0
+            }""");
+        for (var backend : RecordCodecs.Backend.values()) {
+            var codec = DESCRIPTION.accumulateErrors().build(MethodHandles.lookup(), TestRecord.class, backend);
+            var message = codec.parse(JsonOps.INSTANCE, broken).error().orElseThrow().message();
+            Assertions.assertTrue(message.contains("Not a number"), message);
+            Assertions.assertTrue(message.contains("Not a string"), message);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package dev.lukebemish.codecextras.test.structured;
+
+import com.google.gson.JsonParser;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.JsonOps;
+import dev.lukebemish.codecextras.structured.CodecInterpreter;
+import dev.lukebemish.codecextras.structured.DispatchCache;
+import dev.lukebemish.codecextras.structured.Structure;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestDispatchCache {
+    private record Value(String type, int value) {}
+
+    private static final Map<String, Structure<Value>> STRUCTURES = Map.of(
+        "a", value("a"),
+        "b", value("b"),
+        "c", value("c")
+    );
+
+    private static Structure<Value> value(String type) {
+        return Structure.<Value>record(i -> {
+            var value = i.add("value", Structure.INT, Value::value);
+            return container -> new Value(type, value.apply(container));
+        });
+    }
+
+    private static Codec<Value> codec(DispatchCache policy, AtomicInteger count) {
+        var structure = Structure.STRING.<Value>dispatch(
+            "type",
+            v -> DataResult.success(v.type()),
+            policy.keys(STRUCTURES::keySet),
+            k -> {
+                count.incrementAndGet();
+                return DataResult.success(STRUCTURES.get(k));
+            }
+        );
+        return CodecInterpreter.create().interpret(structure).getOrThrow();
+    }
+
+    private static Value decode(Codec<Value> codec, String type) {
+        var json = JsonParser.parseString("{\"type\":\"" + type + "\",\"value\":1}");
+        return codec.parse(JsonOps.INSTANCE, json).getOrThrow();
+    }
+
+    @Test
+    void testLazy() {
+        var count = new AtomicInteger();
+        var codec = codec(DispatchCache.lazy(), count);
+        Assertions.assertEquals(0, count.get());
+        Assertions.assertEquals(new Value("a", 1), decode(codec, "a"));
+        decode(codec, "a");
+        Assertions.assertEquals(1, count.get());
+    }
+
+    @Test
+    void testEager() {
+        var count = new AtomicInteger();
+        var codec = codec(DispatchCache.eager(), count);
+        Assertions.assertEquals(new Value("b", 1), decode(codec, "b"));
+        Assertions.assertEquals(STRUCTURES.size(), count.get());
+        decode(codec, "a");
+        decode(codec, "c");
+        Assertions.assertEquals(STRUCTURES.size(), count.get());
+    }
+
+    @Test
+    void testBounded() {
+        var count = new AtomicInteger();
+        var codec = codec(DispatchCache.bounded(1), count);
+        decode(codec, "a");
+        decode(codec, "a");
+        Assertions.assertEquals(1, count.get());
+        decode(codec, "b");
+        Assertions.assertEquals(new Value("a", 1), decode(codec, "a"));
+        Assertions.assertEquals(3, count.get());
+    }
+}
@@ -0,0 +1,113 @@
+package dev.lukebemish.codecextras.test.structured;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.mojang.datafixers.util.Either;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.Encoder;
+import com.mojang.serialization.JsonOps;
+import dev.lukebemish.codecextras.structured.CodecInterpreter;
+import dev.lukebemish.codecextras.structured.EncoderInterpreter;
+import dev.lukebemish.codecextras.structured.Structure;
+import dev.lukebemish.codecextras.test.CodecAssertions;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestEncoderInterpreter {
+    private interface Shape {
+        Map<String, Structure<? extends Shape>> MAP = Map.of(
+            "circle", Circle.STRUCTURE,
+            "group", Group.STRUCTURE
+        );
+        Structure<Shape> STRUCTURE = Structure.STRING.<Shape>dispatch(
+            "type",
+            s -> DataResult.success(s.type()),
+            MAP::keySet,
+            k -> DataResult.success(MAP.get(k))
+        );
+        String type();
+    }
+
+    private record Circle(double radius, Optional<String> label) implements Shape {
+        private static final Structure<Circle> STRUCTURE = Structure.<Circle>record(i -> {
+            var radius = i.add("radius", Structure.doubleInRange(0, 100), Circle::radius);
+            var label = i.addOptional("label", Structure.STRING, Circle::label);
+            return container -> new Circle(radius.apply(container), label.apply(container));
+        });
+
+        @Override
+        public String type() {
+            return "circle";
+        }
+    }
+
+    private record Group(List<Shape> children, Map<String, Integer> tags, Either<Integer, String> id) implements Shape {
+        private static final Structure<Group> STRUCTURE = Structure.<Group>record(i -> {
+            var children = i.add("children", Structure.lazyInitialized(() -> Shape.STRUCTURE).listOf(), Group::children);
+            var tags = i.addOptional("tags", Structure.unboundedMap(Structure.STRING, Structure.INT), Group::tags, Map::of);
+            var id = i.add("id", Structure.either(Structure.INT, Structure.STRING), Group::id);
+            return container -> new Group(children.apply(container), tags.apply(container), id.apply(container));
+        });
+
+        @Override
+        public String type() {
+            return "group";
+        }
+    }
+
+    private static final Encoder<Shape> ENCODER = new EncoderInterpreter().interpret(Shape.STRUCTURE).getOrThrow();
+
+    private static final Shape SHAPE = new Group(List.of(
+        new Circle(1.5, Optional.of("small")),
+        new Circle(20, Optional.empty()),
+        new Group(List.of(), Map.of(), Either.right("empty"))
+    ), Map.of("a", 1), Either.left(3));
+
+    @Test
+    void testEncoding() {
+        CodecAssertions.assertJsonEquals("""
+            {
+                "type": "group",
+                "children": [
+                    {"type": "circle", "radius": 1.5, "label": "small"},
+                    {"type": "circle", "radius": 20.0},
+                    {"type": "group", "children": [], "id": "empty"}
+                ],
+                "tags": {"a": 1},
+                "id": 3
+            }""", ENCODER.encodeStart(JsonOps.INSTANCE, SHAPE).getOrThrow().toString());
+    }
+
+    @Test
+    void testMatchesCodec() {
+        var codec = CodecInterpreter.create().interpret(Shape.STRUCTURE).getOrThrow();
+        Assertions.assertEquals(codec.encodeStart(JsonOps.INSTANCE, SHAPE).getOrThrow(), ENCODER.encodeStart(JsonOps.INSTANCE, SHAPE).getOrThrow());
+    }
+
+    @Test
+    void testOutOfRange() {
+        var result = ENCODER.encodeStart(JsonOps.INSTANCE, new Circle(101, Optional.empty()));
+        Assertions.assertEquals("Value 101.0 outside of range [0.0:100.0]", result.error().orElseThrow().message());
+    }
+
+    @Test
+    void testFailedMapping() {
+        var encoder = new EncoderInterpreter().interpret(Structure.INT.flatXmap(
+            DataResult::success,
+            i -> i < 0 ? DataResult.error(() -> "Negative value") : DataResult.success(i)
+        ).listOf()).getOrThrow();
+        CodecAssertions.assertJsonEquals("[1,2]", encoder.encodeStart(JsonOps.INSTANCE, List.of(1, 2)).getOrThrow().toString());
+        Assertions.assertEquals("Negative value", encoder.encodeStart(JsonOps.INSTANCE, List.of(1, -2)).error().orElseThrow().message());
+    }
+
+    @Test
+    void testPrefix() {
+        var prefix = new JsonObject();
+        prefix.add("extra", new JsonPrimitive(true));
+        var result = ENCODER.encode(new Circle(1, Optional.empty()), JsonOps.INSTANCE, prefix).getOrThrow();
+        CodecAssertions.assertJsonEquals("{\"extra\":true,\"type\":\"circle\",\"radius\":1.0}", result.toString());
+    }
+}
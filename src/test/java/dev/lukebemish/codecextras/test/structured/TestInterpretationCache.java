@@ -0,0 +1,53 @@
+package dev.lukebemish.codecextras.test.structured;
+
+import com.mojang.datafixers.kinds.App;
+import com.mojang.datafixers.kinds.K1;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.JsonOps;
+import dev.lukebemish.codecextras.structured.CodecInterpreter;
+import dev.lukebemish.codecextras.structured.Interpreter;
+import dev.lukebemish.codecextras.structured.Structure;
+import dev.lukebemish.codecextras.test.CodecAssertions;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestInterpretationCache {
+    private static final class CountingStructure implements Structure<Integer> {
+        private int interpretations;
+
+        @Override
+        public <Mu extends K1> DataResult<App<Mu, Integer>> interpret(Interpreter<Mu> interpreter) {
+            interpretations++;
+            return interpreter.interpretStructure(Structure.INT);
+        }
+    }
+
+    private record Point(int a, int b) {}
+
+    @Test
+    void testSharedSubStructure() {
+        var shared = new CountingStructure();
+        var structure = Structure.<Point>record(i -> {
+            var a = i.add("a", shared, Point::a);
+            var b = i.add("b", shared, Point::b);
+            return container -> new Point(a.apply(container), b.apply(container));
+        });
+        Codec<Point> codec = CodecInterpreter.create().interpret(structure).getOrThrow();
+        Assertions.assertEquals(1, shared.interpretations);
+        CodecAssertions.assertDecodes(JsonOps.INSTANCE, "{\"a\":1,\"b\":2}", new Point(1, 2), codec);
+    }
+
+    @Test
+    void testReinterpretation() {
+        var structure = new CountingStructure();
+        var interpreter = CodecInterpreter.create();
+        var first = interpreter.interpret(structure).getOrThrow();
+        var second = interpreter.interpret(structure).getOrThrow();
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, structure.interpretations);
+
+        CodecInterpreter.create().interpret(structure).getOrThrow();
+        Assertions.assertEquals(2, structure.interpretations);
+    }
+}
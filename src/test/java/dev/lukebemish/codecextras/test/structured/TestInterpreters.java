@@ -0,0 +1,122 @@
+package dev.lukebemish.codecextras.test.structured;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.JsonOps;
+import dev.lukebemish.codecextras.structured.CodecInterpreter;
+import dev.lukebemish.codecextras.structured.Interpreters;
+import dev.lukebemish.codecextras.structured.Structure;
+import dev.lukebemish.codecextras.structured.schema.JsonSchemaInterpreter;
+import dev.lukebemish.codecextras.test.CodecAssertions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestInterpreters {
+    private static final int COUNT = 256;
+
+    private sealed interface Shape {
+        Map<String, Structure<? extends Shape>> STRUCTURES = Map.of(
+            "circle", Circle.STRUCTURE,
+            "square", Square.STRUCTURE
+        );
+        Structure<Shape> STRUCTURE = Structure.STRING.<Shape>dispatch(
+            "type",
+            s -> DataResult.success(s.type()),
+            STRUCTURES::keySet,
+            k -> DataResult.success(STRUCTURES.get(k))
+        );
+        String type();
+    }
+
+    private record Circle(int radius) implements Shape {
+        private static final Structure<Circle> STRUCTURE = Structure.<Circle>record(i -> {
+            var radius = i.add("radius", Structure.INT, Circle::radius);
+            return container -> new Circle(radius.apply(container));
+        });
+
+        @Override
+        public String type() {
+            return "circle";
+        }
+    }
+
+    private record Square(int side) implements Shape {
+        private static final Structure<Square> STRUCTURE = Structure.<Square>record(i -> {
+            var side = i.add("side", Structure.INT, Square::side);
+            return container -> new Square(side.apply(container));
+        });
+
+        @Override
+        public String type() {
+            return "square";
+        }
+    }
+
+    private record Entry(int value, Shape shape) {}
+
+    private static Structure<Entry> structure(int index) {
+        return Structure.<Entry>record(i -> {
+            var value = i.add("value" + index, Structure.INT, Entry::value);
+            var shape = i.add("shape", Shape.STRUCTURE, Entry::shape);
+            return container -> new Entry(value.apply(container), shape.apply(container));
+        });
+    }
+
+    private static String json(int index) {
+        var shape = index % 2 == 0 ? "{\"type\":\"circle\",\"radius\":" + index + "}" : "{\"type\":\"square\",\"side\":" + index + "}";
+        return "{\"value" + index + "\":" + index + ",\"shape\":" + shape + "}";
+    }
+
+    private static Entry entry(int index) {
+        return new Entry(index, index % 2 == 0 ? new Circle(index) : new Square(index));
+    }
+
+    @Test
+    void testInterpretAll() {
+        List<Structure<Entry>> structures = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            structures.add(structure(i));
+        }
+        var codecInterpreter = CodecInterpreter.create();
+        var schemaInterpreter = new JsonSchemaInterpreter();
+        var pool = new ForkJoinPool(4);
+        try {
+            var results = Interpreters.interpretAll(pool, structures, codecInterpreter, schemaInterpreter);
+            for (int i = 0; i < COUNT; i++) {
+                var structure = structures.get(i);
+                Codec<Entry> codec = CodecInterpreter.unbox(results.get(codecInterpreter, structure).getOrThrow());
+                CodecAssertions.assertDecodes(JsonOps.INSTANCE, json(i), entry(i), codec);
+                Assertions.assertSame(codec, codecInterpreter.interpret(structure).getOrThrow());
+                Assertions.assertTrue(results.get(schemaInterpreter, structure).isSuccess());
+                CodecAssertions.assertJsonEquals(
+                    new JsonSchemaInterpreter().interpret(structure).getOrThrow().toString(),
+                    schemaInterpreter.interpret(structure).getOrThrow().toString()
+                );
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testMissingResult() {
+        var codecInterpreter = CodecInterpreter.create();
+        var results = Interpreters.interpretAll(List.of(Structure.INT), codecInterpreter);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> results.get(codecInterpreter, Structure.STRING));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> results.get(CodecInterpreter.create(), Structure.INT));
+    }
+
+    @Test
+    void testConcurrentDispatchDecoding() {
+        var codec = CodecInterpreter.create().interpret(Shape.STRUCTURE.listOf()).getOrThrow();
+        var expected = IntStream.range(0, COUNT).mapToObj(TestInterpreters::entry).map(Entry::shape).toList();
+        var json = "[" + String.join(",", IntStream.range(0, COUNT).mapToObj(i -> i % 2 == 0 ? "{\"type\":\"circle\",\"radius\":" + i + "}" : "{\"type\":\"square\",\"side\":" + i + "}").toList()) + "]";
+        // Every thread races to populate the dispatch codec's sub-codec cache
+        IntStream.range(0, COUNT).parallel().forEach(i -> CodecAssertions.assertDecodes(JsonOps.INSTANCE, json, expected, codec));
+    }
+}
@@ -0,0 +1,116 @@
+package dev.lukebemish.codecextras.test.structured;
+
+import com.mojang.datafixers.kinds.App;
+import dev.lukebemish.codecextras.structured.Key;
+import dev.lukebemish.codecextras.structured.Keys;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestKeys {
+    private static final int COUNT = 5000;
+
+    private static List<Key<Object>> keys(String prefix) {
+        var keys = new ArrayList<Key<Object>>(COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            keys.add(Key.create(prefix + i));
+        }
+        return keys;
+    }
+
+    private static Keys<Key.Mu, Object> identity(List<Key<Object>> keys) {
+        var builder = Keys.<Key.Mu, Object>builder();
+        for (var key : keys) {
+            builder.add(key, key);
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testLookup() {
+        var keys = keys("key");
+        var set = identity(keys);
+        for (var key : keys) {
+            Assertions.assertSame(key, set.getOrNull(key));
+            Assertions.assertSame(key, set.get(key).orElseThrow());
+        }
+        Assertions.assertNull(set.getOrNull(Key.create("missing")));
+        Assertions.assertTrue(set.get(Key.create("missing")).isEmpty());
+    }
+
+    @Test
+    void testIndicesDistinct() {
+        var keys = keys("key");
+        var indices = new HashSet<Integer>();
+        for (var key : keys) {
+            Assertions.assertTrue(key.index() >= 0);
+            Assertions.assertTrue(indices.add(key.index()));
+        }
+    }
+
+    @Test
+    void testWithLeavesOriginal() {
+        var keys = keys("key");
+        var set = identity(keys);
+        var replacement = Key.create("replacement");
+        var added = Key.create("added");
+        var modified = set.with(keys.getFirst(), replacement).with(added, added);
+        Assertions.assertSame(replacement, modified.getOrNull(keys.getFirst()));
+        Assertions.assertSame(added, modified.getOrNull(added));
+        Assertions.assertSame(keys.getFirst(), set.getOrNull(keys.getFirst()));
+        Assertions.assertNull(set.getOrNull(added));
+        for (var key : keys.subList(1, COUNT)) {
+            Assertions.assertSame(key, modified.getOrNull(key));
+        }
+    }
+
+    @Test
+    void testJoinPrefersOther() {
+        var first = keys("first");
+        var second = keys("second");
+        var shared = first.subList(0, 10);
+        var small = Keys.<Key.Mu, Object>builder();
+        for (var key : shared) {
+            small.add(key, Key.create("override"));
+        }
+        var large = identity(first).join(identity(second));
+        // Joined in both directions, so that either set may be the larger
+        for (var joined : List.of(large.join(small.build()), small.build().join(large).join(small.build()))) {
+            for (var key : shared) {
+                Assertions.assertEquals(Key.create("override").name(), Key.unbox(joined.getOrNull(key)).name());
+            }
+            for (var key : first.subList(10, COUNT)) {
+                Assertions.assertSame(key, joined.getOrNull(key));
+            }
+            for (var key : second) {
+                Assertions.assertSame(key, joined.getOrNull(key));
+            }
+        }
+        var reversed = small.build().join(large);
+        for (var key : shared) {
+            Assertions.assertSame(key, reversed.getOrNull(key));
+        }
+    }
+
+    @Test
+    void testMap() {
+        var keys = keys("key");
+        var replacements = new IdentityHashMap<Key<?>, Key<?>>();
+        for (var key : keys) {
+            replacements.put(key, Key.create(key.name()));
+        }
+        var mapped = identity(keys).map(new Keys.Converter<Key.Mu, Key.Mu, Object>() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public <A> App<Key.Mu, A> convert(App<Key.Mu, A> input) {
+                return (Key<A>) replacements.get(Key.unbox(input));
+            }
+        });
+        for (var key : keys) {
+            Assertions.assertSame(replacements.get(key), mapped.getOrNull(key));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package dev.lukebemish.codecextras.test.structured;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.JsonOps;
+import dev.lukebemish.codecextras.structured.Annotation;
+import dev.lukebemish.codecextras.structured.CodecInterpreter;
+import dev.lukebemish.codecextras.structured.Structure;
+import dev.lukebemish.codecextras.structured.schema.JsonSchemaInterpreter;
+import dev.lukebemish.codecextras.test.CodecAssertions;
+import java.util.function.Function;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestMappedStructures {
+    private record Wrapper(String value) {}
+
+    private static final Structure<Wrapper> STRUCTURE = Structure.INT
+        .annotate(Annotation.DESCRIPTION, "A positive number")
+        .xmap(i -> i * 2, i -> i / 2)
+        .flatXmap(
+            i -> i > 0 ? DataResult.success(Integer.toString(i)) : DataResult.error(() -> "Not positive: " + i),
+            s -> DataResult.success(Integer.parseInt(s))
+        )
+        .xmap(Wrapper::new, Wrapper::value);
+
+    private static final Codec<Wrapper> CODEC = CodecInterpreter.create().interpret(STRUCTURE).getOrThrow();
+
+    @Test
+    void testDecoding() {
+        CodecAssertions.assertDecodes(JsonOps.INSTANCE, "3", new Wrapper("6"), CODEC);
+    }
+
+    @Test
+    void testEncoding() {
+        CodecAssertions.assertEncodes(JsonOps.INSTANCE, new Wrapper("6"), "3", CODEC);
+    }
+
+    @Test
+    void testFailure() {
+        var result = CODEC.parse(JsonOps.INSTANCE, JsonOps.INSTANCE.createInt(-1));
+        Assertions.assertEquals("Not positive: -2", result.error().orElseThrow().message());
+    }
+
+    @Test
+    void testAnnotationsKept() {
+        CodecAssertions.assertJsonEquals("""
+            {
+                "type": "integer",
+                "description": "A positive number"
+            }""", new JsonSchemaInterpreter().interpret(STRUCTURE).getOrThrow().toString());
+    }
+
+    @Test
+    void testIdentity() {
+        Assertions.assertSame(Structure.INT, Structure.INT.xmap(Function.identity(), Function.identity()));
+    }
+}
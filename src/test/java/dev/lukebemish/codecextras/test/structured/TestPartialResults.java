@@ -2,6 +2,7 @@
 
 import static dev.lukebemish.codecextras.test.CodecAssertions.*;
 
+import com.google.gson.JsonParser;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.JsonOps;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
@@ -9,6 +10,7 @@
 import dev.lukebemish.codecextras.structured.Structure;
 import java.util.List;
 import java.util.function.Function;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 public class TestPartialResults {
@@ -40,4 +42,59 @@ void testPartialResults() {
             .getOrThrow()
         );
     }
+
+    private record Pair(List<String> first, List<String> second) {}
+
+    @Test
+    void testPartialResultsInSeveralFields() {
+        final var structure = Structure.<Pair>record(i -> {
+            var first = i.add("first", Structure.STRING.listOf(), Pair::first);
+            var second = i.add("second", Structure.STRING.listOf(), Pair::second);
+            return container -> new Pair(first.apply(container), second.apply(container));
+        });
+
+        final var json = """
+            {
+                "first": [
+                    "abc",
+                    123
+                ],
+                "second": [
+                    456,
+                    "def"
+                ]
+            }""";
+        final var expected = new Pair(List.of("abc"), List.of("def"));
+
+        assertDecodesOrPartial(JsonOps.INSTANCE, json, expected, CodecInterpreter.create()
+            .interpret(structure)
+            .getOrThrow()
+        );
+    }
+
+    private record Numbers(int first, int second, int third) {}
+
+    @Test
+    void testSeveralErrors() {
+        final var structure = Structure.<Numbers>record(i -> {
+            var first = i.add("first", Structure.INT, Numbers::first);
+            var second = i.add("second", Structure.INT, Numbers::second);
+            var third = i.add("third", Structure.INT, Numbers::third);
+            return container -> new Numbers(first.apply(container), second.apply(container), third.apply(container));
+        });
+
+        final var json = """
+            {
+                "first": "abc",
+                "second": 2,
+                "third": "def"
+            }""";
+
+        var result = CodecInterpreter.create().interpret(structure).getOrThrow()
+            .parse(JsonOps.INSTANCE, JsonParser.parseString(json));
+        var message = result.error().orElseThrow().message();
+        Assertions.assertTrue(message.contains("abc"), message);
+        Assertions.assertTrue(message.contains("def"), message);
+        Assertions.assertTrue(message.indexOf("abc") < message.indexOf("def"), message);
+    }
 }
@@ -0,0 +1,63 @@
+package dev.lukebemish.codecextras.test.structured;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
+import dev.lukebemish.codecextras.structured.CodecInterpreter;
+import dev.lukebemish.codecextras.structured.Structure;
+import dev.lukebemish.codecextras.structured.schema.JsonSchemaInterpreter;
+import dev.lukebemish.codecextras.test.CodecAssertions;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestRanges {
+    private record Settings(int count, double scale) {
+        private static final Structure<Settings> STRUCTURE = Structure.<Settings>record(i -> {
+            var count = i.add("count", Structure.intInRange(1, 10), Settings::count);
+            var scale = i.add("scale", Structure.doubleInRange(0, 1), Settings::scale);
+            return container -> new Settings(count.apply(container), scale.apply(container));
+        });
+
+        private static final Codec<Settings> CODEC = CodecInterpreter.create().interpret(STRUCTURE).getOrThrow();
+    }
+
+    @Test
+    void testDecoding() {
+        CodecAssertions.assertDecodes(JsonOps.INSTANCE, "{\"count\":5,\"scale\":0.5}", new Settings(5, 0.5), Settings.CODEC);
+    }
+
+    @Test
+    void testEncoding() {
+        CodecAssertions.assertEncodes(JsonOps.INSTANCE, new Settings(5, 0.5), "{\"count\":5,\"scale\":0.5}", Settings.CODEC);
+    }
+
+    @Test
+    void testOutOfRange() {
+        Codec<Integer> codec = CodecInterpreter.create().interpret(Structure.intInRange(1, 10)).getOrThrow();
+        var result = codec.parse(JsonOps.INSTANCE, JsonOps.INSTANCE.createInt(11));
+        Assertions.assertEquals("Value 11 outside of range [1:10]", result.error().orElseThrow().message());
+        Assertions.assertTrue(codec.encodeStart(JsonOps.INSTANCE, 0).isError());
+    }
+
+    @Test
+    void testNaN() {
+        Codec<Double> codec = CodecInterpreter.create().interpret(Structure.doubleInRange(0, 1)).getOrThrow();
+        Assertions.assertTrue(codec.parse(JsonOps.INSTANCE, JsonOps.INSTANCE.createDouble(Double.NaN)).isError());
+    }
+
+    @Test
+    void testMapped() {
+        Codec<String> codec = CodecInterpreter.create().interpret(Structure.intInRange(1, 10).xmap(Integer::toString, Integer::parseInt)).getOrThrow();
+        CodecAssertions.assertDecodes(JsonOps.INSTANCE, "3", "3", codec);
+        Assertions.assertTrue(codec.parse(JsonOps.INSTANCE, JsonOps.INSTANCE.createInt(0)).isError());
+    }
+
+    @Test
+    void testJsonSchema() {
+        CodecAssertions.assertJsonEquals("""
+            {
+                "type": "integer",
+                "minimum": 1,
+                "maximum": 10
+            }""", new JsonSchemaInterpreter().interpret(Structure.intInRange(1, 10)).getOrThrow().toString());
+    }
+}
@@ -0,0 +1,100 @@
+package dev.lukebemish.codecextras.test.structured;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.JsonOps;
+import com.mojang.serialization.MapCodec;
+import dev.lukebemish.codecextras.structured.CodecInterpreter;
+import dev.lukebemish.codecextras.structured.IdentityInterpreter;
+import dev.lukebemish.codecextras.structured.MapCodecInterpreter;
+import dev.lukebemish.codecextras.structured.Structure;
+import dev.lukebemish.codecextras.structured.schema.JsonSchemaInterpreter;
+import dev.lukebemish.codecextras.test.CodecAssertions;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestRecursive {
+    private record Node(int value, List<Node> children) {
+        private static final Structure<Node> STRUCTURE = Structure.recursive("node", self -> Structure.<Node>record(i -> {
+            var value = i.add("value", Structure.INT, Node::value);
+            var children = i.addOptional("children", self.listOf(), Node::children, List::of);
+            return container -> new Node(value.apply(container), children.apply(container));
+        }));
+
+        private static final Codec<Node> CODEC = CodecInterpreter.create().interpret(STRUCTURE).getOrThrow();
+    }
+
+    private final String json = """
+            {
+                "value": 1,
+                "children": [
+                    {
+                        "value": 2,
+                        "children": [
+                            {
+                                "value": 3
+                            }
+                        ]
+                    },
+                    {
+                        "value": 4
+                    }
+                ]
+            }""";
+
+    private final Node node = new Node(1, List.of(
+        new Node(2, List.of(new Node(3, List.of()))),
+        new Node(4, List.of())
+    ));
+
+    private final String schema = """
+            {
+                "$ref": "#/$defs/node",
+                "$defs": {
+                    "node": {
+                        "type": "object",
+                        "properties": {
+                            "value": {
+                                "type": "integer"
+                            },
+                            "children": {
+                                "type": "array",
+                                "items": {
+                                    "$ref": "#/$defs/node"
+                                },
+                                "default": []
+                            }
+                        },
+                        "required": [
+                            "value"
+                        ]
+                    }
+                }
+            }""";
+
+    @Test
+    void testDecoding() {
+        CodecAssertions.assertDecodes(JsonOps.INSTANCE, json, node, Node.CODEC);
+    }
+
+    @Test
+    void testEncoding() {
+        CodecAssertions.assertEncodes(JsonOps.INSTANCE, node, json, Node.CODEC);
+    }
+
+    @Test
+    void testMapCodec() {
+        MapCodec<Node> mapCodec = MapCodecInterpreter.create().interpret(Node.STRUCTURE).getOrThrow();
+        CodecAssertions.assertDecodes(JsonOps.INSTANCE, json, node, mapCodec.codec());
+    }
+
+    @Test
+    void testJsonSchema() {
+        CodecAssertions.assertJsonEquals(schema, new JsonSchemaInterpreter().interpret(Node.STRUCTURE).getOrThrow().toString());
+    }
+
+    @Test
+    void testNoDefault() {
+        Assertions.assertTrue(IdentityInterpreter.INSTANCE.interpret(Node.STRUCTURE).isError());
+    }
+}
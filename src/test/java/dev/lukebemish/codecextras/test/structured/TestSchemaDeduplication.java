@@ -0,0 +1,106 @@
+package dev.lukebemish.codecextras.test.structured;
+
+import com.google.gson.stream.JsonWriter;
+import dev.lukebemish.codecextras.structured.Structure;
+import dev.lukebemish.codecextras.structured.schema.JsonSchemaInterpreter;
+import dev.lukebemish.codecextras.structured.schema.SchemaAnnotations;
+import dev.lukebemish.codecextras.test.CodecAssertions;
+import java.io.IOException;
+import java.io.StringWriter;
+import org.junit.jupiter.api.Test;
+
+class TestSchemaDeduplication {
+    private record Point(int x, int y) {
+        private static final Structure<Point> STRUCTURE = Structure.<Point>record(i -> {
+            var x = i.add("x", Structure.INT, Point::x);
+            var y = i.add("y", Structure.INT, Point::y);
+            return container -> new Point(x.apply(container), y.apply(container));
+        });
+    }
+
+    private record Line(Point start, Point end) {}
+
+    private static final Structure<Line> LINE = Structure.<Line>record(i -> {
+        var start = i.add("start", Point.STRUCTURE, Line::start);
+        var end = i.add("end", Point.STRUCTURE, Line::end);
+        return container -> new Line(start.apply(container), end.apply(container));
+    });
+
+    private static final Structure<Line> LINE_WITH_DEFINITION = Structure.<Line>record(i -> {
+        var start = i.add("start", Point.STRUCTURE.annotate(SchemaAnnotations.REUSE_KEY, "point"), Line::start);
+        var end = i.add("end", Point.STRUCTURE, Line::end);
+        return container -> new Line(start.apply(container), end.apply(container));
+    });
+
+    private static final String POINT_SCHEMA = """
+        {
+            "type": "object",
+            "properties": {
+                "x": {
+                    "type": "integer"
+                },
+                "y": {
+                    "type": "integer"
+                }
+            },
+            "required": [
+                "x",
+                "y"
+            ]
+        }""";
+
+    private static String lineSchema(String name) {
+        return """
+            {
+                "type": "object",
+                "properties": {
+                    "start": {
+                        "$ref": "#/$defs/%1$s"
+                    },
+                    "end": {
+                        "$ref": "#/$defs/%1$s"
+                    }
+                },
+                "required": [
+                    "start",
+                    "end"
+                ],
+                "$defs": {
+                    "%1$s": %2$s
+                }
+            }""".formatted(name, POINT_SCHEMA);
+    }
+
+    @Test
+    void testRepeatedSchemaHoisted() {
+        CodecAssertions.assertJsonEquals(lineSchema("shared0"), new JsonSchemaInterpreter().deduplicating().interpret(LINE).getOrThrow().toString());
+    }
+
+    @Test
+    void testExistingDefinitionReused() {
+        CodecAssertions.assertJsonEquals(lineSchema("point"), new JsonSchemaInterpreter().deduplicating().interpret(LINE_WITH_DEFINITION).getOrThrow().toString());
+    }
+
+    @Test
+    void testWithoutDeduplication() {
+        CodecAssertions.assertJsonEquals("""
+            {
+                "type": "object",
+                "properties": {
+                    "start": %1$s,
+                    "end": %1$s
+                },
+                "required": [
+                    "start",
+                    "end"
+                ]
+            }""".formatted(POINT_SCHEMA), new JsonSchemaInterpreter().interpret(LINE).getOrThrow().toString());
+    }
+
+    @Test
+    void testWriting() throws IOException {
+        var writer = new StringWriter();
+        new JsonSchemaInterpreter().deduplicating().write(LINE, new JsonWriter(writer)).getOrThrow();
+        CodecAssertions.assertJsonEquals(lineSchema("shared0"), writer.toString());
+    }
+}
@@ -0,0 +1,54 @@
+package dev.lukebemish.codecextras.test.structured;
+
+import com.google.gson.stream.JsonWriter;
+import dev.lukebemish.codecextras.structured.Annotation;
+import dev.lukebemish.codecextras.structured.Key;
+import dev.lukebemish.codecextras.structured.Structure;
+import dev.lukebemish.codecextras.structured.schema.JsonSchemaInterpreter;
+import dev.lukebemish.codecextras.structured.schema.SchemaAnnotations;
+import dev.lukebemish.codecextras.test.CodecAssertions;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestSchemaWriting {
+    private record Point(int x, int y) {
+        private static final Structure<Point> STRUCTURE = Structure.<Point>record(i -> {
+            var x = i.add("x", Structure.INT.annotate(Annotation.DESCRIPTION, "The x coordinate"), Point::x);
+            var y = i.addOptional("y", Structure.INT, Point::y, () -> 0);
+            return container -> new Point(x.apply(container), y.apply(container));
+        }).annotate(SchemaAnnotations.REUSE_KEY, "point");
+    }
+
+    private record Shape(String name, List<Point> points) {
+        private static final Structure<Shape> STRUCTURE = Structure.<Shape>record(i -> {
+            var name = i.add("name", Structure.STRING, Shape::name);
+            var points = i.add("points", Point.STRUCTURE.listOf(), Shape::points);
+            return container -> new Shape(name.apply(container), points.apply(container));
+        });
+    }
+
+    @Test
+    void testMatchesInterpreted() throws IOException {
+        var interpreter = new JsonSchemaInterpreter();
+        var writer = new StringWriter();
+        Assertions.assertTrue(interpreter.write(Shape.STRUCTURE, new JsonWriter(writer)).isSuccess());
+        CodecAssertions.assertJsonEquals(
+            new JsonSchemaInterpreter().interpret(Shape.STRUCTURE).getOrThrow().toString(),
+            writer.toString()
+        );
+    }
+
+    @Test
+    void testErrorWritesNothing() throws IOException {
+        var structure = Structure.<Point>record(i -> {
+            var x = i.add("x", Structure.keyed(Key.<Integer>create("missing")), Point::x);
+            return container -> new Point(x.apply(container), 0);
+        });
+        var writer = new StringWriter();
+        Assertions.assertTrue(new JsonSchemaInterpreter().write(structure, new JsonWriter(writer)).isError());
+        Assertions.assertEquals("", writer.toString());
+    }
+}
@@ -0,0 +1,101 @@
+package dev.lukebemish.codecextras.test.structured;
+
+import com.google.gson.JsonParser;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.JsonOps;
+import dev.lukebemish.codecextras.structured.CodecInterpreter;
+import dev.lukebemish.codecextras.structured.DispatchCache;
+import dev.lukebemish.codecextras.structured.Structure;
+import dev.lukebemish.codecextras.structured.ValidatorInterpreter;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestStringDispatch {
+    private record Value(String type, int value) {}
+
+    private static final Map<String, Structure<Value>> STRUCTURES = Map.of(
+        "a", value("a"),
+        "b", value("b")
+    );
+
+    private static Structure<Value> value(String type) {
+        return Structure.<Value>record(i -> {
+            var value = i.add("value", Structure.INT, Value::value);
+            return container -> new Value(type, value.apply(container));
+        });
+    }
+
+    private static Structure<Value> structure(AtomicInteger keyDecodes, Supplier<Set<String>> keys) {
+        var keyStructure = Structure.STRING.flatXmap(s -> {
+            keyDecodes.incrementAndGet();
+            return DataResult.success(s);
+        }, DataResult::success);
+        return keyStructure.<Value>dispatch(
+            "type",
+            v -> DataResult.success(v.type()),
+            keys,
+            k -> STRUCTURES.containsKey(k) ? DataResult.success(STRUCTURES.get(k)) : DataResult.error(() -> "Unknown type " + k)
+        );
+    }
+
+    private static final Supplier<Set<String>> TABLE_KEYS = DispatchCache.lazy().withKeyTable().keys(STRUCTURES::keySet);
+
+    private static DataResult<Value> decode(Codec<Value> codec, String json) {
+        return codec.parse(JsonOps.INSTANCE, JsonParser.parseString(json));
+    }
+
+    @Test
+    void testSkipsKeyDecoding() {
+        var keyDecodes = new AtomicInteger();
+        var codec = CodecInterpreter.create().interpret(structure(keyDecodes, TABLE_KEYS)).getOrThrow();
+        Assertions.assertEquals(new Value("a", 1), decode(codec, "{\"type\":\"a\",\"value\":1}").getOrThrow());
+        Assertions.assertEquals(new Value("b", 2), decode(codec, "{\"type\":\"b\",\"value\":2}").getOrThrow());
+        Assertions.assertEquals(0, keyDecodes.get());
+    }
+
+    @Test
+    void testUnknownKeyDecoded() {
+        var keyDecodes = new AtomicInteger();
+        var codec = CodecInterpreter.create().interpret(structure(keyDecodes, TABLE_KEYS)).getOrThrow();
+        Assertions.assertTrue(decode(codec, "{\"type\":\"c\",\"value\":1}").error().isPresent());
+        Assertions.assertTrue(decode(codec, "{\"value\":1}").error().isPresent());
+        Assertions.assertEquals(1, keyDecodes.get());
+    }
+
+    @Test
+    void testDefaultDecodesKeys() {
+        var keyDecodes = new AtomicInteger();
+        var codec = CodecInterpreter.create().interpret(structure(keyDecodes, STRUCTURES::keySet)).getOrThrow();
+        Assertions.assertEquals(new Value("a", 1), decode(codec, "{\"type\":\"a\",\"value\":1}").getOrThrow());
+        Assertions.assertEquals(1, keyDecodes.get());
+    }
+
+    @Test
+    void testDefaultRejectsRemovedKey() {
+        var keys = new HashSet<>(STRUCTURES.keySet());
+        var codec = CodecInterpreter.create().interpret(structure(new AtomicInteger(), () -> keys)).getOrThrow();
+        Assertions.assertTrue(decode(codec, "{\"type\":\"b\",\"value\":1}").result().isPresent());
+        keys.remove("b");
+        Assertions.assertTrue(decode(codec, "{\"type\":\"b\",\"value\":1}").error().isPresent());
+    }
+
+    @Test
+    void testBoundedCacheRejectsKeyTable() {
+        Assertions.assertThrows(IllegalStateException.class, () -> DispatchCache.bounded(8).withKeyTable());
+    }
+
+    @Test
+    void testValidatorSkipsKeyDecoding() {
+        var keyDecodes = new AtomicInteger();
+        var validator = new ValidatorInterpreter().interpret(structure(keyDecodes, TABLE_KEYS)).getOrThrow();
+        var json = JsonParser.parseString("{\"type\":\"a\",\"value\":1}");
+        Assertions.assertTrue(validator.validate(JsonOps.INSTANCE, json).result().isPresent());
+        Assertions.assertEquals(0, keyDecodes.get());
+    }
+}
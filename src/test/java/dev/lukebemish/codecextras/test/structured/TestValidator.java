@@ -0,0 +1,140 @@
+package dev.lukebemish.codecextras.test.structured;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.mojang.datafixers.kinds.K1;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.JsonOps;
+import dev.lukebemish.codecextras.structured.CodecInterpreter;
+import dev.lukebemish.codecextras.structured.Key;
+import dev.lukebemish.codecextras.structured.Keys;
+import dev.lukebemish.codecextras.structured.Keys2;
+import dev.lukebemish.codecextras.structured.ParametricKeyedValue;
+import dev.lukebemish.codecextras.structured.Structure;
+import dev.lukebemish.codecextras.structured.ValidatorInterpreter;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestValidator {
+    private interface Shape {
+        Map<String, Structure<? extends Shape>> MAP = Map.of(
+            "circle", Circle.STRUCTURE,
+            "square", Square.STRUCTURE
+        );
+        Structure<Shape> STRUCTURE = Structure.STRING.<Shape>dispatch(
+            "type",
+            s -> DataResult.success(s.type()),
+            MAP::keySet,
+            k -> {
+                var structure = MAP.get(k);
+                return structure == null ? DataResult.error(() -> "Unknown shape " + k) : DataResult.success(structure);
+            }
+        );
+        String type();
+    }
+
+    private record Circle(double radius) implements Shape {
+        private static final Structure<Circle> STRUCTURE = Structure.<Circle>record(i -> {
+            var radius = i.add("radius", Structure.doubleInRange(0, 100), Circle::radius);
+            return container -> new Circle(radius.apply(container));
+        });
+
+        @Override
+        public String type() {
+            return "circle";
+        }
+    }
+
+    private record Square(int side, String color) implements Shape {
+        private static final Structure<Square> STRUCTURE = Structure.<Square>record(i -> {
+            var side = i.add("side", Structure.intInRange(1, 10), Square::side);
+            var color = i.addOptional("color", Structure.STRING.bounded(() -> Set.of("red", "blue")), Square::color, () -> "red");
+            return container -> new Square(side.apply(container), color.apply(container));
+        });
+
+        @Override
+        public String type() {
+            return "square";
+        }
+    }
+
+    private static final ValidatorInterpreter.Validator VALIDATOR = new ValidatorInterpreter().interpret(Shape.STRUCTURE.listOf()).getOrThrow();
+
+    private static DataResult<?> validate(String json) {
+        JsonElement input = JsonParser.parseString(json);
+        return VALIDATOR.validate(JsonOps.INSTANCE, input);
+    }
+
+    @Test
+    void testValid() {
+        Assertions.assertTrue(validate("[{\"type\":\"circle\",\"radius\":2.5},{\"type\":\"square\",\"side\":3,\"color\":\"blue\"},{\"type\":\"square\",\"side\":1}]").isSuccess());
+    }
+
+    @Test
+    void testWrongType() {
+        Assertions.assertTrue(validate("[{\"type\":\"circle\",\"radius\":\"large\"}]").isError());
+        Assertions.assertTrue(validate("{\"type\":\"circle\",\"radius\":2.5}").isError());
+    }
+
+    @Test
+    void testOutOfRange() {
+        var result = validate("[{\"type\":\"square\",\"side\":11}]");
+        Assertions.assertEquals("Value 11 outside of range [1:10]", result.error().orElseThrow().message());
+    }
+
+    @Test
+    void testMissingField() {
+        Assertions.assertTrue(validate("[{\"type\":\"square\"}]").isError());
+    }
+
+    @Test
+    void testBounded() {
+        Assertions.assertTrue(validate("[{\"type\":\"square\",\"side\":3,\"color\":\"green\"}]").isError());
+    }
+
+    @Test
+    void testUnknownDispatchKey() {
+        var result = validate("[{\"type\":\"triangle\"}]");
+        Assertions.assertEquals("Unknown shape triangle", result.error().orElseThrow().message());
+    }
+
+    @Test
+    void testSeveralErrors() {
+        var result = validate("[{\"type\":\"square\",\"side\":0},{\"type\":\"circle\",\"radius\":-1}]");
+        Assertions.assertEquals("Value 0 outside of range [1:10]; Value -1.0 outside of range [0.0:100.0]", result.error().orElseThrow().message());
+    }
+
+    @Test
+    void testMatchesCodec() {
+        var validator = new ValidatorInterpreter().interpret(Structure.STRING.flatXmap(
+            s -> s.isEmpty() ? DataResult.error(() -> "Empty string") : DataResult.success(s),
+            DataResult::success
+        ).listOf()).getOrThrow();
+        Assertions.assertTrue(validator.validate(JsonOps.INSTANCE, JsonParser.parseString("[\"a\",\"b\"]")).isSuccess());
+        Assertions.assertEquals("Empty string", validator.validate(JsonOps.INSTANCE, JsonParser.parseString("[\"a\",\"\"]")).error().orElseThrow().message());
+        Assertions.assertTrue(validator.validate(JsonOps.INSTANCE, JsonParser.parseString("[{}]")).isError());
+    }
+
+    @Test
+    void testCodecOnlyKey() {
+        var even = Key.<Integer>create("even");
+        var codecInterpreter = CodecInterpreter.create().with(
+            Keys.<CodecInterpreter.Holder.Mu, Object>builder()
+                .add(even, new CodecInterpreter.Holder<>(Codec.INT.validate(i -> i % 2 == 0 ? DataResult.success(i) : DataResult.error(() -> "Odd value " + i))))
+                .build(),
+            Keys2.<ParametricKeyedValue.Mu<CodecInterpreter.Holder.Mu>, K1, K1>builder().build()
+        );
+        var interpreter = new ValidatorInterpreter(
+            Keys.<ValidatorInterpreter.Holder.Mu, Object>builder().build(),
+            Keys2.<ParametricKeyedValue.Mu<ValidatorInterpreter.Holder.Mu>, K1, K1>builder().build(),
+            codecInterpreter
+        );
+        var validator = interpreter.interpret(Structure.keyed(even).listOf()).getOrThrow();
+        Assertions.assertTrue(validator.validate(JsonOps.INSTANCE, JsonParser.parseString("[2,4]")).isSuccess());
+        Assertions.assertEquals("Odd value 3", validator.validate(JsonOps.INSTANCE, JsonParser.parseString("[2,3]")).error().orElseThrow().message());
+        Assertions.assertTrue(new ValidatorInterpreter().interpret(Structure.keyed(even)).isError());
+    }
+}